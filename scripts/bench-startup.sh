@@ -0,0 +1,96 @@
+#!/usr/bin/env bash
+#
+# Compares startup of the plain jar, the plain jar in the "prod" profile, and the
+# AOT-processed jar with its class-data sharing archive (also "prod"). Each mode is
+# started RUNS times after one unmeasured start that warms the OS file cache; the
+# script reports, per run and as the median, the time from launching the JVM to the
+# first successful response, and the process RSS at that moment.
+#
+# Requirements: curl, Linux (/proc for RSS), a database with the schema in place,
+# and both artifacts:
+#   ./mvnw -Pstartup -DskipTests package
+#
+# Environment:
+#   JAR          plain application jar       (default: target/e-commerce-0.0.1-SNAPSHOT.jar)
+#   STARTUP_DIR  extracted jar and archive   (default: target/startup)
+#   DB_URL       JDBC URL override           (default: application.properties)
+#   PORT         HTTP port                   (default: 8080)
+#   URL_PATH     first request               (default: /api/products?size=1)
+#   RUNS         measured starts per mode    (default: 5)
+#   JAVA_OPTS    extra JVM options, same for every mode (e.g. "-Xmx512m")
+set -euo pipefail
+
+JAR=${JAR:-target/e-commerce-0.0.1-SNAPSHOT.jar}
+STARTUP_DIR=${STARTUP_DIR:-target/startup}
+PORT=${PORT:-8080}
+URL_PATH=${URL_PATH:-"/api/products?size=1"}
+RUNS=${RUNS:-5}
+JAVA_OPTS=${JAVA_OPTS:-}
+RESULTS=${RESULTS:-target/bench-startup}
+
+STARTUP_JAR="$STARTUP_DIR/$(basename "$JAR")"
+ARCHIVE="$STARTUP_DIR/application.jsa"
+[ -f "$JAR" ] || { echo "Missing $JAR; run './mvnw -Pstartup -DskipTests package' first" >&2; exit 1; }
+[ -f "$STARTUP_JAR" ] && [ -f "$ARCHIVE" ] \
+    || { echo "Missing $STARTUP_JAR or $ARCHIVE; run './mvnw -Pstartup -DskipTests package' first" >&2; exit 1; }
+[ -r /proc/self/status ] || { echo "/proc is required to read RSS" >&2; exit 1; }
+mkdir -p "$RESULTS"
+
+APP_PID=
+cleanup() { [ -n "$APP_PID" ] && kill "$APP_PID" 2>/dev/null || true; }
+trap cleanup EXIT
+
+now_ms() { echo $(( $(date +%s%N) / 1000000 )); }
+
+# Starts one mode, waits for the first response and appends "<ms> <rss-kb>" to $2
+start_once() {
+    local mode=$1 out=$2
+    local jvm=() jar=$JAR
+    local args=(--server.port="$PORT" --spring.jpa.show-sql=false
+        --app.catalog.snapshot.file= --app.trending.snapshot-file=)
+    case $mode in
+        default) ;;
+        prod) args+=(--spring.profiles.active=prod) ;;
+        aot-cds)
+            jvm=(-XX:SharedArchiveFile="$ARCHIVE" -Dspring.aot.enabled=true)
+            jar=$STARTUP_JAR
+            args+=(--spring.profiles.active=prod) ;;
+    esac
+    [ -n "${DB_URL:-}" ] && args+=(--spring.datasource.url="$DB_URL")
+
+    local start
+    start=$(now_ms)
+    # shellcheck disable=SC2086
+    java $JAVA_OPTS "${jvm[@]}" -jar "$jar" "${args[@]}" >"$RESULTS/app-$mode.log" 2>&1 &
+    APP_PID=$!
+    until curl -sf -o /dev/null "http://localhost:$PORT$URL_PATH"; do
+        kill -0 "$APP_PID" 2>/dev/null || { echo "$mode did not start; see $RESULTS/app-$mode.log" >&2; exit 1; }
+        [ $(( $(now_ms) - start )) -lt 120000 ] || { echo "$mode did not respond within 120 s" >&2; exit 1; }
+        sleep 0.01
+    done
+    local elapsed rss
+    elapsed=$(( $(now_ms) - start ))
+    rss=$(awk '/^VmRSS/ {print $2}' "/proc/$APP_PID/status")
+    kill "$APP_PID"
+    wait "$APP_PID" 2>/dev/null || true
+    APP_PID=
+    echo "$elapsed $rss" >>"$out"
+}
+
+median() { sort -n | awk '{v[NR] = $1} END {print (NR % 2) ? v[(NR + 1) / 2] : (v[NR / 2] + v[NR / 2 + 1]) / 2}'; }
+
+: >"$RESULTS/summary.txt"
+for mode in default prod aot-cds; do
+    runs="$RESULTS/$mode.txt"
+    : >"$runs"
+    start_once "$mode" /dev/null
+    for _ in $(seq 1 "$RUNS"); do
+        start_once "$mode" "$runs"
+    done
+    printf '%-8s first-response-ms=%s rss-mb=%s  (runs: %s)\n' "$mode" \
+        "$(cut -d' ' -f1 "$runs" | median)" \
+        "$(cut -d' ' -f2 "$runs" | median | awk '{printf "%.0f", $1 / 1024}')" \
+        "$(cut -d' ' -f1 "$runs" | paste -sd' ')" >>"$RESULTS/summary.txt"
+done
+
+cat "$RESULTS/summary.txt"
@@ -0,0 +1,88 @@
+#!/usr/bin/env bash
+#
+# Compares throughput and tail latency of the default (platform-thread) mode and
+# the "virtual" profile under the same load. Each mode runs the same packaged jar
+# against the same database; the script prints wrk's latency distribution and a
+# one-line summary per mode.
+#
+# Requirements: wrk (https://github.com/wg/wrk), curl, a packaged jar (mvn package)
+# and a database seeded with at least one user and product.
+#
+# To reproduce the slow-database case, point DB_URL at a latency proxy, e.g.
+# toxiproxy with a 50 ms latency toxic in front of Postgres:
+#   toxiproxy-cli create -l localhost:15432 -u localhost:5432 pg
+#   toxiproxy-cli toxic add -t latency -a latency=50 pg
+#   DB_URL='jdbc:postgresql://localhost:15432/ecommerce_db?reWriteBatchedInserts=true' scripts/bench-threads.sh
+#
+# Environment:
+#   JAR          application jar             (default: target/e-commerce-0.0.1-SNAPSHOT.jar)
+#   DB_URL       JDBC URL override           (default: application.properties)
+#   PORT         HTTP port                   (default: 8080)
+#   PATHS        space-separated GET paths   (default: "/api/orders?limit=20 /api/products/1")
+#   CONNECTIONS  concurrent connections      (default: 400)
+#   THREADS      wrk threads                 (default: 4)
+#   DURATION     measured run per path       (default: 60s)
+#   WARMUP       unmeasured warm-up per path (default: 20s)
+set -euo pipefail
+
+JAR=${JAR:-target/e-commerce-0.0.1-SNAPSHOT.jar}
+PORT=${PORT:-8080}
+PATHS=${PATHS:-"/api/orders?limit=20 /api/products/1"}
+CONNECTIONS=${CONNECTIONS:-400}
+THREADS=${THREADS:-4}
+DURATION=${DURATION:-60s}
+WARMUP=${WARMUP:-20s}
+RESULTS=${RESULTS:-target/bench-threads}
+
+command -v wrk >/dev/null || { echo "wrk is required" >&2; exit 1; }
+[ -f "$JAR" ] || { echo "Missing $JAR; run 'mvn package -DskipTests' first" >&2; exit 1; }
+mkdir -p "$RESULTS"
+
+APP_PID=
+cleanup() { [ -n "$APP_PID" ] && kill "$APP_PID" 2>/dev/null || true; }
+trap cleanup EXIT
+
+start_app() {
+    local profile=$1
+    local args=(--server.port="$PORT" --spring.jpa.show-sql=false)
+    [ -n "$profile" ] && args+=(--spring.profiles.active="$profile")
+    [ -n "${DB_URL:-}" ] && args+=(--spring.datasource.url="$DB_URL")
+    java -jar "$JAR" "${args[@]}" >"$RESULTS/app-${profile:-platform}.log" 2>&1 &
+    APP_PID=$!
+    for _ in $(seq 1 120); do
+        curl -sf -o /dev/null "http://localhost:$PORT/api/products?size=1" && return 0
+        sleep 1
+    done
+    echo "Application did not start; see $RESULTS/app-${profile:-platform}.log" >&2
+    exit 1
+}
+
+stop_app() {
+    kill "$APP_PID"
+    wait "$APP_PID" 2>/dev/null || true
+    APP_PID=
+}
+
+run_mode() {
+    local name=$1 profile=$2
+    start_app "$profile"
+    for path in $PATHS; do
+        local url="http://localhost:$PORT$path"
+        local out="$RESULTS/$name-$(echo "$path" | tr -c 'a-zA-Z0-9' '_').txt"
+        wrk -t"$THREADS" -c"$CONNECTIONS" -d"$WARMUP" "$url" >/dev/null
+        wrk -t"$THREADS" -c"$CONNECTIONS" -d"$DURATION" --latency "$url" | tee "$out"
+        printf '%-9s %-28s req/s=%s p99=%s non-2xx=%s\n' "$name" "$path" \
+            "$(awk '/Requests\/sec/ {print $2}' "$out")" \
+            "$(awk '$1 == "99%" {print $2}' "$out")" \
+            "$(awk '/Non-2xx/ {print $NF}' "$out" | grep . || echo 0)" >>"$RESULTS/summary.txt"
+    done
+    stop_app
+}
+
+: >"$RESULTS/summary.txt"
+run_mode platform ""
+run_mode virtual virtual
+
+echo
+cat "$RESULTS/summary.txt"
+grep -h "Virtual thread pinned" "$RESULTS/app-virtual.log" || echo "No pinning reported in virtual mode"
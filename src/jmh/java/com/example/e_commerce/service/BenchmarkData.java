@@ -0,0 +1,86 @@
+package com.example.e_commerce.service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.example.e_commerce.dto.OrderLineView;
+import com.example.e_commerce.dto.ProductResponse;
+import com.example.e_commerce.model.Order;
+import com.example.e_commerce.model.OrderItem;
+import com.example.e_commerce.model.Product;
+import com.example.e_commerce.model.User;
+
+/**
+ * Deterministic fixtures shared by the benchmarks. Prices vary so the BigDecimal
+ * arithmetic is not dominated by cached small values.
+ */
+final class BenchmarkData {
+
+    private static final LocalDateTime ORDER_DATE = LocalDateTime.of(2024, 5, 17, 10, 30);
+    private static final Instant UPDATED_AT = Instant.parse("2024-05-17T10:30:00.123456Z");
+
+    private BenchmarkData() {
+    }
+
+    static Product product(long id) {
+        Product product = new Product(id, "Product " + id, price(id).toPlainString());
+        product.setDescription("Description of product " + id + " with a few more words to serialize");
+        product.setImageUrl("https://cdn.example.com/products/" + id + ".jpg");
+        product.setVersion(0L);
+        product.setUpdatedAt(UPDATED_AT);
+        return product;
+    }
+
+    static List<Product> products(int count) {
+        List<Product> products = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            products.add(product(id));
+        }
+        return products;
+    }
+
+    static List<ProductResponse> productResponses(int count) {
+        return products(count).stream().map(ProductService::mapToResponse).toList();
+    }
+
+    static Order order(long id, int itemCount) {
+        Order order = new Order();
+        order.setId(id);
+        order.setUser(new User(7L, "Buyer", "buyer@example.com", "secret"));
+        order.setOrderDate(ORDER_DATE);
+        order.setStatus("PENDING");
+        for (Product product : products(itemCount)) {
+            OrderItem item = new OrderItem();
+            item.setProduct(product);
+            item.setQuantity((int) (product.getId() % 5) + 1);
+            item.setPrice(product.getPrice());
+            order.addOrderItem(item);
+        }
+        order.setTotalAmount(OrderService.calculateTotal(order.getOrderItems()));
+        return order;
+    }
+
+    /**
+     * The rows {@code findOrderLinesByIdIn} returns for the order: header columns
+     * repeated once per item.
+     */
+    static List<OrderLineView> orderLines(Order order) {
+        return order.getOrderItems().stream()
+                .<OrderLineView>map(item -> new Line(order.getId(), order.getUser().getId(), order.getOrderDate(),
+                        order.getTotalAmount(), order.getStatus(), item.getProduct().getId(),
+                        item.getProduct().getName(), item.getQuantity(), item.getPrice()))
+                .toList();
+    }
+
+    private static BigDecimal price(long id) {
+        return BigDecimal.valueOf(1999 + id * 37 % 50_000, 2);
+    }
+
+    private record Line(Long getOrderId, Long getUserId, LocalDateTime getOrderDate, BigDecimal getTotalAmount,
+            String getStatus, Long getProductId, String getProductName, Integer getQuantity, BigDecimal getPrice)
+            implements OrderLineView {
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.e_commerce.service;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.e_commerce.model.OrderItem;
+
+/**
+ * Order total computation in {@code createOrder}: one BigDecimal multiply and add
+ * per item.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class OrderTotalBenchmark {
+
+    @Param({ "1", "10", "100" })
+    private int items;
+
+    private List<OrderItem> orderItems;
+
+    @Setup
+    public void setUp() {
+        orderItems = BenchmarkData.order(1L, items).getOrderItems();
+    }
+
+    @Benchmark
+    public BigDecimal calculateTotal() {
+        return OrderService.calculateTotal(orderItems);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.e_commerce.service;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.example.e_commerce.dto.UserRequest;
+import com.example.e_commerce.dto.UserResponse;
+import com.example.e_commerce.repository.UserRepository;
+
+/**
+ * BCrypt cost in {@code UserService.createUser}. The repository is an in-memory
+ * stand-in whose {@code save} returns its argument, so the measurement is the
+ * hash, the hand-off to the hashing pool, and mapping. Strength 10 is the
+ * default {@code app.security.bcrypt-strength}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordHashingBenchmark {
+
+    @Param({ "10", "12" })
+    private int strength;
+
+    private UserService userService;
+    private UserRequest request;
+
+    @Setup
+    public void setUp() {
+        UserRepository repository = (UserRepository) Proxy.newProxyInstance(UserRepository.class.getClassLoader(),
+                new Class<?>[] { UserRepository.class }, (proxy, method, args) -> {
+                    if (method.getName().equals("save")) {
+                        return args[0];
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        userService = new UserService(repository,
+                new PasswordHasher(new BCryptPasswordEncoder(strength), 0, 1024, Duration.ofMinutes(1)));
+        request = new UserRequest("Benchmark User", "bench@example.com", "correct horse battery staple");
+    }
+
+    @Benchmark
+    public UserResponse createUser() {
+        return userService.createUser(request);
+    }
+}
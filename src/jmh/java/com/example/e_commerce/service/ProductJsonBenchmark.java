@@ -0,0 +1,82 @@
+package com.example.e_commerce.service;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.unit.DataSize;
+
+import com.example.e_commerce.cache.InvalidationBus;
+import com.example.e_commerce.cache.LoopbackInvalidationTransport;
+import com.example.e_commerce.cache.ProductJsonCache;
+import com.example.e_commerce.dto.ProductResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Product response bodies written by Jackson on every request, against the bytes
+ * kept by {@link ProductJsonCache} once warm: a single product is returned as is, a
+ * page has only its envelope serialized around the cached fragments.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class ProductJsonBenchmark {
+
+    @Param({ "10", "50" })
+    private int size;
+
+    private ObjectWriter writer;
+    private ProductJsonCache cache;
+    private ProductResponse product;
+    private Page<ProductResponse> productPage;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writer();
+        cache = new ProductJsonCache(objectMapper, new InvalidationBus(new LoopbackInvalidationTransport()),
+                DataSize.ofMegabytes(32));
+        product = ProductService.mapToResponse(BenchmarkData.product(1L));
+        productPage = new PageImpl<>(BenchmarkData.productResponses(size), PageRequest.of(0, size), 10_000);
+        cache.toJson(product);
+        cache.toJson(productPage);
+    }
+
+    @Benchmark
+    public byte[] jacksonProduct() throws JsonProcessingException {
+        return writer.writeValueAsBytes(product);
+    }
+
+    @Benchmark
+    public byte[] cachedProduct() {
+        return cache.toJson(product);
+    }
+
+    @Benchmark
+    public byte[] jacksonPage() throws JsonProcessingException {
+        return writer.writeValueAsBytes(productPage);
+    }
+
+    @Benchmark
+    public byte[] cachedPage() throws JsonProcessingException {
+        return writer.writeValueAsBytes(cache.toJson(productPage));
+    }
+}
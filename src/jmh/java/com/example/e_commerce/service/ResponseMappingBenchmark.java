@@ -0,0 +1,69 @@
+package com.example.e_commerce.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.example.e_commerce.dto.OrderLineView;
+import com.example.e_commerce.dto.OrderResponse;
+import com.example.e_commerce.model.Order;
+import com.example.e_commerce.model.Product;
+
+/**
+ * Entity and projection to response mapping: an order after {@code createOrder},
+ * a page of order lines from a listing, and a product.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class ResponseMappingBenchmark {
+
+    @Param({ "1", "10", "100" })
+    private int items;
+
+    private Order order;
+    private List<OrderLineView> orderPageLines;
+    private Product product;
+
+    @Setup
+    public void setUp() {
+        order = BenchmarkData.order(1L, items);
+        // A listing page of 20 orders, each with the same number of items
+        orderPageLines = new ArrayList<>();
+        for (long id = 1; id <= 20; id++) {
+            orderPageLines.addAll(BenchmarkData.orderLines(BenchmarkData.order(id, items)));
+        }
+        product = BenchmarkData.product(42L);
+    }
+
+    @Benchmark
+    public OrderResponse orderToResponse() {
+        return OrderService.mapToResponse(order);
+    }
+
+    @Benchmark
+    public List<OrderResponse> orderPageFromLines() {
+        return OrderService.mapLinesToResponses(orderPageLines);
+    }
+
+    @Benchmark
+    public void productToResponse(Blackhole blackhole) {
+        blackhole.consume(ProductService.mapToResponse(product));
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.e_commerce.service;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.example.e_commerce.dto.OrderResponse;
+import com.example.e_commerce.dto.ProductResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Jackson serialization of the response bodies, with the same mapper defaults the
+ * application's message converter uses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class ResponseSerializationBenchmark {
+
+    @Param({ "10", "50" })
+    private int size;
+
+    private ObjectWriter writer;
+    private OrderResponse order;
+    private Page<ProductResponse> productPage;
+
+    @Setup
+    public void setUp() {
+        writer = Jackson2ObjectMapperBuilder.json().build().writer();
+        order = OrderService.mapToResponse(BenchmarkData.order(1L, size));
+        productPage = new PageImpl<>(BenchmarkData.productResponses(size), PageRequest.of(0, size), 10_000);
+    }
+
+    @Benchmark
+    public byte[] orderResponse() throws JsonProcessingException {
+        return writer.writeValueAsBytes(order);
+    }
+
+    @Benchmark
+    public byte[] productPage() throws JsonProcessingException {
+        return writer.writeValueAsBytes(productPage);
+    }
+}
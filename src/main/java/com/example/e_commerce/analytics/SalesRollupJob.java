@@ -0,0 +1,391 @@
+package com.example.e_commerce.analytics;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.e_commerce.dto.RollupRebuildResponse;
+import com.example.e_commerce.event.OrderCreatedEvent;
+import com.example.e_commerce.event.OrderStatusChangedEvent;
+import com.example.e_commerce.exception.ServiceUnavailableException;
+import com.example.e_commerce.model.SalesRollupChange;
+import com.example.e_commerce.repository.SalesRollupChangeRepository;
+
+/**
+ * Keeps the sales rollups (per day, per product and day, per status and day) up to
+ * date. Order transactions only append a {@link SalesRollupChange}; this job folds
+ * pending changes into the rollups in batches, so checkouts never wait on each
+ * other for a shared rollup row.
+ *
+ * <p>The job and {@link #rebuild()} hold the {@value #LOCK_NAME} row of
+ * {@code job_locks} while they write, so only one instance updates the rollups at a
+ * time. Rollup rows are upserted with SQL {@code MERGE}, which needs PostgreSQL 15
+ * or later.
+ */
+@Component
+public class SalesRollupJob {
+
+    private static final Logger log = LoggerFactory.getLogger(SalesRollupJob.class);
+
+    static final String LOCK_NAME = "sales-rollup";
+
+    private static final String TRY_LOCK_SQL = "SELECT name FROM job_locks WHERE name = ? FOR UPDATE SKIP LOCKED";
+    private static final String LOCK_SQL = "SELECT name FROM job_locks WHERE name = ? FOR UPDATE";
+
+    private static final String MERGE_DAILY_SQL = "MERGE INTO sales_daily t "
+            + "USING (VALUES (CAST(? AS DATE), ?, ?, ?)) s (sale_date, orders, units, revenue) ON t.sale_date = s.sale_date "
+            + "WHEN MATCHED THEN UPDATE SET orders = t.orders + s.orders, units = t.units + s.units, "
+            + "revenue = t.revenue + s.revenue "
+            + "WHEN NOT MATCHED THEN INSERT (sale_date, orders, units, revenue) "
+            + "VALUES (s.sale_date, s.orders, s.units, s.revenue)";
+    private static final String MERGE_PRODUCT_SQL = "MERGE INTO sales_product_daily t "
+            + "USING (VALUES (CAST(? AS DATE), ?, ?, ?, ?)) s (sale_date, product_id, orders, units, revenue) "
+            + "ON t.sale_date = s.sale_date AND t.product_id = s.product_id "
+            + "WHEN MATCHED THEN UPDATE SET orders = t.orders + s.orders, units = t.units + s.units, "
+            + "revenue = t.revenue + s.revenue "
+            + "WHEN NOT MATCHED THEN INSERT (sale_date, product_id, orders, units, revenue) "
+            + "VALUES (s.sale_date, s.product_id, s.orders, s.units, s.revenue)";
+    private static final String MERGE_STATUS_SQL = "MERGE INTO sales_status_daily t "
+            + "USING (VALUES (CAST(? AS DATE), ?, ?, ?)) s (sale_date, status, orders, revenue) "
+            + "ON t.sale_date = s.sale_date AND t.status = s.status "
+            + "WHEN MATCHED THEN UPDATE SET orders = t.orders + s.orders, revenue = t.revenue + s.revenue "
+            + "WHEN NOT MATCHED THEN INSERT (sale_date, status, orders, revenue) "
+            + "VALUES (s.sale_date, s.status, s.orders, s.revenue)";
+
+    // A rebuild chunk recomputes whole days, so its rows belong to no other chunk and
+    // can be replaced outright
+    private static final List<String> ROLLUP_TABLES = List.of("sales_daily", "sales_product_daily",
+            "sales_status_daily");
+    private static final String CLEAR_CHANGES_SQL = "DELETE FROM sales_rollup_changes WHERE order_id IN "
+            + "(SELECT id FROM orders WHERE order_date >= ? AND order_date < ?)";
+    private static final String REBUILD_PRODUCT_SQL = "INSERT INTO sales_product_daily "
+            + "(sale_date, product_id, orders, units, revenue) "
+            + "SELECT CAST(o.order_date AS DATE), i.product_id, COUNT(DISTINCT o.id), SUM(i.quantity), "
+            + "SUM(i.price * i.quantity) "
+            + "FROM orders o JOIN order_items i ON i.order_id = o.id "
+            + "WHERE o.order_date >= ? AND o.order_date < ? "
+            + "GROUP BY CAST(o.order_date AS DATE), i.product_id";
+    private static final String REBUILD_DAILY_SQL = "INSERT INTO sales_daily (sale_date, orders, units, revenue) "
+            + "SELECT d.sale_date, d.orders, "
+            + "COALESCE((SELECT SUM(p.units) FROM sales_product_daily p WHERE p.sale_date = d.sale_date), 0), "
+            + "d.revenue "
+            + "FROM (SELECT CAST(order_date AS DATE) AS sale_date, COUNT(*) AS orders, SUM(total_amount) AS revenue "
+            + "FROM orders WHERE order_date >= ? AND order_date < ? GROUP BY CAST(order_date AS DATE)) d";
+    private static final String REBUILD_STATUS_SQL = "INSERT INTO sales_status_daily (sale_date, status, orders, revenue) "
+            + "SELECT CAST(order_date AS DATE), status, COUNT(*), SUM(total_amount) "
+            + "FROM orders WHERE order_date >= ? AND order_date < ? "
+            + "GROUP BY CAST(order_date AS DATE), status";
+
+    private record Change(long id, long orderId, String fromStatus, String toStatus) {
+    }
+
+    private record Totals(long orders, long units, BigDecimal revenue) {
+
+        Totals add(Totals other) {
+            return new Totals(orders + other.orders, units + other.units, revenue.add(other.revenue));
+        }
+    }
+
+    private record ProductDay(LocalDate day, long productId) implements Comparable<ProductDay> {
+
+        @Override
+        public int compareTo(ProductDay other) {
+            int byDay = day.compareTo(other.day);
+            return byDay != 0 ? byDay : Long.compare(productId, other.productId);
+        }
+    }
+
+    private record StatusDay(LocalDate day, String status) implements Comparable<StatusDay> {
+
+        @Override
+        public int compareTo(StatusDay other) {
+            int byDay = day.compareTo(other.day);
+            return byDay != 0 ? byDay : status.compareTo(other.status);
+        }
+    }
+
+    private final SalesRollupChangeRepository changeRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate newTransaction;
+    private final TransactionTemplate chunkTransaction;
+    private final int batchSize;
+    private final int chunkDays;
+    private final int parallelism;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    public SalesRollupJob(SalesRollupChangeRepository changeRepository, JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.analytics.rollup.batch-size:1000}") int batchSize,
+            @Value("${app.analytics.rebuild.chunk-days:7}") int chunkDays,
+            @Value("${app.analytics.rebuild.parallelism:4}") int parallelism) {
+        this.changeRepository = changeRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        // Each chunk clears the pending changes of the orders it counts; both statements
+        // must see the same orders, or an order committing in between is counted twice or lost
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.batchSize = batchSize;
+        this.chunkDays = chunkDays;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Runs in the order's transaction, so the change commits or rolls back with the order.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onOrderCreated(OrderCreatedEvent event) {
+        changeRepository.save(new SalesRollupChange(event.getOrderId(), null, event.getStatus()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        changeRepository.save(new SalesRollupChange(event.getOrderId(), event.getFromStatus(), event.getToStatus()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createLock() {
+        try {
+            jdbcTemplate.update("INSERT INTO job_locks (name) SELECT ? WHERE NOT EXISTS "
+                    + "(SELECT 1 FROM job_locks WHERE name = ?)", LOCK_NAME, LOCK_NAME);
+        } catch (DataIntegrityViolationException e) {
+            // Another instance created it first
+        }
+    }
+
+    /**
+     * Applies pending changes until none are left. Does nothing while another
+     * instance is applying them or a rebuild is running.
+     */
+    @Scheduled(fixedDelayString = "${app.analytics.rollup.interval:5s}")
+    public void applyPending() {
+        int applied;
+        do {
+            applied = transactionTemplate.execute(status -> applyBatch());
+        } while (applied == batchSize);
+    }
+
+    private int applyBatch() {
+        if (jdbcTemplate.queryForList(TRY_LOCK_SQL, String.class, LOCK_NAME).isEmpty()) {
+            return 0;
+        }
+        List<Change> changes = jdbcTemplate.query(
+                "SELECT id, order_id, from_status, to_status FROM sales_rollup_changes ORDER BY id "
+                        + "FETCH FIRST ? ROWS ONLY",
+                (rs, row) -> new Change(rs.getLong(1), rs.getLong(2), rs.getString(3), rs.getString(4)),
+                batchSize);
+        if (changes.isEmpty()) {
+            return 0;
+        }
+
+        Set<Long> orderIds = new HashSet<>();
+        Set<Long> createdIds = new HashSet<>();
+        for (Change change : changes) {
+            orderIds.add(change.orderId());
+            if (change.fromStatus() == null) {
+                createdIds.add(change.orderId());
+            }
+        }
+        Map<Long, LocalDate> days = new HashMap<>();
+        Map<Long, BigDecimal> totals = new HashMap<>();
+        namedJdbcTemplate.query("SELECT id, order_date, total_amount FROM orders WHERE id IN (:ids)",
+                new MapSqlParameterSource("ids", orderIds), rs -> {
+                    days.put(rs.getLong(1), rs.getTimestamp(2).toLocalDateTime().toLocalDate());
+                    totals.put(rs.getLong(1), rs.getBigDecimal(3));
+                });
+
+        Map<LocalDate, Totals> daily = new TreeMap<>();
+        Map<ProductDay, Totals> products = new TreeMap<>();
+        Map<StatusDay, Totals> statuses = new TreeMap<>();
+        if (!createdIds.isEmpty()) {
+            Map<ProductDay, Set<Long>> ordersPerProduct = new HashMap<>();
+            namedJdbcTemplate.query(
+                    "SELECT order_id, product_id, quantity, price FROM order_items WHERE order_id IN (:ids)",
+                    new MapSqlParameterSource("ids", createdIds), rs -> {
+                        long orderId = rs.getLong(1);
+                        LocalDate day = days.get(orderId);
+                        if (day == null) {
+                            return;
+                        }
+                        ProductDay key = new ProductDay(day, rs.getLong(2));
+                        int quantity = rs.getInt(3);
+                        BigDecimal revenue = rs.getBigDecimal(4).multiply(BigDecimal.valueOf(quantity));
+                        // An order counts once per product, however many lines it has for it
+                        long orders = ordersPerProduct.computeIfAbsent(key, k -> new HashSet<>()).add(orderId) ? 1 : 0;
+                        products.merge(key, new Totals(orders, quantity, revenue), Totals::add);
+                        daily.merge(day, new Totals(0, quantity, BigDecimal.ZERO), Totals::add);
+                    });
+        }
+
+        for (Change change : changes) {
+            LocalDate day = days.get(change.orderId());
+            if (day == null) {
+                // The order is gone; nothing to count
+                continue;
+            }
+            BigDecimal total = totals.get(change.orderId());
+            if (change.fromStatus() == null) {
+                daily.merge(day, new Totals(1, 0, total), Totals::add);
+            } else {
+                statuses.merge(new StatusDay(day, change.fromStatus()), new Totals(-1, 0, total.negate()),
+                        Totals::add);
+            }
+            statuses.merge(new StatusDay(day, change.toStatus()), new Totals(1, 0, total), Totals::add);
+        }
+
+        // Sorted keys keep the row lock order stable from batch to batch
+        jdbcTemplate.batchUpdate(MERGE_DAILY_SQL, new ArrayList<>(daily.entrySet()), daily.size(),
+                (statement, entry) -> {
+                    statement.setDate(1, Date.valueOf(entry.getKey()));
+                    statement.setLong(2, entry.getValue().orders());
+                    statement.setLong(3, entry.getValue().units());
+                    statement.setBigDecimal(4, entry.getValue().revenue());
+                });
+        jdbcTemplate.batchUpdate(MERGE_PRODUCT_SQL, new ArrayList<>(products.entrySet()), products.size(),
+                (statement, entry) -> {
+                    statement.setDate(1, Date.valueOf(entry.getKey().day()));
+                    statement.setLong(2, entry.getKey().productId());
+                    statement.setLong(3, entry.getValue().orders());
+                    statement.setLong(4, entry.getValue().units());
+                    statement.setBigDecimal(5, entry.getValue().revenue());
+                });
+        jdbcTemplate.batchUpdate(MERGE_STATUS_SQL, new ArrayList<>(statuses.entrySet()), statuses.size(),
+                (statement, entry) -> {
+                    statement.setDate(1, Date.valueOf(entry.getKey().day()));
+                    statement.setString(2, entry.getKey().status());
+                    statement.setLong(3, entry.getValue().orders());
+                    statement.setBigDecimal(4, entry.getValue().revenue());
+                });
+        namedJdbcTemplate.update("DELETE FROM sales_rollup_changes WHERE id IN (:ids)",
+                new MapSqlParameterSource("ids", changes.stream().map(Change::id).toList()));
+        return changes.size();
+    }
+
+    /**
+     * Recomputes all rollups from the orders, {@code chunk-days} days per chunk and
+     * {@code parallelism} chunks at a time. Each chunk replaces the rollups of its days
+     * in one transaction, so reports show a day either as it was or as rebuilt, never
+     * empty. Orders placed during the rebuild are left to the job.
+     */
+    public RollupRebuildResponse rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            throw new ServiceUnavailableException("A sales rollup rebuild is already running", 60);
+        }
+        try {
+            long start = System.nanoTime();
+            return transactionTemplate.execute(status -> {
+                // Held until every chunk is done; waits for a running batch of the job
+                jdbcTemplate.queryForList(LOCK_SQL, String.class, LOCK_NAME);
+
+                Map<String, Object> range = jdbcTemplate.queryForMap(
+                        "SELECT MIN(order_date) AS first_order, MAX(order_date) AS last_order FROM orders");
+                if (range.get("first_order") == null) {
+                    clearOutside(null, null);
+                    return new RollupRebuildResponse(0, 0, elapsedMillis(start));
+                }
+                LocalDate first = toLocalDateTime(range.get("first_order")).toLocalDate();
+                LocalDate last = toLocalDateTime(range.get("last_order")).toLocalDate();
+                long days = ChronoUnit.DAYS.between(first, last) + 1;
+                // Days without orders anymore are in no chunk
+                clearOutside(first, last.plusDays(1));
+
+                List<Future<?>> chunks = new ArrayList<>();
+                try (ExecutorService executor = Executors.newFixedThreadPool(parallelism)) {
+                    for (LocalDate from = first; !from.isAfter(last); from = from.plusDays(chunkDays)) {
+                        LocalDate chunkStart = from;
+                        LocalDate chunkEnd = from.plusDays(chunkDays);
+                        chunks.add(executor.submit(() -> rebuildChunk(chunkStart, chunkEnd)));
+                    }
+                    for (Future<?> chunk : chunks) {
+                        chunk.get();
+                    }
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Sales rollup rebuild failed", e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Sales rollup rebuild interrupted", e);
+                }
+                log.info("Rebuilt sales rollups for {} days in {} chunks in {} ms", days, chunks.size(),
+                        elapsedMillis(start));
+                return new RollupRebuildResponse(days, chunks.size(), elapsedMillis(start));
+            });
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    private void rebuildChunk(LocalDate fromDay, LocalDate toDay) {
+        LocalDateTime from = fromDay.atStartOfDay();
+        LocalDateTime to = toDay.atStartOfDay();
+        chunkTransaction.executeWithoutResult(status -> {
+            for (String table : ROLLUP_TABLES) {
+                jdbcTemplate.update("DELETE FROM " + table + " WHERE sale_date >= ? AND sale_date < ?",
+                        Date.valueOf(fromDay), Date.valueOf(toDay));
+            }
+            jdbcTemplate.update(CLEAR_CHANGES_SQL, from, to);
+            // Products first: the daily unit counts are summed from them
+            jdbcTemplate.update(REBUILD_PRODUCT_SQL, from, to);
+            jdbcTemplate.update(REBUILD_DAILY_SQL, from, to);
+            jdbcTemplate.update(REBUILD_STATUS_SQL, from, to);
+        });
+    }
+
+    // Removes rollups for days outside [from, to), or all of them without a range
+    private void clearOutside(LocalDate from, LocalDate to) {
+        newTransaction.executeWithoutResult(status -> {
+            for (String table : ROLLUP_TABLES) {
+                if (from == null) {
+                    jdbcTemplate.update("DELETE FROM " + table);
+                } else {
+                    jdbcTemplate.update("DELETE FROM " + table + " WHERE sale_date < ? OR sale_date >= ?",
+                            Date.valueOf(from), Date.valueOf(to));
+                }
+            }
+        });
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        return value instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) value;
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.e_commerce.cache;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Fans cache invalidations out to the other nodes of the deployment. Each node
+ * evicts its own entries directly and publishes the keys here; handlers only run
+ * for messages that came from another node.
+ */
+public class InvalidationBus {
+
+    private static final Logger log = LoggerFactory.getLogger(InvalidationBus.class);
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final InvalidationTransport transport;
+    private final Map<String, List<Consumer<Set<Long>>>> handlers = new ConcurrentHashMap<>();
+
+    public InvalidationBus(InvalidationTransport transport) {
+        this.transport = transport;
+        transport.subscribe(this::receive);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Publishes the keys to evict from the region on the other nodes; an empty
+     * collection evicts the whole region.
+     */
+    public void publish(String region, Collection<Long> keys) {
+        try {
+            transport.publish(new InvalidationMessage(nodeId, region, Set.copyOf(keys)));
+        } catch (RuntimeException e) {
+            // Other nodes fall back to TTL expiry; the local node is already consistent
+            log.warn("Failed to publish invalidation for region {}", region, e);
+        }
+    }
+
+    /**
+     * Registers a handler for remote invalidations of a region. The handler receives
+     * the keys to evict, or an empty set to evict everything.
+     */
+    public void subscribe(String region, Consumer<Set<Long>> handler) {
+        handlers.computeIfAbsent(region, r -> new CopyOnWriteArrayList<>()).add(handler);
+    }
+
+    private void receive(InvalidationMessage message) {
+        if (nodeId.equals(message.getOrigin())) {
+            return;
+        }
+        if (InvalidationMessage.ALL_REGIONS.equals(message.getRegion())) {
+            handlers.values().forEach(regionHandlers -> regionHandlers.forEach(h -> h.accept(Set.of())));
+            return;
+        }
+        handlers.getOrDefault(message.getRegion(), List.of()).forEach(h -> h.accept(message.getKeys()));
+    }
+}
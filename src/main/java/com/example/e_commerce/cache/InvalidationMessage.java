@@ -0,0 +1,54 @@
+package com.example.e_commerce.cache;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * A request to drop cached entries of one region on every node. An empty key set
+ * means "everything in the region"; the {@link #ALL_REGIONS} region means every
+ * region, which transports send after they may have missed messages.
+ */
+public final class InvalidationMessage {
+
+    public static final String ALL_REGIONS = "*";
+
+    private final String origin;
+    private final String region;
+    private final Set<Long> keys;
+
+    public InvalidationMessage(String origin, String region, Set<Long> keys) {
+        this.origin = origin;
+        this.region = region;
+        this.keys = Set.copyOf(keys);
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    public Set<Long> getKeys() {
+        return keys;
+    }
+
+    /**
+     * Wire format used by text transports: {@code origin;region;key,key,...}.
+     */
+    public String encode() {
+        return origin + ";" + region + ";" + keys.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    public static InvalidationMessage decode(String payload) {
+        String[] parts = payload.split(";", 3);
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Malformed invalidation message: " + payload);
+        }
+        Set<Long> keys = parts[2].isEmpty() ? Set.of()
+                : Arrays.stream(parts[2].split(",")).map(Long::valueOf).collect(Collectors.toSet());
+        return new InvalidationMessage(parts[0], parts[1], keys);
+    }
+}
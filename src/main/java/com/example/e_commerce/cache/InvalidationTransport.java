@@ -0,0 +1,15 @@
+package com.example.e_commerce.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries invalidation messages between the nodes of a deployment. Implementations
+ * deliver every published message to the subscribers of every node, including the
+ * publishing one; {@link InvalidationBus} filters out its own messages.
+ */
+public interface InvalidationTransport {
+
+    void publish(InvalidationMessage message);
+
+    void subscribe(Consumer<InvalidationMessage> listener);
+}
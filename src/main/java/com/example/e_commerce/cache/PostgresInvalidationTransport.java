@@ -0,0 +1,172 @@
+package com.example.e_commerce.cache;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+import javax.sql.DataSource;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+/**
+ * Transport over Postgres LISTEN/NOTIFY. Messages are published through the
+ * application's pool; a dedicated connection outside the pool listens on the
+ * channel from a background thread. After the listening connection is lost, it
+ * reconnects and tells subscribers to drop every region, since notifications sent
+ * in the meantime are gone.
+ */
+public class PostgresInvalidationTransport implements InvalidationTransport, SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(PostgresInvalidationTransport.class);
+
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]*");
+    // NOTIFY payloads must stay below 8000 bytes; keys are split across messages
+    private static final int MAX_KEYS_PER_MESSAGE = 400;
+    private static final int POLL_TIMEOUT_MILLIS = 500;
+    private static final long RECONNECT_DELAY_MILLIS = 2000;
+
+    private final DataSource dataSource;
+    private final String url;
+    private final String username;
+    private final String password;
+    private final String channel;
+    private final List<Consumer<InvalidationMessage>> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    public PostgresInvalidationTransport(DataSource dataSource, String url, String username, String password,
+            String channel) {
+        if (!CHANNEL_NAME.matcher(channel).matches()) {
+            throw new IllegalArgumentException("Invalid notification channel name: " + channel);
+        }
+        this.dataSource = dataSource;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.channel = channel;
+    }
+
+    @Override
+    public void publish(InvalidationMessage message) {
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement statement = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+            for (InvalidationMessage part : split(message)) {
+                statement.setString(1, channel);
+                statement.setString(2, part.encode());
+                statement.execute();
+            }
+            if (!connection.getAutoCommit()) {
+                connection.commit();
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to publish invalidation on channel " + channel, e);
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<InvalidationMessage> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        listenerThread = new Thread(this::listen, "cache-invalidation-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        boolean reconnecting = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                if (reconnecting) {
+                    deliver(new InvalidationMessage("", InvalidationMessage.ALL_REGIONS, Set.of()));
+                }
+                reconnecting = true;
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        deliver(notification.getParameter());
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Invalidation listener on channel {} failed; reconnecting", channel, e);
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MILLIS);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void deliver(String payload) {
+        try {
+            deliver(InvalidationMessage.decode(payload));
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring malformed invalidation payload on channel {}: {}", channel, payload);
+        }
+    }
+
+    private void deliver(InvalidationMessage message) {
+        for (Consumer<InvalidationMessage> listener : listeners) {
+            try {
+                listener.accept(message);
+            } catch (RuntimeException e) {
+                log.warn("Invalidation listener failed for region {}", message.getRegion(), e);
+            }
+        }
+    }
+
+    private static List<InvalidationMessage> split(InvalidationMessage message) {
+        if (message.getKeys().size() <= MAX_KEYS_PER_MESSAGE) {
+            return List.of(message);
+        }
+        List<InvalidationMessage> parts = new ArrayList<>();
+        List<Long> keys = new ArrayList<>(message.getKeys());
+        for (int i = 0; i < keys.size(); i += MAX_KEYS_PER_MESSAGE) {
+            List<Long> chunk = keys.subList(i, Math.min(i + MAX_KEYS_PER_MESSAGE, keys.size()));
+            parts.add(new InvalidationMessage(message.getOrigin(), message.getRegion(), Set.copyOf(chunk)));
+        }
+        return parts;
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.e_commerce.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import com.example.e_commerce.dto.ProductResponse;
+import com.example.e_commerce.event.ProductChangedEvent;
+
+/**
+ * Read-through cache in front of product reads: single products by id and catalog
+ * pages by page request. Both are bounded by size and TTL. Writes evict the
+ * affected products and every cached page, locally after commit and on the other
+ * nodes through the {@link InvalidationBus}.
+ */
+@Component
+public class ProductCache implements MeterBinder {
+
+    public static final String REGION = "products";
+
+    private final AsyncCache<Long, ProductResponse> products;
+    private final AsyncCache<Pageable, Page<ProductResponse>> pages;
+    private final InvalidationBus invalidationBus;
+
+    public ProductCache(InvalidationBus invalidationBus,
+            @Value("${app.cache.products.maximum-size:10000}") long maximumSize,
+            @Value("${app.cache.products.ttl:10m}") Duration ttl,
+            @Value("${app.cache.product-pages.maximum-size:1000}") long pagesMaximumSize,
+            @Value("${app.cache.product-pages.ttl:1m}") Duration pagesTtl) {
+        this.invalidationBus = invalidationBus;
+        this.products = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        this.pages = Caffeine.newBuilder()
+                .maximumSize(pagesMaximumSize)
+                .expireAfterWrite(pagesTtl)
+                .recordStats()
+                .buildAsync();
+        invalidationBus.subscribe(REGION, this::evictLocally);
+    }
+
+    /**
+     * Returns the cached product, loading it on a miss. A loader returning null
+     * (unknown id) is not cached.
+     */
+    public ProductResponse getProduct(Long id, Function<Long, ProductResponse> loader) {
+        return getOrLoad(products, id, loader);
+    }
+
+    /**
+     * Returns the cached products for the ids, loading all misses with one call. Ids
+     * the loader does not return are absent from the result.
+     */
+    public Map<Long, ProductResponse> getProducts(Collection<Long> ids,
+            Function<Set<Long>, Map<Long, ProductResponse>> loader) {
+        return join(products.getAll(ids, (missing, executor) -> {
+            try {
+                return CompletableFuture.completedFuture(loader.apply(Collections.unmodifiableSet(missing)));
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }));
+    }
+
+    public Page<ProductResponse> getPage(Pageable pageable, Function<Pageable, Page<ProductResponse>> loader) {
+        return getOrLoad(pages, pageable, loader);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        Set<Long> ids = event.getIds();
+        evictLocally(ids);
+        invalidationBus.publish(REGION, ids);
+    }
+
+    /**
+     * Evicts the given products and all pages; an empty collection evicts everything.
+     */
+    public void evictLocally(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            products.synchronous().invalidateAll();
+        } else {
+            products.synchronous().invalidateAll(ids);
+        }
+        pages.synchronous().invalidateAll();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, products, "products");
+        CaffeineCacheMetrics.monitor(registry, pages, "product-pages");
+    }
+
+    public CacheStats productStats() {
+        return products.synchronous().stats();
+    }
+
+    public CacheStats pageStats() {
+        return pages.synchronous().stats();
+    }
+
+    /**
+     * Loads a missing entry on the calling thread, outside the cache's map lock. A
+     * synchronous {@code Cache.get} runs the loader inside
+     * {@code ConcurrentHashMap.compute}, which holds a monitor across the database
+     * call and pins a virtual thread to its carrier for the whole query. Concurrent
+     * callers for the same key still wait for the one in-flight load.
+     */
+    private static <K, V> V getOrLoad(AsyncCache<K, V> cache, K key, Function<K, V> loader) {
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> future = cache.get(key, (k, executor) -> created);
+        if (future == created) {
+            try {
+                created.complete(loader.apply(key));
+            } catch (RuntimeException e) {
+                created.completeExceptionally(e);
+            }
+        }
+        return join(future);
+    }
+
+    // Failed loads are not cached; rethrow the loader's own exception to every caller
+    private static <V> V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.e_commerce.cache;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Objects;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+import com.example.e_commerce.dto.ProductResponse;
+import com.example.e_commerce.event.ProductChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.RawValue;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * The UTF-8 JSON of each product, encoded once per product version with the
+ * application's ObjectMapper. Single products are written from these bytes as they
+ * are; pages embed them as raw values, so Jackson only writes the page envelope.
+ *
+ * <p>An entry is used only for the version it was encoded from, so a stale entry is
+ * never served. Writes still evict, locally after commit and on the other nodes
+ * through the {@link InvalidationBus}, to free the space.
+ */
+@Component
+public class ProductJsonCache implements MeterBinder {
+
+    private final ObjectMapper objectMapper;
+    private final Cache<Long, Fragment> fragments;
+
+    public ProductJsonCache(ObjectMapper objectMapper, InvalidationBus invalidationBus,
+            @Value("${app.cache.product-json.maximum-weight:32MB}") DataSize maximumWeight) {
+        this.objectMapper = objectMapper;
+        this.fragments = Caffeine.newBuilder()
+                .maximumWeight(maximumWeight.toBytes())
+                .weigher((Long id, Fragment fragment) -> fragment.json.length)
+                .recordStats()
+                .build();
+        invalidationBus.subscribe(ProductCache.REGION, this::evictLocally);
+    }
+
+    /**
+     * The product's JSON, exactly as the message converter would write it. The array
+     * is shared; callers must not modify it.
+     */
+    public byte[] toJson(ProductResponse product) {
+        return fragment(product).json;
+    }
+
+    /**
+     * The page with each product replaced by its cached JSON, for Jackson to write
+     * with the usual page fields around it.
+     */
+    public Page<RawValue> toJson(Page<ProductResponse> page) {
+        return page.map(product -> new RawValue(fragment(product)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        evictLocally(event.getIds());
+    }
+
+    /**
+     * Evicts the given products; an empty collection evicts everything.
+     */
+    public void evictLocally(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            fragments.invalidateAll();
+        } else {
+            fragments.invalidateAll(ids);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, fragments, "product-json");
+    }
+
+    public CacheStats stats() {
+        return fragments.stats();
+    }
+
+    private Fragment fragment(ProductResponse product) {
+        Fragment cached = fragments.getIfPresent(product.getId());
+        if (cached != null && Objects.equals(cached.version, product.getVersion())) {
+            return cached;
+        }
+        Fragment encoded = new Fragment(product.getVersion(), encode(product));
+        if (product.getVersion() != null) {
+            fragments.put(product.getId(), encoded);
+        }
+        return encoded;
+    }
+
+    private byte[] encode(ProductResponse product) {
+        try {
+            return objectMapper.writeValueAsBytes(product);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize product " + product.getId(), e);
+        }
+    }
+
+    /**
+     * Encoded JSON that a generator copies into its output as a raw value. Byte-based
+     * generators (HTTP responses) take the bytes; character-based ones decode them.
+     */
+    static final class Fragment implements SerializableString {
+
+        private final Long version;
+        private final byte[] json;
+
+        Fragment(Long version, byte[] json) {
+            this.version = version;
+            this.json = json;
+        }
+
+        @Override
+        public String getValue() {
+            return new String(json, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public int charLength() {
+            return getValue().length();
+        }
+
+        @Override
+        public byte[] asUnquotedUTF8() {
+            return json;
+        }
+
+        @Override
+        public int appendUnquotedUTF8(byte[] buffer, int offset) {
+            if (offset + json.length > buffer.length) {
+                return -1;
+            }
+            System.arraycopy(json, 0, buffer, offset, json.length);
+            return json.length;
+        }
+
+        @Override
+        public int writeUnquotedUTF8(OutputStream out) throws IOException {
+            out.write(json);
+            return json.length;
+        }
+
+        @Override
+        public int putUnquotedUTF8(ByteBuffer buffer) {
+            if (buffer.remaining() < json.length) {
+                return -1;
+            }
+            buffer.put(json);
+            return json.length;
+        }
+
+        @Override
+        public int appendUnquoted(char[] buffer, int offset) {
+            return text().appendUnquoted(buffer, offset);
+        }
+
+        // Quoting applies to string values, never to a raw JSON value; delegate for completeness
+        @Override
+        public char[] asQuotedChars() {
+            return text().asQuotedChars();
+        }
+
+        @Override
+        public byte[] asQuotedUTF8() {
+            return text().asQuotedUTF8();
+        }
+
+        @Override
+        public int appendQuotedUTF8(byte[] buffer, int offset) {
+            return text().appendQuotedUTF8(buffer, offset);
+        }
+
+        @Override
+        public int appendQuoted(char[] buffer, int offset) {
+            return text().appendQuoted(buffer, offset);
+        }
+
+        @Override
+        public int writeQuotedUTF8(OutputStream out) throws IOException {
+            return text().writeQuotedUTF8(out);
+        }
+
+        @Override
+        public int putQuotedUTF8(ByteBuffer buffer) throws IOException {
+            return text().putQuotedUTF8(buffer);
+        }
+
+        private SerializedString text() {
+            return new SerializedString(getValue());
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package com.example.e_commerce.catalog;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Arrays;
+
+import com.example.e_commerce.dto.ProductResponse;
+
+/**
+ * A catalog snapshot file, memory-mapped read-only: opening it reads nothing, and a
+ * lookup touches only the pages of the index it searches and the record it decodes.
+ * Instances are immutable and safe to share between threads.
+ *
+ * <p>Layout, big-endian: a 32-byte header (magic, format, product count, a reserved
+ * int, creation time in epoch millis, index offset); the product records; then the
+ * index, one 20-byte entry (id, version, record offset) per product in ascending id
+ * order. Files are limited to 2 GB, the size of one mapping.
+ */
+public final class CatalogSnapshot {
+
+    private static final int MAGIC = 0x43544c47;
+    private static final int FORMAT = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int ENTRY_BYTES = 20;
+    private static final int ABSENT = -1;
+
+    private final ByteBuffer buffer;
+    private final int size;
+    private final int indexOffset;
+    private final Instant createdAt;
+
+    private CatalogSnapshot(ByteBuffer buffer, int size, int indexOffset, Instant createdAt) {
+        this.buffer = buffer;
+        this.size = size;
+        this.indexOffset = indexOffset;
+        this.createdAt = createdAt;
+    }
+
+    public static CatalogSnapshot open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length < HEADER_BYTES || length > Integer.MAX_VALUE) {
+                throw new IOException("not a catalog snapshot: " + length + " bytes");
+            }
+            // The mapping outlives the channel, and the file being replaced by a newer snapshot
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT) {
+                throw new IOException("unknown catalog snapshot format");
+            }
+            int size = buffer.getInt(8);
+            long indexOffset = buffer.getLong(24);
+            if (size < 0 || indexOffset < HEADER_BYTES || indexOffset + (long) size * ENTRY_BYTES != length) {
+                throw new IOException("truncated catalog snapshot");
+            }
+            return new CatalogSnapshot(buffer, size, (int) indexOffset, Instant.ofEpochMilli(buffer.getLong(16)));
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Instant createdAt() {
+        return createdAt;
+    }
+
+    public long idAt(int position) {
+        return buffer.getLong(entry(position));
+    }
+
+    public Long versionAt(int position) {
+        long version = buffer.getLong(entry(position) + 8);
+        return version == ABSENT ? null : version;
+    }
+
+    public ProductResponse productAt(int position) {
+        int entry = entry(position);
+        return decode(buffer.getLong(entry), buffer.getLong(entry + 8), buffer.getInt(entry + 16));
+    }
+
+    /**
+     * Position of the product in the index, or a negative number if it is not in the snapshot.
+     */
+    public int indexOf(long id) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midId = idAt(mid);
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * The product as it was when the snapshot was written, or null if it was not in the catalog.
+     */
+    public ProductResponse get(long id) {
+        int position = indexOf(id);
+        return position < 0 ? null : productAt(position);
+    }
+
+    private int entry(int position) {
+        if (position < 0 || position >= size) {
+            throw new IndexOutOfBoundsException(position);
+        }
+        return indexOffset + position * ENTRY_BYTES;
+    }
+
+    private ProductResponse decode(long id, long version, int offset) {
+        Cursor cursor = new Cursor(offset);
+        int scale = cursor.readInt();
+        byte[] unscaled = cursor.readBytes();
+        long seconds = cursor.readLong();
+        int nanos = cursor.readInt();
+        String name = cursor.readString();
+        String description = cursor.readString();
+        String imageUrl = cursor.readString();
+        return new ProductResponse(id, name, description,
+                unscaled == null ? null : new BigDecimal(new BigInteger(unscaled), scale), imageUrl,
+                version == ABSENT ? null : version, nanos == ABSENT ? null : Instant.ofEpochSecond(seconds, nanos));
+    }
+
+    // Absolute reads only, so concurrent lookups never share a buffer position
+    private final class Cursor {
+        private int position;
+
+        Cursor(int position) {
+            this.position = position;
+        }
+
+        int readInt() {
+            int value = buffer.getInt(position);
+            position += 4;
+            return value;
+        }
+
+        long readLong() {
+            long value = buffer.getLong(position);
+            position += 8;
+            return value;
+        }
+
+        byte[] readBytes() {
+            int length = readInt();
+            if (length == ABSENT) {
+                return null;
+            }
+            byte[] bytes = new byte[length];
+            buffer.get(position, bytes);
+            position += length;
+            return bytes;
+        }
+
+        String readString() {
+            byte[] bytes = readBytes();
+            return bytes == null ? null : new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Streams products, in ascending id order, into a temporary file next to the
+     * target; {@link #commit} moves it into place atomically, so readers only ever
+     * see complete snapshots. Closing without committing discards it.
+     */
+    public static final class Writer implements Closeable {
+
+        private final Path file;
+        private final Path temp;
+        private final FileChannel channel;
+        private final DataOutputStream out;
+        private long[] ids = new long[1024];
+        private long[] versions = new long[1024];
+        private int[] offsets = new int[1024];
+        private int size;
+        private boolean committed;
+
+        private Writer(Path file) throws IOException {
+            this.file = file;
+            this.temp = file.resolveSibling(file.getFileName() + ".tmp");
+            this.channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            this.out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024));
+            // Filled in by commit, once the count and index offset are known
+            out.write(new byte[HEADER_BYTES]);
+        }
+
+        public static Writer create(Path file) throws IOException {
+            return new Writer(file);
+        }
+
+        public void add(ProductResponse product) throws IOException {
+            long id = product.getId();
+            if (size > 0 && id <= ids[size - 1]) {
+                throw new IllegalArgumentException("Products must be added in ascending id order");
+            }
+            if (out.size() == Integer.MAX_VALUE) {
+                throw new IOException("catalog snapshot exceeds 2 GB");
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                versions = Arrays.copyOf(versions, size * 2);
+                offsets = Arrays.copyOf(offsets, size * 2);
+            }
+            ids[size] = id;
+            versions[size] = product.getVersion() == null ? ABSENT : product.getVersion();
+            offsets[size] = out.size();
+            size++;
+
+            BigDecimal price = product.getPrice();
+            out.writeInt(price == null ? 0 : price.scale());
+            writeBytes(price == null ? null : price.unscaledValue().toByteArray());
+            Instant updatedAt = product.getUpdatedAt();
+            out.writeLong(updatedAt == null ? 0 : updatedAt.getEpochSecond());
+            out.writeInt(updatedAt == null ? ABSENT : updatedAt.getNano());
+            writeString(product.getName());
+            writeString(product.getDescription());
+            writeString(product.getImageUrl());
+        }
+
+        public void commit() throws IOException {
+            long indexOffset = out.size();
+            if (indexOffset + (long) size * ENTRY_BYTES > Integer.MAX_VALUE) {
+                throw new IOException("catalog snapshot exceeds 2 GB");
+            }
+            for (int i = 0; i < size; i++) {
+                out.writeLong(ids[i]);
+                out.writeLong(versions[i]);
+                out.writeInt(offsets[i]);
+            }
+            out.flush();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+                    .putInt(MAGIC)
+                    .putInt(FORMAT)
+                    .putInt(size)
+                    .putInt(0)
+                    .putLong(System.currentTimeMillis())
+                    .putLong(indexOffset)
+                    .flip();
+            long position = 0;
+            while (header.hasRemaining()) {
+                position += channel.write(header, position);
+            }
+            channel.force(false);
+            channel.close();
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            committed = true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!committed) {
+                channel.close();
+                Files.deleteIfExists(temp);
+            }
+        }
+
+        private void writeBytes(byte[] bytes) throws IOException {
+            if (bytes == null) {
+                out.writeInt(ABSENT);
+                return;
+            }
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+
+        private void writeString(String value) throws IOException {
+            writeBytes(value == null ? null : value.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
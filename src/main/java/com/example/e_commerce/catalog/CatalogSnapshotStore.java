@@ -0,0 +1,281 @@
+package com.example.e_commerce.catalog;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.e_commerce.cache.InvalidationBus;
+import com.example.e_commerce.cache.ProductCache;
+import com.example.e_commerce.dto.ProductResponse;
+import com.example.e_commerce.dto.ProductVersionView;
+import com.example.e_commerce.event.ProductChangedEvent;
+import com.example.e_commerce.model.Product;
+import com.example.e_commerce.repository.ProductRepository;
+import com.example.e_commerce.service.ProductService;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Serves product reads from the catalog snapshot on local disk, so a freshly started
+ * node fills its caches and indexes without loading the catalog from the database.
+ *
+ * <p>The snapshot found at startup is mapped and served as is until
+ * {@link #reconcile} has compared its versions with the database; from then on, and
+ * for every product changed while the node runs, stale records are skipped and
+ * callers fall back to the database. A new snapshot is written every
+ * {@code interval} for the next start; the running node keeps the one it mapped.
+ */
+@Component
+public class CatalogSnapshotStore implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogSnapshotStore.class);
+
+    static final int LOAD_CHUNK_SIZE = 1000;
+
+    private final ProductRepository productRepository;
+    private final ProductCache productCache;
+    private final Path file;
+    // Versions are compared against the primary; a lagging replica would hide changes
+    private final TransactionTemplate primaryReads;
+    // The snapshot itself may come from a replica: whatever it misses is reconciled at the next start
+    private final TransactionTemplate replicaReads;
+    private final Set<Long> staleIds = ConcurrentHashMap.newKeySet();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private volatile CatalogSnapshot snapshot;
+
+    public CatalogSnapshotStore(ProductRepository productRepository, ProductCache productCache,
+            InvalidationBus invalidationBus, PlatformTransactionManager transactionManager,
+            @Value("${app.catalog.snapshot.file:}") String file) {
+        this.productRepository = productRepository;
+        this.productCache = productCache;
+        this.file = file.isBlank() ? null : Path.of(file);
+        this.primaryReads = new TransactionTemplate(transactionManager);
+        this.replicaReads = new TransactionTemplate(transactionManager);
+        this.replicaReads.setReadOnly(true);
+        this.snapshot = open();
+        // Subscribed after the product cache, so its eviction cannot be refilled from a stale record
+        invalidationBus.subscribe(ProductCache.REGION, this::onRemoteChange);
+    }
+
+    /**
+     * The product from the snapshot, or null if there is no snapshot, the product is
+     * not in it, or its record is known to be stale.
+     */
+    public ProductResponse get(Long id) {
+        CatalogSnapshot current = snapshot;
+        if (current == null) {
+            return null;
+        }
+        ProductResponse product = staleIds.contains(id) ? null : current.get(id);
+        (product != null ? hits : misses).increment();
+        return product;
+    }
+
+    /**
+     * The products of the given ids that the snapshot can serve; see {@link #get}.
+     */
+    public Map<Long, ProductResponse> getAll(Collection<Long> ids) {
+        Map<Long, ProductResponse> products = new HashMap<>();
+        if (snapshot == null) {
+            return products;
+        }
+        for (Long id : ids) {
+            ProductResponse product = get(id);
+            if (product != null) {
+                products.put(id, product);
+            }
+        }
+        return products;
+    }
+
+    /**
+     * Every product the snapshot can serve, in id order; empty without a snapshot.
+     */
+    public List<ProductResponse> products() {
+        CatalogSnapshot current = snapshot;
+        if (current == null) {
+            return List.of();
+        }
+        List<ProductResponse> products = new ArrayList<>(current.size());
+        for (int i = 0; i < current.size(); i++) {
+            if (!staleIds.contains(current.idAt(i))) {
+                products.add(current.productAt(i));
+            }
+        }
+        return products;
+    }
+
+    /**
+     * Compares the snapshot with the versions in the database and stops serving every
+     * product changed, deleted or created since it was written. Returns those ids.
+     */
+    public Set<Long> reconcile() {
+        CatalogSnapshot current = snapshot;
+        if (current == null) {
+            return Set.of();
+        }
+        long start = System.nanoTime();
+        Set<Long> changed = new HashSet<>();
+        // Both sides are in id order: walk them like a merge join
+        int position = 0;
+        List<ProductVersionView> chunk = primaryReads.execute(
+                status -> productRepository.findVersionsAfter(0L, Limit.of(LOAD_CHUNK_SIZE)));
+        while (!chunk.isEmpty()) {
+            for (ProductVersionView version : chunk) {
+                long id = version.getId();
+                while (position < current.size() && current.idAt(position) < id) {
+                    changed.add(current.idAt(position++));
+                }
+                if (position < current.size() && current.idAt(position) == id) {
+                    if (!Objects.equals(current.versionAt(position), version.getVersion())) {
+                        changed.add(id);
+                    }
+                    position++;
+                } else {
+                    changed.add(id);
+                }
+            }
+            Long lastId = chunk.get(chunk.size() - 1).getId();
+            chunk = primaryReads.execute(
+                    status -> productRepository.findVersionsAfter(lastId, Limit.of(LOAD_CHUNK_SIZE)));
+        }
+        while (position < current.size()) {
+            changed.add(current.idAt(position++));
+        }
+
+        staleIds.addAll(changed);
+        if (!changed.isEmpty()) {
+            productCache.evictLocally(changed);
+        }
+        log.info("Reconciled catalog snapshot of {} products in {} ms: {} changed since {}", current.size(),
+                (System.nanoTime() - start) / 1_000_000, changed.size(), current.createdAt());
+        return changed;
+    }
+
+    /**
+     * Stops serving from the snapshot altogether.
+     */
+    public void discard() {
+        if (snapshot != null) {
+            snapshot = null;
+            staleIds.clear();
+            log.info("Catalog snapshot discarded; products are read from the database");
+        }
+    }
+
+    // Synchronous, inside the writing transaction: the record is skipped before the
+    // commit evicts the product from the cache
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        if (snapshot == null) {
+            return;
+        }
+        if (event.isAll()) {
+            discard();
+        } else {
+            staleIds.addAll(event.getIds());
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.catalog.snapshot.initial-delay:1m}",
+            fixedDelayString = "${app.catalog.snapshot.interval:10m}")
+    public void writeSnapshot() {
+        if (file == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        int count = 0;
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            try (CatalogSnapshot.Writer writer = CatalogSnapshot.Writer.create(file)) {
+                List<Product> chunk = replicaReads.execute(
+                        status -> productRepository.findAllByOrderByIdAsc(Limit.of(LOAD_CHUNK_SIZE)));
+                while (!chunk.isEmpty()) {
+                    for (Product product : chunk) {
+                        writer.add(ProductService.mapToResponse(product));
+                    }
+                    count += chunk.size();
+                    Long lastId = chunk.get(chunk.size() - 1).getId();
+                    chunk = replicaReads.execute(status -> productRepository.findByIdGreaterThanOrderByIdAsc(lastId,
+                            Limit.of(LOAD_CHUNK_SIZE)));
+                }
+                writer.commit();
+            }
+            log.info("Wrote catalog snapshot of {} products to {} in {} ms", count, file,
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            log.warn("Could not write catalog snapshot to {}: {}", file, e.getMessage());
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("catalog.snapshot.products", this, store -> {
+            CatalogSnapshot current = store.snapshot;
+            return current == null ? 0 : current.size();
+        }).description("Products in the mapped catalog snapshot").register(registry);
+        Gauge.builder("catalog.snapshot.stale", staleIds, Set::size)
+                .description("Snapshot products read from the database instead")
+                .register(registry);
+        FunctionCounter.builder("catalog.snapshot.lookups", hits, LongAdder::sum)
+                .description("Product lookups against the catalog snapshot by result")
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("catalog.snapshot.lookups", misses, LongAdder::sum)
+                .description("Product lookups against the catalog snapshot by result")
+                .tag("result", "miss")
+                .register(registry);
+    }
+
+    private void onRemoteChange(Set<Long> ids) {
+        if (snapshot == null) {
+            return;
+        }
+        if (ids.isEmpty()) {
+            discard();
+        } else {
+            staleIds.addAll(ids);
+        }
+        // The cache evicted first; drop anything refilled from the snapshot in between
+        productCache.evictLocally(ids);
+    }
+
+    private CatalogSnapshot open() {
+        if (file == null || !Files.exists(file)) {
+            return null;
+        }
+        try {
+            CatalogSnapshot opened = CatalogSnapshot.open(file);
+            log.info("Mapped catalog snapshot {} of {} products written at {}", file, opened.size(),
+                    opened.createdAt());
+            return opened;
+        } catch (IOException e) {
+            log.warn("Ignoring catalog snapshot {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.e_commerce.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.e_commerce.cache.InvalidationBus;
+import com.example.e_commerce.cache.InvalidationTransport;
+import com.example.e_commerce.cache.LoopbackInvalidationTransport;
+import com.example.e_commerce.cache.PostgresInvalidationTransport;
+
+@Configuration
+public class CacheConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "app.cache.invalidation.transport", havingValue = "postgres", matchIfMissing = true)
+    public PostgresInvalidationTransport postgresInvalidationTransport(DataSource dataSource,
+            DataSourceProperties dataSourceProperties,
+            @Value("${app.cache.invalidation.channel:cache_invalidation}") String channel) {
+        return new PostgresInvalidationTransport(dataSource, dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword(), channel);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.cache.invalidation.transport", havingValue = "loopback")
+    public LoopbackInvalidationTransport loopbackInvalidationTransport() {
+        return new LoopbackInvalidationTransport();
+    }
+
+    @Bean
+    public InvalidationBus invalidationBus(InvalidationTransport invalidationTransport) {
+        return new InvalidationBus(invalidationTransport);
+    }
+}
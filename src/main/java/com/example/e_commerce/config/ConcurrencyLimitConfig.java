@@ -0,0 +1,61 @@
+package com.example.e_commerce.config;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.util.StringUtils;
+
+import com.example.e_commerce.limit.ConcurrencyLimitFilter;
+import com.example.e_commerce.limit.ConcurrencyLimiter;
+import com.example.e_commerce.limit.VegasLimit;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@Configuration
+@ConditionalOnProperty(name = "app.concurrency-limit.enabled", havingValue = "true")
+public class ConcurrencyLimitConfig {
+
+    /**
+     * One limiter per {@code app.concurrency-limit.groups.<name>} entry, whose value
+     * is a comma-separated list of request patterns.
+     */
+    @Bean
+    public ConcurrencyLimitFilter concurrencyLimitFilter(Environment environment, ObjectMapper objectMapper,
+            @Value("${app.concurrency-limit.initial-limit:20}") int initialLimit,
+            @Value("${app.concurrency-limit.min-limit:4}") int minLimit,
+            @Value("${app.concurrency-limit.max-limit:200}") int maxLimit,
+            @Value("${app.concurrency-limit.low-priority-share:0.8}") double lowPriorityShare,
+            @Value("${app.concurrency-limit.priority-paths:}") List<String> priorityPaths,
+            @Value("${app.concurrency-limit.retry-after:1s}") Duration retryAfter) {
+        Map<String, String> groups = Binder.get(environment)
+                .bind("app.concurrency-limit.groups", Bindable.mapOf(String.class, String.class))
+                .orElse(Map.of());
+        List<ConcurrencyLimitFilter.Group> limited = groups.entrySet().stream()
+                .map(group -> new ConcurrencyLimitFilter.Group(
+                        new ConcurrencyLimiter(group.getKey(), new VegasLimit(initialLimit, minLimit, maxLimit),
+                                lowPriorityShare),
+                        List.of(StringUtils.commaDelimitedListToStringArray(group.getValue()))))
+                .toList();
+        return new ConcurrencyLimitFilter(limited, priorityPaths, Math.max(1, retryAfter.toSeconds()),
+                objectMapper);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilterRegistration(
+            ConcurrencyLimitFilter filter) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        // Inside the request metrics filters, so shed requests are still counted, but
+        // ahead of security and everything else
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 2);
+        return registration;
+    }
+}
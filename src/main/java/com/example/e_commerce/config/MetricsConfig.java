@@ -0,0 +1,32 @@
+package com.example.e_commerce.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import com.example.e_commerce.metrics.RequestStatementMetricsFilter;
+import com.example.e_commerce.metrics.StatementCountingInspector;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCountingCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new StatementCountingInspector());
+    }
+
+    @Bean
+    public FilterRegistrationBean<RequestStatementMetricsFilter> requestStatementMetricsFilter(
+            MeterRegistry registry) {
+        FilterRegistrationBean<RequestStatementMetricsFilter> registration = new FilterRegistrationBean<>(
+                new RequestStatementMetricsFilter(registry));
+        // Outermost, so statements run by security or other filters are included
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
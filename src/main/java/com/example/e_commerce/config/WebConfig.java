@@ -0,0 +1,42 @@
+package com.example.e_commerce.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final Duration exportTimeout;
+
+    public WebConfig(@Value("${app.orders.export.timeout:0}") Duration exportTimeout) {
+        this.exportTimeout = exportTimeout;
+    }
+
+    /**
+     * An export streams for as long as the range takes to write, so it gets its own
+     * async timeout rather than {@code spring.mvc.async.request-timeout}, which every
+     * other async request keeps. The timeout can only be changed once the stream has
+     * started, before the request thread returns.
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new AsyncHandlerInterceptor() {
+            @Override
+            public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                    Object handler) {
+                if (request.isAsyncStarted()) {
+                    // Zero or less means no timeout
+                    request.getAsyncContext().setTimeout(exportTimeout.toMillis());
+                }
+            }
+        }).addPathPatterns("/api/orders/export");
+    }
+}
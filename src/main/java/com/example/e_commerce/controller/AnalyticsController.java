@@ -0,0 +1,57 @@
+package com.example.e_commerce.controller;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.e_commerce.dto.DailySalesView;
+import com.example.e_commerce.dto.ProductSalesView;
+import com.example.e_commerce.dto.RollupRebuildResponse;
+import com.example.e_commerce.dto.StatusSalesView;
+import com.example.e_commerce.service.SalesAnalyticsService;
+
+@RestController
+@RequestMapping("/api/analytics")
+public class AnalyticsController {
+
+    private final SalesAnalyticsService salesAnalyticsService;
+
+    public AnalyticsController(SalesAnalyticsService salesAnalyticsService) {
+        this.salesAnalyticsService = salesAnalyticsService;
+    }
+
+    @GetMapping("/sales")
+    public ResponseEntity<List<DailySalesView>> getDailySales(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(salesAnalyticsService.getDailySales(from, to));
+    }
+
+    @GetMapping("/products")
+    public ResponseEntity<List<ProductSalesView>> getTopProducts(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(salesAnalyticsService.getTopProducts(from, to, limit));
+    }
+
+    @GetMapping("/statuses")
+    public ResponseEntity<List<StatusSalesView>> getStatusTotals(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(salesAnalyticsService.getStatusTotals(from, to));
+    }
+
+    // Recomputes every rollup from the orders, e.g. after fixing order data by hand
+    @PostMapping("/rollups/rebuild")
+    public ResponseEntity<RollupRebuildResponse> rebuildRollups() {
+        return ResponseEntity.ok(salesAnalyticsService.rebuildRollups());
+    }
+}
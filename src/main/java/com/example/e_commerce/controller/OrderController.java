@@ -1,43 +1,156 @@
 package com.example.e_commerce.controller;
 
+import java.io.BufferedOutputStream;
+import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import jakarta.validation.Valid;
 
+import com.example.e_commerce.dto.BatchOrderResponse;
+import com.example.e_commerce.dto.CursorPage;
+import com.example.e_commerce.dto.IngestionResponse;
 import com.example.e_commerce.dto.OrderRequest;
 import com.example.e_commerce.dto.OrderResponse;
+import com.example.e_commerce.dto.OrderStatusRequest;
+import com.example.e_commerce.exception.BadRequestException;
+import com.example.e_commerce.exception.ResourceNotFoundException;
+import com.example.e_commerce.ingestion.OrderIngestionService;
+import com.example.e_commerce.service.OrderBatchService;
+import com.example.e_commerce.service.OrderExportService;
+import com.example.e_commerce.service.OrderIdempotencyService;
 import com.example.e_commerce.service.OrderService;
 
 @RestController
 @RequestMapping("/api/orders")
 public class OrderController {
 
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    private static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
     private final OrderService orderService;
+    private final OrderExportService orderExportService;
+    private final OrderBatchService orderBatchService;
+    private final ObjectProvider<OrderIngestionService> orderIngestionService;
+    private final OrderIdempotencyService orderIdempotencyService;
 
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService, OrderExportService orderExportService,
+            OrderBatchService orderBatchService, ObjectProvider<OrderIngestionService> orderIngestionService,
+            OrderIdempotencyService orderIdempotencyService) {
         this.orderService = orderService;
+        this.orderExportService = orderExportService;
+        this.orderBatchService = orderBatchService;
+        this.orderIngestionService = orderIngestionService;
+        this.orderIdempotencyService = orderIdempotencyService;
     }
 
+    // With an Idempotency-Key, a retried request gets the first request's order instead of a new one
     @PostMapping
-    public ResponseEntity<OrderResponse> createOrder(@Valid @RequestBody OrderRequest orderRequest) {
-        return new ResponseEntity<>(orderService.createOrder(orderRequest), HttpStatus.CREATED);
+    public ResponseEntity<OrderResponse> createOrder(
+            @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+            @Valid @RequestBody OrderRequest orderRequest) {
+        if (idempotencyKey == null) {
+            return new ResponseEntity<>(orderService.createOrder(orderRequest), HttpStatus.CREATED);
+        }
+        OrderIdempotencyService.Result result = orderIdempotencyService.createOrder(idempotencyKey, orderRequest);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header(IDEMPOTENT_REPLAYED, String.valueOf(result.replayed()))
+                .body(result.order());
+    }
+
+    // Each order is validated and reported individually, so the list itself is not @Valid
+    @PostMapping("/batch")
+    public ResponseEntity<BatchOrderResponse> createOrders(@RequestBody List<OrderRequest> orderRequests) {
+        return ResponseEntity.ok(orderBatchService.createOrders(orderRequests));
+    }
+
+    // Accepted once durably logged, or still logging after the append timeout; the order
+    // is written to the database shortly after
+    @PostMapping("/async")
+    public ResponseEntity<IngestionResponse> submitOrder(@RequestBody OrderRequest orderRequest) {
+        IngestionResponse response = ingestion().submit(orderRequest);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/orders/async/" + response.getIngestionId()))
+                .body(response);
+    }
+
+    @GetMapping("/async/{ingestionId}")
+    public ResponseEntity<IngestionResponse> getIngestionStatus(@PathVariable UUID ingestionId) {
+        return ResponseEntity.ok(ingestion().getStatus(ingestionId));
     }
 
     @GetMapping
-    public ResponseEntity<List<OrderResponse>> getAllOrders() {
-        return ResponseEntity.ok(orderService.getAllOrders());
+    public ResponseEntity<CursorPage<OrderResponse>> getAllOrders(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(orderService.getAllOrders(after, limit));
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<OrderResponse>> getOrdersByUserId(@PathVariable Long userId) {
-        return ResponseEntity.ok(orderService.getOrdersByUserId(userId));
+    public ResponseEntity<CursorPage<OrderResponse>> getOrdersByUserId(@PathVariable Long userId,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(orderService.getOrdersByUserId(userId, after, limit));
+    }
+
+    @PutMapping("/{id}/status")
+    public ResponseEntity<OrderResponse> updateStatus(@PathVariable Long id,
+            @Valid @RequestBody OrderStatusRequest statusRequest) {
+        return ResponseEntity.ok(orderService.updateStatus(id, statusRequest.getStatus()));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        if (!from.isBefore(to)) {
+            throw new BadRequestException("'from' must be before 'to'");
+        }
+
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                try (GZIPOutputStream gzipOut = new GZIPOutputStream(out, 64 * 1024)) {
+                    orderExportService.exportOrders(from, to, gzipOut);
+                }
+            } else {
+                orderExportService.exportOrders(from, to, new BufferedOutputStream(out, 64 * 1024));
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=orders.ndjson");
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    private OrderIngestionService ingestion() {
+        OrderIngestionService service = orderIngestionService.getIfAvailable();
+        if (service == null) {
+            throw new ResourceNotFoundException("Asynchronous order ingestion is not enabled");
+        }
+        return service;
     }
 }
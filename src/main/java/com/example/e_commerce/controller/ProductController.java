@@ -1,11 +1,19 @@
 package com.example.e_commerce.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.List;
+import org.springframework.boot.convert.DurationStyle;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -16,33 +24,77 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import jakarta.validation.Valid;
 
+import com.example.e_commerce.cache.ProductJsonCache;
+import com.example.e_commerce.dto.BulkImportResponse;
 import com.example.e_commerce.dto.ProductRequest;
 import com.example.e_commerce.dto.ProductResponse;
+import com.example.e_commerce.dto.ProductVersionView;
+import com.example.e_commerce.dto.StockRequest;
+import com.example.e_commerce.dto.StockResponse;
+import com.example.e_commerce.dto.TrendingProductResponse;
+import com.example.e_commerce.exception.BadRequestException;
+import com.example.e_commerce.service.InventoryService;
+import com.example.e_commerce.service.ProductBulkImportService;
 import com.example.e_commerce.service.ProductService;
+import com.fasterxml.jackson.databind.util.RawValue;
 
 @RestController
 @RequestMapping("/api/products")
 public class ProductController {
 
     private final ProductService productService;
+    private final ProductBulkImportService productBulkImportService;
+    private final InventoryService inventoryService;
+    private final ProductJsonCache productJsonCache;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, ProductBulkImportService productBulkImportService,
+            InventoryService inventoryService, ProductJsonCache productJsonCache) {
         this.productService = productService;
+        this.productBulkImportService = productBulkImportService;
+        this.inventoryService = inventoryService;
+        this.productJsonCache = productJsonCache;
     }
 
+    /**
+     * Pages carry an ETag but no Last-Modified: deleting a product shifts older
+     * products onto later pages, so a page can change without anything on it
+     * becoming newer.
+     */
     @GetMapping
-    public ResponseEntity<Page<ProductResponse>> getAllProducts(
+    public ResponseEntity<Page<RawValue>> getAllProducts(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
-        Pageable pageable = PageRequest.of(page, size);
-        return ResponseEntity.ok(productService.getAllProducts(pageable));
+            @RequestParam(defaultValue = "10") int size,
+            WebRequest request) {
+        // A stable order, so the version lookup sees the same products as the page
+        Pageable pageable = PageRequest.of(page, size, Sort.by("id"));
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                && request.checkNotModified(ProductEtags.of(productService.getPageVersions(pageable)))) {
+            return null;
+        }
+        Page<ProductResponse> products = productService.getAllProducts(pageable);
+        return ResponseEntity.ok()
+                .eTag(ProductEtags.of(products))
+                .body(productJsonCache.toJson(products));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ProductResponse> getProductById(@PathVariable Long id) {
-        return ResponseEntity.ok(productService.getProductById(id));
+    public ResponseEntity<byte[]> getProductById(@PathVariable Long id, WebRequest request) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null) {
+            ProductVersionView version = productService.getProductVersion(id);
+            if (request.checkNotModified(ProductEtags.of(version), version.getUpdatedAt().toEpochMilli())) {
+                return null;
+            }
+        }
+        ProductResponse product = productService.getProductById(id);
+        return ResponseEntity.ok()
+                .eTag(ProductEtags.of(product))
+                .lastModified(product.getUpdatedAt())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(productJsonCache.toJson(product));
     }
 
     @PostMapping
@@ -50,12 +102,33 @@ public class ProductController {
         return new ResponseEntity<>(productService.createProduct(productRequest), HttpStatus.CREATED);
     }
 
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkImportResponse> bulkImportJson(InputStream body) throws IOException {
+        return ResponseEntity.ok(productBulkImportService.importJson(body));
+    }
+
+    @PostMapping(value = "/bulk", consumes = "text/csv")
+    public ResponseEntity<BulkImportResponse> bulkImportCsv(InputStream body) throws IOException {
+        return ResponseEntity.ok(productBulkImportService.importCsv(body));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<ProductResponse> updateProduct(@PathVariable Long id,
             @Valid @RequestBody ProductRequest productRequest) {
         return ResponseEntity.ok(productService.updateProduct(id, productRequest));
     }
 
+    @GetMapping("/{id}/stock")
+    public ResponseEntity<StockResponse> getStock(@PathVariable Long id) {
+        return ResponseEntity.ok(inventoryService.getStock(id));
+    }
+
+    @PutMapping("/{id}/stock")
+    public ResponseEntity<StockResponse> setStock(@PathVariable Long id,
+            @Valid @RequestBody StockRequest stockRequest) {
+        return ResponseEntity.ok(inventoryService.setStock(id, stockRequest.getQuantity()));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteProduct(@PathVariable Long id) {
         productService.deleteProduct(id);
@@ -63,15 +136,38 @@ public class ProductController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<ProductResponse>> searchProducts(
-            @RequestParam String keyword) {
-        return ResponseEntity.ok(productService.searchByName(keyword));
+    public ResponseEntity<Page<ProductResponse>> searchProducts(
+            @RequestParam String keyword,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        Pageable pageable = PageRequest.of(page, size);
+        return ResponseEntity.ok(productService.search(keyword, pageable));
     }
 
     @GetMapping("/filter")
-    public ResponseEntity<List<ProductResponse>> filterByPrice(
-            @RequestParam Double minPrice,
-            @RequestParam Double maxPrice) {
-        return ResponseEntity.ok(productService.filterByPriceRange(minPrice, maxPrice));
+    public ResponseEntity<Page<ProductResponse>> filterByPrice(
+            @RequestParam BigDecimal minPrice,
+            @RequestParam BigDecimal maxPrice,
+            @RequestParam(defaultValue = "asc") String sort,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        Pageable pageable = PageRequest.of(page, size);
+        Sort.Direction direction = Sort.Direction.fromOptionalString(sort)
+                .orElseThrow(() -> new BadRequestException("sort must be 'asc' or 'desc'"));
+        return ResponseEntity.ok(productService.filterByPriceRange(minPrice, maxPrice, direction, pageable));
+    }
+
+    // Best sellers by units over the last window (e.g. 15m, 1h), estimated from streaming sketches
+    @GetMapping("/trending")
+    public ResponseEntity<List<TrendingProductResponse>> getTrending(
+            @RequestParam(defaultValue = "1h") String window,
+            @RequestParam(defaultValue = "10") int limit) {
+        Duration duration;
+        try {
+            duration = DurationStyle.detectAndParse(window);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("window must be a duration such as 15m or 1h");
+        }
+        return ResponseEntity.ok(productService.getTrending(duration, limit));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,38 @@
+package com.example.e_commerce.controller;
+
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.data.domain.Page;
+import org.springframework.util.DigestUtils;
+
+import com.example.e_commerce.dto.ProductVersionView;
+
+/**
+ * Strong entity tags for product representations. They are computed the same way
+ * from a full response and from a version lookup, so a conditional request can be
+ * answered without loading or serializing products.
+ */
+final class ProductEtags {
+
+    private ProductEtags() {
+    }
+
+    static String of(ProductVersionView product) {
+        return "\"" + product.getVersion() + "\"";
+    }
+
+    /**
+     * Covers the page position, the total (page metadata changes with it) and the
+     * id and version of every product on the page.
+     */
+    static String of(Page<? extends ProductVersionView> page) {
+        StringBuilder validators = new StringBuilder()
+                .append(page.getNumber()).append(':')
+                .append(page.getSize()).append(':')
+                .append(page.getTotalElements());
+        for (ProductVersionView product : page.getContent()) {
+            validators.append(';').append(product.getId()).append('.').append(product.getVersion());
+        }
+        return "\"" + DigestUtils.md5DigestAsHex(validators.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
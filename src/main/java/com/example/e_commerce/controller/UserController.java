@@ -1,7 +1,5 @@
 package com.example.e_commerce.controller;
 
-import java.util.List;
-
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -11,11 +9,15 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import jakarta.validation.Valid;
 
+import com.example.e_commerce.dto.CursorPage;
+import com.example.e_commerce.dto.UserOrderSummaryResponse;
 import com.example.e_commerce.dto.UserRequest;
 import com.example.e_commerce.dto.UserResponse;
+import com.example.e_commerce.service.UserOrderSummaryService;
 import com.example.e_commerce.service.UserService;
 
 @RestController
@@ -23,14 +25,18 @@ import com.example.e_commerce.service.UserService;
 public class UserController {
 
     private final UserService userService;
+    private final UserOrderSummaryService userOrderSummaryService;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, UserOrderSummaryService userOrderSummaryService) {
         this.userService = userService;
+        this.userOrderSummaryService = userOrderSummaryService;
     }
 
     @GetMapping
-    public ResponseEntity<List<UserResponse>> getAllUsers() {
-        return ResponseEntity.ok(userService.getAllUsers());
+    public ResponseEntity<CursorPage<UserResponse>> getAllUsers(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(userService.getAllUsers(after, limit));
     }
 
     @GetMapping("/{id}")
@@ -38,6 +44,12 @@ public class UserController {
         return ResponseEntity.ok(userService.getUserById(id));
     }
 
+    // Order count, lifetime spend and last order date, read from a summary kept up to date on every order write
+    @GetMapping("/{id}/order-summary")
+    public ResponseEntity<UserOrderSummaryResponse> getOrderSummary(@PathVariable Long id) {
+        return ResponseEntity.ok(userOrderSummaryService.getSummary(id));
+    }
+
     @PostMapping
     public ResponseEntity<UserResponse> createUser(@Valid @RequestBody UserRequest userRequest) {
         return new ResponseEntity<>(userService.createUser(userRequest), HttpStatus.CREATED);
@@ -0,0 +1,141 @@
+package com.example.e_commerce.datasource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Hands out connections for read-only transactions: from the healthy replicas in
+ * turn, or from the primary while none is healthy. A replica that fails to give a
+ * connection is skipped until the next health check finds it reachable again.
+ */
+public class ReadReplicaDataSource extends AbstractDataSource implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadReplicaDataSource.class);
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final int validationTimeoutSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+    private final LongAdder primaryFallbacks = new LongAdder();
+
+    public ReadReplicaDataSource(DataSource primary, List<HikariDataSource> replicas, int validationTimeoutSeconds) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(1, replicas.size()));
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (!replica.healthy) {
+                continue;
+            }
+            try {
+                return replica.pool.getConnection();
+            } catch (SQLException e) {
+                replica.markDown(e);
+            }
+        }
+        primaryFallbacks.increment();
+        return primary.getConnection();
+    }
+
+    // Like the Hikari pools behind it: callers that pass credentials get the JDBC
+    // "not supported" exception rather than a connection under other credentials
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Replica credentials come from configuration");
+    }
+
+    /**
+     * Probes every replica, including healthy ones, so a replica whose pooled
+     * connections all went stale is noticed before a request trips over it.
+     */
+    @Scheduled(fixedDelayString = "${app.datasource.replicas.health-check-interval:5s}")
+    public void checkHealth() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.pool.getConnection()) {
+                if (connection.isValid(validationTimeoutSeconds)) {
+                    replica.markUp();
+                } else {
+                    replica.markDown(null);
+                }
+            } catch (SQLException e) {
+                replica.markDown(e);
+            }
+        }
+    }
+
+    public int getHealthyReplicas() {
+        return (int) replicas.stream().filter(replica -> replica.healthy).count();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Replica replica : replicas) {
+            replica.pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+            Gauge.builder("shop.datasource.replica.healthy", replica, r -> r.healthy ? 1 : 0)
+                    .description("Whether read-only transactions are sent to the replica")
+                    .tag("pool", replica.pool.getPoolName())
+                    .register(registry);
+        }
+        FunctionCounter.builder("shop.datasource.replica.fallbacks", primaryFallbacks, LongAdder::sum)
+                .description("Read-only connections taken from the primary because no replica was healthy")
+                .register(registry);
+    }
+
+    // Called as the bean's inferred destroy method
+    public void close() {
+        replicas.forEach(replica -> replica.pool.close());
+    }
+
+    private static final class Replica {
+
+        private final HikariDataSource pool;
+        private volatile boolean healthy = true;
+
+        Replica(HikariDataSource pool) {
+            this.pool = pool;
+        }
+
+        void markUp() {
+            if (!healthy) {
+                healthy = true;
+                log.info("Replica {} is reachable again", pool.getPoolName());
+            }
+        }
+
+        void markDown(SQLException cause) {
+            // Pooled connections may have died with the replica; recovery starts from new ones
+            if (pool.getHikariPoolMXBean() != null) {
+                pool.getHikariPoolMXBean().softEvictConnections();
+            }
+            if (healthy) {
+                healthy = false;
+                log.warn("Replica {} is unavailable, reading from the primary: {}", pool.getPoolName(),
+                        cause == null ? "connection failed validation" : cause.getMessage());
+            }
+        }
+    }
+}
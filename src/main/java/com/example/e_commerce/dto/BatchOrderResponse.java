@@ -0,0 +1,75 @@
+package com.example.e_commerce.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a batch order submission: one result per submitted order, in request
+ * order. A failed order carries the reason and does not affect the others.
+ */
+public class BatchOrderResponse {
+    private int submitted;
+    private int created;
+    private int failed;
+    private List<Result> results;
+
+    public BatchOrderResponse(List<Result> results) {
+        this.results = results;
+        this.submitted = results.size();
+        this.created = (int) results.stream().filter(result -> result.getOrder() != null).count();
+        this.failed = submitted - created;
+    }
+
+    public int getSubmitted() {
+        return submitted;
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public List<Result> getResults() {
+        return results;
+    }
+
+    public static class Result {
+        private int index;
+        private String status;
+        private OrderResponse order;
+        private String error;
+
+        private Result(int index, String status, OrderResponse order, String error) {
+            this.index = index;
+            this.status = status;
+            this.order = order;
+            this.error = error;
+        }
+
+        public static Result created(int index, OrderResponse order) {
+            return new Result(index, "CREATED", order, null);
+        }
+
+        public static Result failed(int index, String error) {
+            return new Result(index, "FAILED", null, error);
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public OrderResponse getOrder() {
+            return order;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.e_commerce.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk import. Rows are numbered from 1 in input order (array element
+ * or CSV data line). Only the first errors are listed; {@code failed} counts all.
+ */
+public class BulkImportResponse {
+    private long received;
+    private long imported;
+    private long failed;
+    private List<RowError> errors;
+    private boolean errorsTruncated;
+
+    public BulkImportResponse(long received, long imported, long failed, List<RowError> errors,
+            boolean errorsTruncated) {
+        this.received = received;
+        this.imported = imported;
+        this.failed = failed;
+        this.errors = errors;
+        this.errorsTruncated = errorsTruncated;
+    }
+
+    public long getReceived() {
+        return received;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public boolean isErrorsTruncated() {
+        return errorsTruncated;
+    }
+
+    public static class RowError {
+        private long row;
+        private String message;
+
+        public RowError(long row, String message) {
+            this.row = row;
+            this.message = message;
+        }
+
+        public long getRow() {
+            return row;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.e_commerce.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Orders placed on one day, from the sales rollups.
+ */
+public interface DailySalesView {
+    LocalDate getSaleDate();
+
+    long getOrders();
+
+    long getUnits();
+
+    BigDecimal getRevenue();
+}
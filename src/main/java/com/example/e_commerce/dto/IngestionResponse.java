@@ -0,0 +1,59 @@
+package com.example.e_commerce.dto;
+
+import java.util.UUID;
+
+/**
+ * State of an order submitted for asynchronous ingestion: LOGGING while it is being
+ * written to the durable log, ACCEPTED once it is there, then COMMITTED with the
+ * order id or FAILED with the reason.
+ */
+public class IngestionResponse {
+    public static final String LOGGING = "LOGGING";
+    public static final String ACCEPTED = "ACCEPTED";
+    public static final String COMMITTED = "COMMITTED";
+    public static final String FAILED = "FAILED";
+
+    private UUID ingestionId;
+    private String status;
+    private Long orderId;
+    private String error;
+
+    private IngestionResponse(UUID ingestionId, String status, Long orderId, String error) {
+        this.ingestionId = ingestionId;
+        this.status = status;
+        this.orderId = orderId;
+        this.error = error;
+    }
+
+    public static IngestionResponse logging(UUID ingestionId) {
+        return new IngestionResponse(ingestionId, LOGGING, null, null);
+    }
+
+    public static IngestionResponse accepted(UUID ingestionId) {
+        return new IngestionResponse(ingestionId, ACCEPTED, null, null);
+    }
+
+    public static IngestionResponse committed(UUID ingestionId, Long orderId) {
+        return new IngestionResponse(ingestionId, COMMITTED, orderId, null);
+    }
+
+    public static IngestionResponse failed(UUID ingestionId, String error) {
+        return new IngestionResponse(ingestionId, FAILED, null, error);
+    }
+
+    public UUID getIngestionId() {
+        return ingestionId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.e_commerce.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One row of an order read: the order header columns repeated for each of its
+ * items. Item columns are null for an order without items.
+ */
+public interface OrderLineView {
+    Long getOrderId();
+
+    Long getUserId();
+
+    LocalDateTime getOrderDate();
+
+    BigDecimal getTotalAmount();
+
+    String getStatus();
+
+    Long getProductId();
+
+    String getProductName();
+
+    Integer getQuantity();
+
+    BigDecimal getPrice();
+}
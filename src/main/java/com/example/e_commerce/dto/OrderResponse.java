@@ -12,6 +12,9 @@ public class OrderResponse {
     private String status;
     private List<OrderItemResponse> items;
 
+    public OrderResponse() {
+    }
+
     public OrderResponse(Long id, Long userId, LocalDateTime orderDate, BigDecimal totalAmount, String status,
             List<OrderItemResponse> items) {
         this.id = id;
@@ -77,6 +80,9 @@ public class OrderResponse {
         private Integer quantity;
         private BigDecimal price;
 
+        public OrderItemResponse() {
+        }
+
         public OrderItemResponse(Long productId, String productName, Integer quantity, BigDecimal price) {
             this.productId = productId;
             this.productName = productName;
@@ -0,0 +1,16 @@
+package com.example.e_commerce.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public class OrderStatusRequest {
+    @NotBlank(message = "Status is required")
+    private String status;
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.e_commerce.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A user's order totals computed from the orders themselves.
+ */
+public interface OrderTotalsView {
+    long getOrderCount();
+
+    BigDecimal getLifetimeSpend();
+
+    LocalDateTime getLastOrderDate();
+}
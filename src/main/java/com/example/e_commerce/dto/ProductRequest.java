@@ -5,6 +5,7 @@ import java.math.BigDecimal;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 
 public class ProductRequest {
     @NotBlank(message = "Name is required")
@@ -18,6 +19,10 @@ public class ProductRequest {
 
     private String imageUrl;
 
+    // Initial stock on create; ignored on update, where stock has its own endpoint
+    @PositiveOrZero(message = "Stock quantity cannot be negative")
+    private Integer stockQuantity;
+
     public String getName() {
         return name;
     }
@@ -49,4 +54,12 @@ public class ProductRequest {
     public void setImageUrl(String imageUrl) {
         this.imageUrl = imageUrl;
     }
+
+    public Integer getStockQuantity() {
+        return stockQuantity;
+    }
+
+    public void setStockQuantity(Integer stockQuantity) {
+        this.stockQuantity = stockQuantity;
+    }
 }
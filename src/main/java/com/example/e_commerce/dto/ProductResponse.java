@@ -1,13 +1,16 @@
 package com.example.e_commerce.dto;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 
-public class ProductResponse {
+public class ProductResponse implements ProductVersionView {
     private Long id;
     private String name;
     private String description;
     private BigDecimal price;
     private String imageUrl;
+    private Long version;
+    private Instant updatedAt;
 
     public ProductResponse(Long id, String name, String description, BigDecimal price, String imageUrl) {
         this.id = id;
@@ -17,6 +20,14 @@ public class ProductResponse {
         this.imageUrl = imageUrl;
     }
 
+    public ProductResponse(Long id, String name, String description, BigDecimal price, String imageUrl,
+            Long version, Instant updatedAt) {
+        this(id, name, description, price, imageUrl);
+        this.version = version;
+        this.updatedAt = updatedAt;
+    }
+
+    @Override
     public Long getId() {
         return id;
     }
@@ -56,4 +67,22 @@ public class ProductResponse {
     public void setImageUrl(String imageUrl) {
         this.imageUrl = imageUrl;
     }
+
+    @Override
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    @Override
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
 }
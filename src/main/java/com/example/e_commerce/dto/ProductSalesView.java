@@ -0,0 +1,19 @@
+package com.example.e_commerce.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * One product's sales over a date range, from the sales rollups. The name is null
+ * for a product that has since been deleted.
+ */
+public interface ProductSalesView {
+    Long getProductId();
+
+    String getProductName();
+
+    long getOrders();
+
+    long getUnits();
+
+    BigDecimal getRevenue();
+}
@@ -0,0 +1,16 @@
+package com.example.e_commerce.dto;
+
+import java.time.Instant;
+
+/**
+ * What a product's validators are derived from: its version, bumped on every
+ * update, and when that update happened. Read on its own to answer conditional
+ * requests without loading the product.
+ */
+public interface ProductVersionView {
+    Long getId();
+
+    Long getVersion();
+
+    Instant getUpdatedAt();
+}
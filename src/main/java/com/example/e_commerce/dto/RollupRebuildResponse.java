@@ -0,0 +1,25 @@
+package com.example.e_commerce.dto;
+
+public class RollupRebuildResponse {
+    private long days;
+    private int chunks;
+    private long elapsedMillis;
+
+    public RollupRebuildResponse(long days, int chunks, long elapsedMillis) {
+        this.days = days;
+        this.chunks = chunks;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public long getDays() {
+        return days;
+    }
+
+    public int getChunks() {
+        return chunks;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+}
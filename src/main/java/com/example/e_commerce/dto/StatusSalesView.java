@@ -0,0 +1,15 @@
+package com.example.e_commerce.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Orders placed over a date range that currently have one status, from the sales
+ * rollups.
+ */
+public interface StatusSalesView {
+    String getStatus();
+
+    long getOrders();
+
+    BigDecimal getRevenue();
+}
@@ -0,0 +1,20 @@
+package com.example.e_commerce.dto;
+
+public class StockResponse {
+    private Long productId;
+    // Null when the product's stock is not tracked
+    private Integer quantity;
+
+    public StockResponse(Long productId, Integer quantity) {
+        this.productId = productId;
+        this.quantity = quantity;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+}
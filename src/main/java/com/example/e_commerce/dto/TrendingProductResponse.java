@@ -0,0 +1,29 @@
+package com.example.e_commerce.dto;
+
+/**
+ * A best seller over a recent window. The units sold are estimated: the true
+ * number lies between {@code unitsLowerBound} and {@code units}.
+ */
+public class TrendingProductResponse {
+    private ProductResponse product;
+    private long units;
+    private long unitsLowerBound;
+
+    public TrendingProductResponse(ProductResponse product, long units, long unitsLowerBound) {
+        this.product = product;
+        this.units = units;
+        this.unitsLowerBound = unitsLowerBound;
+    }
+
+    public ProductResponse getProduct() {
+        return product;
+    }
+
+    public long getUnits() {
+        return units;
+    }
+
+    public long getUnitsLowerBound() {
+        return unitsLowerBound;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.e_commerce.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class UserOrderSummaryResponse {
+    private Long userId;
+    private long orderCount;
+    private BigDecimal lifetimeSpend;
+    private LocalDateTime lastOrderDate;
+
+    public UserOrderSummaryResponse(Long userId, long orderCount, BigDecimal lifetimeSpend,
+            LocalDateTime lastOrderDate) {
+        this.userId = userId;
+        this.orderCount = orderCount;
+        this.lifetimeSpend = lifetimeSpend;
+        this.lastOrderDate = lastOrderDate;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public long getOrderCount() {
+        return orderCount;
+    }
+
+    public BigDecimal getLifetimeSpend() {
+        return lifetimeSpend;
+    }
+
+    public LocalDateTime getLastOrderDate() {
+        return lastOrderDate;
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.e_commerce.event;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import com.example.e_commerce.model.Order;
+import com.example.e_commerce.model.OrderItem;
+
+/**
+ * Published by OrderService when an order is created; listeners run after the
+ * order's transaction commits, except the sales rollup change and the user's order
+ * summary, which are recorded just before it.
+ */
+public class OrderCreatedEvent {
+    private final Long orderId;
+    private final Long userId;
+    private final int itemCount;
+    private final BigDecimal totalAmount;
+    private final String status;
+    private final LocalDateTime orderDate;
+    private final Map<Long, Integer> quantities;
+
+    public OrderCreatedEvent(Long orderId, Long userId, int itemCount, BigDecimal totalAmount, String status,
+            LocalDateTime orderDate, Map<Long, Integer> quantities) {
+        this.orderId = orderId;
+        this.userId = userId;
+        this.itemCount = itemCount;
+        this.totalAmount = totalAmount;
+        this.status = status;
+        this.orderDate = orderDate;
+        this.quantities = Map.copyOf(quantities);
+    }
+
+    public static OrderCreatedEvent of(Order order) {
+        SortedMap<Long, Integer> quantities = new TreeMap<>();
+        for (OrderItem item : order.getOrderItems()) {
+            quantities.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum);
+        }
+        return new OrderCreatedEvent(order.getId(), order.getUser().getId(), order.getOrderItems().size(),
+                order.getTotalAmount(), order.getStatus(), order.getOrderDate(), quantities);
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public int getItemCount() {
+        return itemCount;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getOrderDate() {
+        return orderDate;
+    }
+
+    // Units ordered per product id
+    public Map<Long, Integer> getQuantities() {
+        return quantities;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.e_commerce.event;
+
+import java.math.BigDecimal;
+
+/**
+ * Published by OrderService when an order moves from one status to another, inside
+ * the transaction that changes it.
+ */
+public class OrderStatusChangedEvent {
+    private final Long orderId;
+    private final Long userId;
+    private final BigDecimal totalAmount;
+    private final String fromStatus;
+    private final String toStatus;
+
+    public OrderStatusChangedEvent(Long orderId, Long userId, BigDecimal totalAmount, String fromStatus,
+            String toStatus) {
+        this.orderId = orderId;
+        this.userId = userId;
+        this.totalAmount = totalAmount;
+        this.fromStatus = fromStatus;
+        this.toStatus = toStatus;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public String getFromStatus() {
+        return fromStatus;
+    }
+
+    public String getToStatus() {
+        return toStatus;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.e_commerce.event;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.example.e_commerce.dto.ProductResponse;
+
+/**
+ * Published by ProductService after products are created, updated or deleted.
+ * Listeners that keep derived copies of the catalog (caches, indexes) react to it.
+ */
+public class ProductChangedEvent {
+    private final List<ProductResponse> saved;
+    private final List<Long> deletedIds;
+
+    public ProductChangedEvent(List<ProductResponse> saved, List<Long> deletedIds) {
+        this.saved = List.copyOf(saved);
+        this.deletedIds = List.copyOf(deletedIds);
+    }
+
+    public static ProductChangedEvent saved(ProductResponse product) {
+        return new ProductChangedEvent(List.of(product), List.of());
+    }
+
+    public static ProductChangedEvent deleted(Long id) {
+        return new ProductChangedEvent(List.of(), List.of(id));
+    }
+
+    /**
+     * Too many products changed to list (bulk import); listeners drop or rebuild
+     * everything they derived from the catalog.
+     */
+    public static ProductChangedEvent all() {
+        return new ProductChangedEvent(List.of(), List.of());
+    }
+
+    public boolean isAll() {
+        return saved.isEmpty() && deletedIds.isEmpty();
+    }
+
+    public List<ProductResponse> getSaved() {
+        return saved;
+    }
+
+    public List<Long> getDeletedIds() {
+        return deletedIds;
+    }
+
+    public Set<Long> getIds() {
+        Set<Long> ids = new LinkedHashSet<>();
+        saved.forEach(product -> ids.add(product.getId()));
+        ids.addAll(deletedIds);
+        return ids;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.e_commerce.exception;
+
+import java.util.List;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.CONFLICT)
+public class InsufficientStockException extends RuntimeException {
+    private final List<Long> productIds;
+
+    public InsufficientStockException(List<Long> productIds) {
+        super("Insufficient stock for product" + (productIds.size() == 1 ? " with id: " : "s with ids: ")
+                + productIds.stream().map(String::valueOf).reduce((a, b) -> a + ", " + b).orElse(""));
+        this.productIds = List.copyOf(productIds);
+    }
+
+    public List<Long> getProductIds() {
+        return productIds;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.e_commerce.index;
+
+import java.util.Collection;
+
+import com.example.e_commerce.dto.ProductResponse;
+
+/**
+ * An in-memory structure derived from the product catalog. Implementations are
+ * kept up to date by {@link ProductIndexMaintainer} and must be safe for
+ * concurrent reads while being updated.
+ */
+public interface ProductIndex {
+
+    /**
+     * Replaces the whole index content with the given products.
+     */
+    void rebuild(Collection<ProductResponse> products);
+
+    /**
+     * Adds the product, or replaces the previous entry with the same id.
+     */
+    void upsert(ProductResponse product);
+
+    void remove(Long id);
+}
@@ -0,0 +1,268 @@
+package com.example.e_commerce.index;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.e_commerce.cache.InvalidationBus;
+import com.example.e_commerce.cache.ProductCache;
+import com.example.e_commerce.catalog.CatalogSnapshotStore;
+import com.example.e_commerce.dto.ProductResponse;
+import com.example.e_commerce.event.ProductChangedEvent;
+import com.example.e_commerce.model.Product;
+import com.example.e_commerce.repository.ProductRepository;
+import com.example.e_commerce.service.ProductService;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Keeps every {@link ProductIndex} in sync with the catalog: builds them at startup,
+ * from the catalog snapshot if there is one and otherwise from the database, applies
+ * local product writes after commit, and reloads products changed on other nodes
+ * when their invalidations arrive on the bus.
+ */
+@Component
+public class ProductIndexMaintainer {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductIndexMaintainer.class);
+
+    static final int LOAD_CHUNK_SIZE = 1000;
+    // Ids are never reused, so nothing may bring a deleted product back
+    private static final long DELETED = Long.MAX_VALUE;
+
+    private final ProductRepository productRepository;
+    private final List<ProductIndex> indexes;
+    private final CatalogSnapshotStore catalogSnapshot;
+    // Products are loaded from the primary. A lagging replica could return rows as they
+    // were before a change, and a rebuild only re-reads the changes made while it runs
+    private final TransactionTemplate primaryReads;
+
+    // Ids changed while a rebuild was loading; re-read once the rebuild is in place
+    // A lock rather than a monitor: request threads take it after commit, and
+    // contended monitors block a virtual thread's carrier on Java 21
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    // Bulk changes rebuild in the background; requests made while one is queued share it
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "product-index-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+    private final Set<Long> changedDuringRebuild = new HashSet<>();
+    private boolean rebuilding;
+
+    // Version of every indexed product. After-commit listeners of back-to-back writes
+    // can run in either order, so an upsert older than the indexed version is skipped
+    private final ReentrantLock applyLock = new ReentrantLock();
+    private final Map<Long, Long> indexedVersions = new HashMap<>();
+
+    public ProductIndexMaintainer(ProductRepository productRepository, List<ProductIndex> indexes,
+            CatalogSnapshotStore catalogSnapshot, InvalidationBus invalidationBus,
+            PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.indexes = indexes;
+        this.catalogSnapshot = catalogSnapshot;
+        this.primaryReads = new TransactionTemplate(transactionManager);
+        invalidationBus.subscribe(ProductCache.REGION, this::onRemoteChange);
+    }
+
+    /**
+     * Builds the indexes from the catalog snapshot when there is one, then reconciles
+     * it with the database in the background; until then, searches may return
+     * products as they were when the snapshot was written.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmStart() {
+        List<ProductResponse> products = catalogSnapshot.products();
+        if (products.isEmpty()) {
+            rebuildAll();
+            return;
+        }
+        beginRebuild();
+        long start = System.nanoTime();
+        replaceAll(products);
+        log.info("Indexed {} products from the catalog snapshot in {} ms", products.size(),
+                (System.nanoTime() - start) / 1_000_000);
+
+        rebuildExecutor.execute(() -> {
+            try {
+                Set<Long> changed = catalogSnapshot.reconcile();
+                if (!changed.isEmpty()) {
+                    reload(changed);
+                }
+                finishRebuild();
+            } catch (RuntimeException e) {
+                log.error("Catalog snapshot reconciliation failed; rebuilding from the database", e);
+                catalogSnapshot.discard();
+                rebuildAll();
+            }
+        });
+    }
+
+    public void rebuildAll() {
+        beginRebuild();
+        long start = System.nanoTime();
+        List<ProductResponse> products = loadCatalog();
+        replaceAll(products);
+        log.info("Indexed {} products in {} ms", products.size(), (System.nanoTime() - start) / 1_000_000);
+        finishRebuild();
+    }
+
+    private void beginRebuild() {
+        rebuildLock.lock();
+        try {
+            rebuilding = true;
+            changedDuringRebuild.clear();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void finishRebuild() {
+        Set<Long> changed;
+        rebuildLock.lock();
+        try {
+            rebuilding = false;
+            changed = new HashSet<>(changedDuringRebuild);
+        } finally {
+            rebuildLock.unlock();
+        }
+        if (!changed.isEmpty()) {
+            reload(changed);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.isAll()) {
+            requestRebuild();
+            return;
+        }
+        recordIfRebuilding(event.getIds());
+        event.getSaved().forEach(this::upsert);
+        event.getDeletedIds().forEach(this::remove);
+    }
+
+    /**
+     * Schedules a full rebuild off the calling thread. Until it completes, searches
+     * see the catalog as it was before the bulk change.
+     */
+    void requestRebuild() {
+        if (rebuildQueued.compareAndSet(false, true)) {
+            rebuildExecutor.execute(() -> {
+                rebuildQueued.set(false);
+                try {
+                    rebuildAll();
+                } catch (RuntimeException e) {
+                    log.error("Product index rebuild failed", e);
+                }
+            });
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    private void onRemoteChange(Set<Long> ids) {
+        if (ids.isEmpty()) {
+            // Not on the bus thread: it would hold up every other invalidation
+            requestRebuild();
+            return;
+        }
+        recordIfRebuilding(ids);
+        reload(ids);
+    }
+
+    /**
+     * Re-reads the given products and applies them; ids no longer in the database
+     * are removed from the indexes.
+     */
+    private void reload(Collection<Long> ids) {
+        Set<Long> missing = new HashSet<>(ids);
+        for (Product product : primaryReads.execute(status -> productRepository.findAllById(ids))) {
+            missing.remove(product.getId());
+            upsert(ProductService.mapToResponse(product));
+        }
+        missing.forEach(this::remove);
+    }
+
+    private void replaceAll(List<ProductResponse> products) {
+        applyLock.lock();
+        try {
+            indexes.forEach(index -> index.rebuild(products));
+            indexedVersions.clear();
+            products.forEach(product -> indexedVersions.put(product.getId(), product.getVersion()));
+        } finally {
+            applyLock.unlock();
+        }
+    }
+
+    private void upsert(ProductResponse product) {
+        applyLock.lock();
+        try {
+            Long indexed = indexedVersions.get(product.getId());
+            if (indexed != null && (indexed == DELETED
+                    || product.getVersion() != null && product.getVersion() <= indexed)) {
+                return;
+            }
+            indexedVersions.put(product.getId(), product.getVersion());
+            indexes.forEach(index -> index.upsert(product));
+        } finally {
+            applyLock.unlock();
+        }
+    }
+
+    private void remove(Long id) {
+        applyLock.lock();
+        try {
+            indexedVersions.put(id, DELETED);
+            indexes.forEach(index -> index.remove(id));
+        } finally {
+            applyLock.unlock();
+        }
+    }
+
+    private List<ProductResponse> loadCatalog() {
+        List<ProductResponse> products = new ArrayList<>();
+        List<Product> chunk = primaryReads.execute(
+                status -> productRepository.findAllByOrderByIdAsc(Limit.of(LOAD_CHUNK_SIZE)));
+        while (!chunk.isEmpty()) {
+            chunk.forEach(product -> products.add(ProductService.mapToResponse(product)));
+            Long lastId = chunk.get(chunk.size() - 1).getId();
+            chunk = primaryReads.execute(
+                    status -> productRepository.findByIdGreaterThanOrderByIdAsc(lastId, Limit.of(LOAD_CHUNK_SIZE)));
+        }
+        return products;
+    }
+
+    private void recordIfRebuilding(Collection<Long> ids) {
+        rebuildLock.lock();
+        try {
+            if (rebuilding) {
+                changedDuringRebuild.addAll(ids);
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.example.e_commerce.index;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.stereotype.Component;
+
+import com.example.e_commerce.dto.ProductResponse;
+
+/**
+ * Products ordered by price, held as two parallel primitive arrays (price in minor
+ * units, product id) sorted by price then id. A range query is two binary searches
+ * plus a slice.
+ *
+ * <p>Readers work on an immutable snapshot published through a volatile field and
+ * never block. Writers copy the arrays, which is O(n) per product write and fine
+ * for a catalog that is read far more often than it changes.
+ */
+@Component
+public class ProductPriceIndex implements ProductIndex {
+
+    // Matches the scale of the products.price column
+    static final int PRICE_SCALE = 2;
+
+    private static final BigInteger MIN_BOUND = BigInteger.valueOf(Long.MIN_VALUE + 1);
+    private static final BigInteger MAX_BOUND = BigInteger.valueOf(Long.MAX_VALUE - 1);
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Map<Long, Long> priceById = new HashMap<>();
+    private volatile Snapshot snapshot = new Snapshot(new long[0], new long[0]);
+
+    /**
+     * Ids of one page of products priced within [min, max], plus the total number of
+     * products in the range.
+     */
+    public static class RangeResult {
+        private final long[] ids;
+        private final int total;
+
+        RangeResult(long[] ids, int total) {
+            this.ids = ids;
+            this.total = total;
+        }
+
+        public long[] getIds() {
+            return ids;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+    }
+
+    private static final class Snapshot {
+        final long[] prices;
+        final long[] ids;
+
+        Snapshot(long[] prices, long[] ids) {
+            this.prices = prices;
+            this.ids = ids;
+        }
+    }
+
+    @Override
+    public void rebuild(Collection<ProductResponse> products) {
+        writeLock.lock();
+        try {
+            priceById.clear();
+            long[][] entries = new long[products.size()][];
+            int n = 0;
+            for (ProductResponse product : products) {
+                long price = toMinorUnits(product.getPrice(), RoundingMode.HALF_UP);
+                priceById.put(product.getId(), price);
+                entries[n++] = new long[] { price, product.getId() };
+            }
+            Arrays.sort(entries, 0, n, (a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+
+            long[] prices = new long[n];
+            long[] ids = new long[n];
+            for (int i = 0; i < n; i++) {
+                prices[i] = entries[i][0];
+                ids[i] = entries[i][1];
+            }
+            snapshot = new Snapshot(prices, ids);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void upsert(ProductResponse product) {
+        writeLock.lock();
+        try {
+            Snapshot current = removeEntry(snapshot, product.getId());
+            long price = toMinorUnits(product.getPrice(), RoundingMode.HALF_UP);
+            int position = -(search(current, price, product.getId()) + 1);
+
+            int n = current.ids.length;
+            long[] prices = new long[n + 1];
+            long[] ids = new long[n + 1];
+            System.arraycopy(current.prices, 0, prices, 0, position);
+            System.arraycopy(current.ids, 0, ids, 0, position);
+            prices[position] = price;
+            ids[position] = product.getId();
+            System.arraycopy(current.prices, position, prices, position + 1, n - position);
+            System.arraycopy(current.ids, position, ids, position + 1, n - position);
+
+            priceById.put(product.getId(), price);
+            snapshot = new Snapshot(prices, ids);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long id) {
+        writeLock.lock();
+        try {
+            snapshot = removeEntry(snapshot, id);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Returns one page of product ids priced within [min, max], in ascending or
+     * descending price order (ties by id). Bounds are exact: they are converted to
+     * minor units rounding inwards, so no product outside the decimal range matches.
+     */
+    public RangeResult range(BigDecimal min, BigDecimal max, boolean descending, long offset, int limit) {
+        Snapshot current = snapshot;
+        long low = boundToMinorUnits(min, RoundingMode.CEILING);
+        long high = boundToMinorUnits(max, RoundingMode.FLOOR);
+        if (low > high) {
+            return new RangeResult(new long[0], 0);
+        }
+
+        int from = lowerBound(current.prices, low);
+        int to = lowerBound(current.prices, high + 1);
+        int total = to - from;
+        if (offset >= total) {
+            return new RangeResult(new long[0], total);
+        }
+
+        int count = (int) Math.min(limit, total - offset);
+        long[] ids = new long[count];
+        if (descending) {
+            int start = to - 1 - (int) offset;
+            for (int i = 0; i < count; i++) {
+                ids[i] = current.ids[start - i];
+            }
+        } else {
+            System.arraycopy(current.ids, from + (int) offset, ids, 0, count);
+        }
+        return new RangeResult(ids, total);
+    }
+
+    public int size() {
+        return snapshot.ids.length;
+    }
+
+    private Snapshot removeEntry(Snapshot current, Long id) {
+        Long price = priceById.remove(id);
+        if (price == null) {
+            return current;
+        }
+        int position = search(current, price, id);
+        if (position < 0) {
+            return current;
+        }
+
+        int n = current.ids.length;
+        long[] prices = new long[n - 1];
+        long[] ids = new long[n - 1];
+        System.arraycopy(current.prices, 0, prices, 0, position);
+        System.arraycopy(current.ids, 0, ids, 0, position);
+        System.arraycopy(current.prices, position + 1, prices, position, n - position - 1);
+        System.arraycopy(current.ids, position + 1, ids, position, n - position - 1);
+        return new Snapshot(prices, ids);
+    }
+
+    /**
+     * Binary search for the (price, id) pair; returns its position, or
+     * {@code -(insertionPoint + 1)} when absent.
+     */
+    private static int search(Snapshot current, long price, long id) {
+        int low = 0;
+        int high = current.prices.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = current.prices[mid] != price ? Long.compare(current.prices[mid], price)
+                    : Long.compare(current.ids[mid], id);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * First position whose price is at least {@code value}.
+     */
+    private static int lowerBound(long[] prices, long value) {
+        int low = 0;
+        int high = prices.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (prices[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    static long toMinorUnits(BigDecimal price, RoundingMode roundingMode) {
+        return price.setScale(PRICE_SCALE, roundingMode).unscaledValue().longValueExact();
+    }
+
+    // Query bounds may be arbitrarily large; clamp them so "high + 1" cannot overflow
+    private static long boundToMinorUnits(BigDecimal bound, RoundingMode roundingMode) {
+        BigInteger value = bound.setScale(PRICE_SCALE, roundingMode).unscaledValue();
+        return value.max(MIN_BOUND).min(MAX_BOUND).longValue();
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.e_commerce.index;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import com.example.e_commerce.dto.ProductResponse;
+
+/**
+ * Tokenized inverted index over product names and descriptions.
+ *
+ * <p>Every query token must match a term of the product, either exactly or as a
+ * prefix ("lap" matches "laptop"). Matches are ranked by a TF-IDF style score where
+ * name terms weigh more than description terms and prefix matches weigh less than
+ * exact ones; ties are broken by product id. Results are served from the indexed
+ * documents, so a search never touches the database.
+ */
+@Component
+public class ProductSearchIndex implements ProductIndex {
+
+    static final float NAME_WEIGHT = 3.0f;
+    static final float DESCRIPTION_WEIGHT = 1.0f;
+    static final float PREFIX_PENALTY = 0.5f;
+    // Prefix expansion is skipped for single characters and capped for short prefixes
+    static final int MIN_PREFIX_LENGTH = 2;
+    static final int MAX_PREFIX_EXPANSIONS = 64;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, ProductResponse> documents = new HashMap<>();
+    private final Map<Long, Set<String>> documentTerms = new HashMap<>();
+    private final NavigableMap<String, Map<Long, Float>> postings = new TreeMap<>();
+
+    @Override
+    public void rebuild(Collection<ProductResponse> products) {
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            documentTerms.clear();
+            postings.clear();
+            products.forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void upsert(ProductResponse product) {
+        lock.writeLock().lock();
+        try {
+            delete(product.getId());
+            add(product);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            delete(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Page<ProductResponse> search(String query, Pageable pageable) {
+        List<String> queryTokens = tokenize(query);
+        if (queryTokens.isEmpty()) {
+            return Page.empty(pageable);
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Float> scores = null;
+            for (String token : new HashSet<>(queryTokens)) {
+                Map<Long, Float> tokenScores = scoreToken(token);
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    // Keep only products matching every token so far
+                    scores.keySet().retainAll(tokenScores.keySet());
+                    scores.replaceAll((id, score) -> score + tokenScores.get(id));
+                }
+                if (scores.isEmpty()) {
+                    return Page.empty(pageable);
+                }
+            }
+
+            List<Map.Entry<Long, Float>> ranked = new ArrayList<>(scores.entrySet());
+            ranked.sort(Map.Entry.<Long, Float>comparingByValue(Comparator.reverseOrder())
+                    .thenComparing(Map.Entry.comparingByKey()));
+
+            int from = (int) Math.min(pageable.getOffset(), ranked.size());
+            int to = Math.min(from + pageable.getPageSize(), ranked.size());
+            List<ProductResponse> content = new ArrayList<>(to - from);
+            for (Map.Entry<Long, Float> entry : ranked.subList(from, to)) {
+                content.add(documents.get(entry.getKey()));
+            }
+            return new PageImpl<>(content, pageable, ranked.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Long, Float> scoreToken(String token) {
+        Map<Long, Float> scores = new HashMap<>();
+        addScores(scores, postings.get(token), 1.0f);
+
+        if (token.length() >= MIN_PREFIX_LENGTH) {
+            int expansions = 0;
+            for (Map.Entry<String, Map<Long, Float>> entry : postings
+                    .subMap(token, false, token + Character.MAX_VALUE, false).entrySet()) {
+                if (++expansions > MAX_PREFIX_EXPANSIONS) {
+                    break;
+                }
+                addScores(scores, entry.getValue(), PREFIX_PENALTY);
+            }
+        }
+        return scores;
+    }
+
+    private void addScores(Map<Long, Float> scores, Map<Long, Float> termPostings, float factor) {
+        if (termPostings == null) {
+            return;
+        }
+        float idf = (float) Math.log(1.0 + (double) documents.size() / termPostings.size());
+        termPostings.forEach((id, weight) -> scores.merge(id, weight * idf * factor, Float::sum));
+    }
+
+    private void add(ProductResponse product) {
+        Map<String, Float> weights = new HashMap<>();
+        tokenize(product.getName()).forEach(term -> weights.merge(term, NAME_WEIGHT, Float::sum));
+        tokenize(product.getDescription()).forEach(term -> weights.merge(term, DESCRIPTION_WEIGHT, Float::sum));
+
+        documents.put(product.getId(), product);
+        documentTerms.put(product.getId(), weights.keySet());
+        weights.forEach((term, weight) -> postings.computeIfAbsent(term, t -> new HashMap<>())
+                .put(product.getId(), weight));
+    }
+
+    private void delete(Long id) {
+        documents.remove(id);
+        Set<String> terms = documentTerms.remove(id);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Map<Long, Float> termPostings = postings.get(term);
+            termPostings.remove(id);
+            if (termPostings.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        StringBuilder current = new StringBuilder();
+        String lower = text.toLowerCase(Locale.ROOT);
+        for (int i = 0; i < lower.length(); i++) {
+            char c = lower.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                current.append(c);
+            } else if (current.length() > 0) {
+                tokens.add(current.toString());
+                current.setLength(0);
+            }
+        }
+        if (current.length() > 0) {
+            tokens.add(current.toString());
+        }
+        return tokens;
+    }
+}
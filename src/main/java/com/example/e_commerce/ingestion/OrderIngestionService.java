@@ -0,0 +1,448 @@
+package com.example.e_commerce.ingestion;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import com.example.e_commerce.dto.BatchOrderResponse;
+import com.example.e_commerce.dto.IngestionResponse;
+import com.example.e_commerce.dto.OrderRequest;
+import com.example.e_commerce.exception.ResourceNotFoundException;
+import com.example.e_commerce.exception.ServiceUnavailableException;
+import com.example.e_commerce.repository.OrderRepository;
+import com.example.e_commerce.service.OrderBatchService;
+import com.example.e_commerce.service.OrderRequestValidator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Accepts orders without waiting for the database. A submitted order is validated,
+ * given an ingestion id and handed to a single writer thread, which appends waiting
+ * orders to the {@link OrderLog} as a group with one fsync. Once durable, the
+ * caller gets its id and the order goes into a bounded ring buffer. One consumer
+ * thread drains the buffer in batches into {@link OrderBatchService} and advances
+ * the log checkpoint after each batch.
+ *
+ * <p>On startup the log is replayed from the checkpoint. Orders are stored with
+ * their ingestion id and ids already in the database are skipped, so replaying
+ * after a crash never creates an order twice.
+ *
+ * <p>The buffer capacity is reserved before an order is logged. When it is full,
+ * submissions get a 503 with Retry-After instead of growing the backlog. A submission
+ * whose log write is slow is answered with its ingestion id while still LOGGING, since
+ * the write may yet succeed: resubmitting it would create the order twice.
+ *
+ * <p>A batch that cannot be persisted is retried for as long as the database is
+ * unreachable. If it keeps failing while the database answers, its orders are applied
+ * one at a time, and an order that still fails on its own is marked FAILED so it
+ * cannot hold up the ones behind it.
+ */
+@Service
+@ConditionalOnProperty(name = "app.orders.ingestion.enabled", havingValue = "true")
+public class OrderIngestionService implements SmartLifecycle, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderIngestionService.class);
+
+    private static final long RETRY_AFTER_SECONDS = 1;
+    private static final int MAX_GROUP_SIZE = 1024;
+    private static final long POLL_MILLIS = 100;
+    private static final Duration PERSIST_RETRY_DELAY = Duration.ofSeconds(1);
+    private static final int MAX_PERSIST_ATTEMPTS = 3;
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(10);
+
+    /**
+     * What is written to the log for each accepted order.
+     */
+    record IngestedOrder(UUID ingestionId, Instant acceptedAt, OrderRequest order) {
+    }
+
+    private record PendingAppend(IngestedOrder order, byte[] payload, CompletableFuture<Void> durable) {
+    }
+
+    private record LoggedOrder(IngestedOrder order, OrderLog.Position end) {
+    }
+
+    private final OrderBatchService orderBatchService;
+    private final OrderRepository orderRepository;
+    private final ObjectMapper objectMapper;
+    // Replayed orders are looked up on the primary: one that a lagging replica misses
+    // would be placed again and fail on its ingestion id
+    private final TransactionTemplate primaryReads;
+    private final Path logDirectory;
+    private final long segmentBytes;
+    private final int capacity;
+    private final int batchSize;
+    private final Duration appendTimeout;
+
+    private final Semaphore permits;
+    private final BlockingQueue<PendingAppend> appends = new LinkedBlockingQueue<>();
+    private final BlockingQueue<LoggedOrder> ring;
+    private final Map<UUID, IngestionResponse> inFlight = new ConcurrentHashMap<>();
+    private final Cache<UUID, IngestionResponse> finished;
+    private final AtomicLong logSyncs = new AtomicLong();
+    private final AtomicLong loggedOrders = new AtomicLong();
+
+    private volatile boolean running;
+    private OrderLog orderLog;
+    private Thread writer;
+    private Thread consumer;
+
+    public OrderIngestionService(OrderBatchService orderBatchService, OrderRepository orderRepository,
+            ObjectMapper objectMapper, PlatformTransactionManager transactionManager,
+            @Value("${app.orders.ingestion.log-dir:data/order-log}") Path logDirectory,
+            @Value("${app.orders.ingestion.segment-size:64MB}") DataSize segmentSize,
+            @Value("${app.orders.ingestion.capacity:10000}") int capacity,
+            @Value("${app.orders.ingestion.batch-size:500}") int batchSize,
+            @Value("${app.orders.ingestion.append-timeout:2s}") Duration appendTimeout,
+            @Value("${app.orders.ingestion.status-ttl:1h}") Duration statusTtl) {
+        this.orderBatchService = orderBatchService;
+        this.orderRepository = orderRepository;
+        this.objectMapper = objectMapper;
+        this.primaryReads = new TransactionTemplate(transactionManager);
+        this.logDirectory = logDirectory;
+        this.segmentBytes = segmentSize.toBytes();
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.appendTimeout = appendTimeout;
+        this.permits = new Semaphore(capacity);
+        this.ring = new ArrayBlockingQueue<>(capacity);
+        this.finished = Caffeine.newBuilder()
+                .maximumSize(Math.max(capacity, 100_000))
+                .expireAfterWrite(statusTtl)
+                .build();
+    }
+
+    /**
+     * Returns once the order is durable in the log, or still LOGGING if that takes
+     * longer than the append timeout. It reaches the database later; use
+     * {@link #getStatus} to find out when.
+     */
+    public IngestionResponse submit(OrderRequest request) {
+        OrderRequestValidator.requireValid(request);
+        if (!running) {
+            throw new ServiceUnavailableException("Order ingestion is not running, please retry", RETRY_AFTER_SECONDS);
+        }
+        if (!permits.tryAcquire()) {
+            throw new ServiceUnavailableException("Order ingestion is at capacity, please retry", RETRY_AFTER_SECONDS);
+        }
+
+        IngestedOrder order = new IngestedOrder(UUID.randomUUID(), Instant.now(), request);
+        PendingAppend pending;
+        try {
+            pending = new PendingAppend(order, objectMapper.writeValueAsBytes(order), new CompletableFuture<>());
+        } catch (JsonProcessingException e) {
+            permits.release();
+            throw new IllegalStateException("Could not serialize order for the ingestion log", e);
+        }
+        inFlight.put(order.ingestionId(), IngestionResponse.logging(order.ingestionId()));
+        appends.add(pending);
+
+        try {
+            pending.durable().get(appendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // The write may still complete; the caller polls instead of submitting a duplicate
+            return IngestionResponse.logging(order.ingestionId());
+        } catch (ExecutionException e) {
+            throw new ServiceUnavailableException("Order could not be written to the ingestion log, please retry",
+                    RETRY_AFTER_SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while writing order to the ingestion log", e);
+        }
+        return IngestionResponse.accepted(order.ingestionId());
+    }
+
+    public IngestionResponse getStatus(UUID ingestionId) {
+        IngestionResponse status = inFlight.get(ingestionId);
+        if (status == null) {
+            status = finished.getIfPresent(ingestionId);
+        }
+        if (status != null) {
+            return status;
+        }
+        // Status expired or recorded before a restart; committed orders are still found by id
+        return orderRepository.findIdByIngestionId(ingestionId)
+                .map(orderId -> IngestionResponse.committed(ingestionId, orderId))
+                .orElseThrow(() -> new ResourceNotFoundException("No ingested order with id: " + ingestionId));
+    }
+
+    @Override
+    public void start() {
+        try {
+            orderLog = new OrderLog(logDirectory, segmentBytes);
+            running = true;
+            consumer = startThread("order-ingest-consumer", this::consumeLoop);
+
+            long[] replayed = { 0 };
+            orderLog.replay(orderLog.readCheckpoint(), (payload, end) -> {
+                IngestedOrder order = objectMapper.readValue(payload, IngestedOrder.class);
+                permits.acquireUninterruptibly();
+                inFlight.put(order.ingestionId(), IngestionResponse.accepted(order.ingestionId()));
+                ring.add(new LoggedOrder(order, end));
+                replayed[0]++;
+            });
+            if (replayed[0] > 0) {
+                log.info("Replaying {} orders from the ingestion log in {}", replayed[0], logDirectory);
+            }
+
+            writer = startThread("order-log-writer", this::writeLoop);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open the order ingestion log in " + logDirectory, e);
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        // The writer finishes pending appends; the consumer drains the buffer unless it
+        // runs out of time, in which case the rest is replayed on the next start
+        join(writer);
+        join(consumer);
+        try {
+            orderLog.close();
+        } catch (IOException e) {
+            log.warn("Could not close the order ingestion log", e);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Start before the web server accepts requests and stop after it has drained them
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("shop.orders.ingestion.pending", () -> capacity - permits.availablePermits())
+                .description("Orders accepted or being logged but not yet applied to the database")
+                .register(registry);
+        FunctionCounter.builder("shop.orders.ingestion.log.syncs", logSyncs, AtomicLong::get)
+                .description("Group writes to the ingestion log, each followed by one fsync")
+                .register(registry);
+        FunctionCounter.builder("shop.orders.ingestion.log.orders", loggedOrders, AtomicLong::get)
+                .description("Orders written to the ingestion log")
+                .register(registry);
+    }
+
+    private void writeLoop() {
+        List<PendingAppend> group = new ArrayList<>();
+        while (running || !appends.isEmpty()) {
+            PendingAppend first;
+            try {
+                first = appends.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (first == null) {
+                continue;
+            }
+            group.add(first);
+            appends.drainTo(group, MAX_GROUP_SIZE - 1);
+
+            try {
+                List<OrderLog.Position> ends = orderLog.append(group.stream().map(PendingAppend::payload).toList());
+                logSyncs.incrementAndGet();
+                loggedOrders.addAndGet(group.size());
+                for (int i = 0; i < group.size(); i++) {
+                    IngestedOrder order = group.get(i).order();
+                    inFlight.put(order.ingestionId(), IngestionResponse.accepted(order.ingestionId()));
+                    // Never blocks: every order in flight holds one of the buffer's permits
+                    ring.add(new LoggedOrder(order, ends.get(i)));
+                    group.get(i).durable().complete(null);
+                }
+            } catch (IOException e) {
+                log.error("Could not append {} orders to the ingestion log", group.size(), e);
+                for (PendingAppend pending : group) {
+                    permits.release();
+                    finish(IngestionResponse.failed(pending.order().ingestionId(),
+                            "Order could not be written to the ingestion log"));
+                    pending.durable().completeExceptionally(e);
+                }
+            }
+            group.clear();
+        }
+    }
+
+    private void consumeLoop() {
+        List<LoggedOrder> batch = new ArrayList<>(batchSize);
+        while (running || !ring.isEmpty()) {
+            LoggedOrder first;
+            try {
+                first = ring.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (first == null) {
+                continue;
+            }
+            batch.add(first);
+            ring.drainTo(batch, batchSize - 1);
+
+            if (!persist(batch)) {
+                // Interrupted on shutdown: the batch is replayed from the log on the next start
+                return;
+            }
+            permits.release(batch.size());
+            batch.clear();
+        }
+    }
+
+    /**
+     * Applies the batch, retrying while it fails. After {@link #MAX_PERSIST_ATTEMPTS}
+     * failures with the database answering, a batch is split into single orders and a
+     * single order is marked FAILED. Returns false if interrupted.
+     */
+    private boolean persist(List<LoggedOrder> batch) {
+        for (int attempt = 1;; attempt++) {
+            try {
+                apply(batch);
+                return true;
+            } catch (RuntimeException e) {
+                if (attempt >= MAX_PERSIST_ATTEMPTS && databaseAnswers(batch)) {
+                    if (batch.size() == 1) {
+                        UUID id = batch.get(0).order().ingestionId();
+                        log.error("Giving up on ingested order {} after {} attempts", id, attempt, e);
+                        finish(IngestionResponse.failed(id, "Order could not be stored: " + e.getMessage()));
+                        checkpoint(batch.get(0).end());
+                        return true;
+                    }
+                    log.warn("Could not persist {} ingested orders, applying them one at a time: {}",
+                            batch.size(), e.getMessage());
+                    for (LoggedOrder logged : batch) {
+                        if (!persist(List.of(logged))) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }
+                log.warn("Could not persist {} ingested orders, will retry: {}", batch.size(), e.getMessage());
+            }
+            try {
+                Thread.sleep(PERSIST_RETRY_DELAY);
+            } catch (InterruptedException e) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Persists one batch, records each order's outcome and advances the checkpoint.
+     */
+    private void apply(List<LoggedOrder> batch) {
+        Map<UUID, Long> existing = new HashMap<>();
+        List<UUID> batchIds = batch.stream().map(logged -> logged.order().ingestionId()).toList();
+        for (Object[] row : primaryReads.execute(status -> orderRepository.findIdsByIngestionIdIn(batchIds))) {
+            existing.put((UUID) row[0], (Long) row[1]);
+        }
+
+        List<UUID> ids = new ArrayList<>();
+        List<Instant> acceptedAt = new ArrayList<>();
+        List<OrderRequest> requests = new ArrayList<>();
+        for (LoggedOrder logged : batch) {
+            UUID id = logged.order().ingestionId();
+            if (existing.containsKey(id)) {
+                finish(IngestionResponse.committed(id, existing.get(id)));
+            } else {
+                ids.add(id);
+                acceptedAt.add(logged.order().acceptedAt());
+                requests.add(logged.order().order());
+            }
+        }
+        if (!requests.isEmpty()) {
+            BatchOrderResponse response = orderBatchService.createOrders(requests, ids, acceptedAt);
+            for (BatchOrderResponse.Result result : response.getResults()) {
+                UUID id = ids.get(result.getIndex());
+                finish(result.getOrder() != null
+                        ? IngestionResponse.committed(id, result.getOrder().getId())
+                        : IngestionResponse.failed(id, result.getError()));
+            }
+        }
+        checkpoint(batch.get(batch.size() - 1).end());
+    }
+
+    // A failure with the database still answering will not go away by retrying
+    private boolean databaseAnswers(List<LoggedOrder> batch) {
+        try {
+            UUID ingestionId = batch.get(0).order().ingestionId();
+            primaryReads.execute(status -> orderRepository.findIdsByIngestionIdIn(List.of(ingestionId)));
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private void checkpoint(OrderLog.Position end) {
+        try {
+            orderLog.checkpoint(end);
+        } catch (IOException e) {
+            // Only means more orders are checked against the database on the next replay
+            log.warn("Could not update the ingestion log checkpoint", e);
+        }
+    }
+
+    private void finish(IngestionResponse status) {
+        finished.put(status.getIngestionId(), status);
+        inFlight.remove(status.getIngestionId());
+    }
+
+    private static Thread startThread(String name, Runnable task) {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    private static void join(Thread thread) {
+        if (thread == null) {
+            return;
+        }
+        try {
+            thread.join(SHUTDOWN_TIMEOUT);
+            if (thread.isAlive()) {
+                thread.interrupt();
+                thread.join(SHUTDOWN_TIMEOUT);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.example.e_commerce.ingestion;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Append-only log of accepted orders, split into numbered segment files. Each record
+ * is framed as {@code [length][crc32c][payload]} so a write torn by a crash is
+ * detected and cut off when the log is reopened. {@link #append} writes a group of
+ * records and forces them to disk with one fsync.
+ *
+ * <p>A checkpoint file records how far the log has been applied to the database.
+ * Segments wholly before the checkpoint are deleted; everything after it is handed
+ * back by {@link #replay} on startup.
+ *
+ * <p>Appends must come from a single thread; checkpoints may be taken from another.
+ */
+class OrderLog implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderLog.class);
+
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+    private static final int HEADER_BYTES = 8;
+    private static final int MAX_RECORD_BYTES = 16 * 1024 * 1024;
+
+    /**
+     * A point in the log: a byte offset within a segment.
+     */
+    record Position(long segment, long offset) implements Comparable<Position> {
+        static final Position START = new Position(0, 0);
+
+        @Override
+        public int compareTo(Position other) {
+            int bySegment = Long.compare(segment, other.segment);
+            return bySegment != 0 ? bySegment : Long.compare(offset, other.offset);
+        }
+    }
+
+    /**
+     * Receives replayed records with the position just after each one.
+     */
+    @FunctionalInterface
+    interface RecordHandler {
+        void handle(byte[] payload, Position end) throws IOException;
+    }
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final CRC32C crc = new CRC32C();
+    private volatile long segment;
+    private FileChannel channel;
+
+    OrderLog(Path directory, long segmentBytes) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        Files.createDirectories(directory);
+
+        TreeMap<Long, Path> segments = segments();
+        segment = segments.isEmpty() ? 0 : segments.lastKey();
+        channel = FileChannel.open(segmentPath(segment), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        truncateTornTail();
+    }
+
+    /**
+     * Appends the records and fsyncs once. Returns the position after each record.
+     */
+    List<Position> append(List<byte[]> payloads) throws IOException {
+        if (channel.size() >= segmentBytes) {
+            roll();
+        }
+        List<Position> positions = new ArrayList<>(payloads.size());
+        int total = payloads.stream().mapToInt(payload -> HEADER_BYTES + payload.length).sum();
+        ByteBuffer buffer = ByteBuffer.allocate(total);
+        long start = channel.size();
+        long offset = start;
+        for (byte[] payload : payloads) {
+            if (payload.length > MAX_RECORD_BYTES) {
+                throw new IOException("Record of " + payload.length + " bytes exceeds the maximum size");
+            }
+            crc.reset();
+            crc.update(payload);
+            buffer.putInt(payload.length).putInt((int) crc.getValue()).put(payload);
+            offset += HEADER_BYTES + payload.length;
+            positions.add(new Position(segment, offset));
+        }
+        buffer.flip();
+        try {
+            long writeAt = start;
+            while (buffer.hasRemaining()) {
+                writeAt += channel.write(buffer, writeAt);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            // Drop the partial group so later records are not stranded behind it on replay
+            channel.truncate(start);
+            throw e;
+        }
+        return positions;
+    }
+
+    /**
+     * Hands every complete record after {@code from} to the handler, oldest first.
+     */
+    void replay(Position from, RecordHandler handler) throws IOException {
+        for (var entry : segments().tailMap(from.segment(), true).entrySet()) {
+            long start = entry.getKey() == from.segment() ? from.offset() : 0;
+            try (FileChannel reader = FileChannel.open(entry.getValue(), StandardOpenOption.READ)) {
+                long offset = start;
+                byte[] payload;
+                while ((payload = read(reader, offset)) != null) {
+                    offset += HEADER_BYTES + payload.length;
+                    handler.handle(payload, new Position(entry.getKey(), offset));
+                }
+            }
+        }
+    }
+
+    Position readCheckpoint() throws IOException {
+        Path file = directory.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(file)) {
+            return Position.START;
+        }
+        String contents = Files.readString(file, StandardCharsets.US_ASCII).trim();
+        String[] parts = contents.split(" ");
+        try {
+            return new Position(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            // Replay skips orders already in the database, so starting over only costs time
+            log.warn("Ignoring unreadable ingestion log checkpoint '{}', replaying the whole log", contents);
+            return Position.START;
+        }
+    }
+
+    /**
+     * Records that everything up to {@code position} has been applied, and deletes
+     * segments that are no longer needed. The new checkpoint is forced to disk before
+     * it atomically replaces the old one, so a crash cannot leave the rename without
+     * its contents.
+     */
+    void checkpoint(Position position) throws IOException {
+        Path temp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        ByteBuffer contents = ByteBuffer.wrap(
+                (position.segment() + " " + position.offset()).getBytes(StandardCharsets.US_ASCII));
+        try (FileChannel writer = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (contents.hasRemaining()) {
+                writer.write(contents);
+            }
+            writer.force(true);
+        }
+        Files.move(temp, directory.resolve(CHECKPOINT_FILE), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        for (var entry : segments().headMap(Math.min(position.segment(), segment)).entrySet()) {
+            Files.deleteIfExists(entry.getValue());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void roll() throws IOException {
+        channel.close();
+        segment++;
+        channel = FileChannel.open(segmentPath(segment), StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+    }
+
+    private void truncateTornTail() throws IOException {
+        long offset = 0;
+        byte[] payload;
+        while ((payload = read(channel, offset)) != null) {
+            offset += HEADER_BYTES + payload.length;
+        }
+        if (offset < channel.size()) {
+            log.warn("Truncating {} bytes of incomplete record at the end of {}", channel.size() - offset,
+                    segmentPath(segment));
+            channel.truncate(offset);
+            channel.force(false);
+        }
+    }
+
+    /**
+     * The record at {@code offset}, or null at the end of the segment or at a record
+     * that is incomplete or fails its checksum.
+     */
+    private byte[] read(FileChannel reader, long offset) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        if (!readFully(reader, header, offset)) {
+            return null;
+        }
+        int length = header.getInt(0);
+        int checksum = header.getInt(4);
+        if (length < 0 || length > MAX_RECORD_BYTES) {
+            return null;
+        }
+        ByteBuffer payload = ByteBuffer.allocate(length);
+        if (!readFully(reader, payload, offset + HEADER_BYTES)) {
+            return null;
+        }
+        crc.reset();
+        crc.update(payload.array());
+        return (int) crc.getValue() == checksum ? payload.array() : null;
+    }
+
+    private static boolean readFully(FileChannel reader, ByteBuffer buffer, long offset) throws IOException {
+        long position = offset;
+        while (buffer.hasRemaining()) {
+            int read = reader.read(buffer, position);
+            if (read < 0) {
+                return false;
+            }
+            position += read;
+        }
+        return true;
+    }
+
+    private TreeMap<Long, Path> segments() throws IOException {
+        TreeMap<Long, Path> segments = new TreeMap<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                String name = file.getFileName().toString();
+                if (name.endsWith(SEGMENT_SUFFIX)) {
+                    segments.put(Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())), file);
+                }
+            });
+        }
+        return segments;
+    }
+
+    private Path segmentPath(long number) {
+        return directory.resolve(String.format("%020d%s", number, SEGMENT_SUFFIX));
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.e_commerce.limit;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Puts endpoint groups behind their own {@link ConcurrencyLimiter}. Each group has
+ * its own latency baseline, so fast cached reads in one group do not make another
+ * group's writes look queued. Requests over a group's limit get 503 with
+ * Retry-After before any handler, security check or database work runs. A 503 or
+ * 504 from the handler counts as a drop and lowers the group's limit.
+ *
+ * <p>Patterns are a path pattern, optionally preceded by an HTTP method:
+ * {@code /api/orders/**} or {@code GET /api/products/**}. A request belongs to the
+ * group with the most specific matching pattern, so {@code GET /api/orders/export}
+ * can have a group of its own inside {@code /api/orders/**}; on a tie the group
+ * declared first wins. Requests in no group are not limited.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter implements MeterBinder {
+
+    private static final String GROUP_ATTRIBUTE = ConcurrencyLimitFilter.class.getName() + ".group";
+
+    /**
+     * Requests matching any of the patterns share the limiter.
+     */
+    public record Group(ConcurrencyLimiter limiter, List<String> patterns) {
+    }
+
+    private record ParsedGroup(ConcurrencyLimiter limiter, List<RequestPattern> patterns) {
+    }
+
+    private final List<ParsedGroup> groups;
+    private final List<RequestPattern> priority;
+    private final long retryAfterSeconds;
+    private final ObjectMapper objectMapper;
+
+    public ConcurrencyLimitFilter(List<Group> groups, List<String> priorityPatterns, long retryAfterSeconds,
+            ObjectMapper objectMapper) {
+        this.groups = groups.stream()
+                .map(group -> new ParsedGroup(group.limiter(), parse(group.patterns())))
+                .toList();
+        this.priority = parse(priorityPatterns);
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        PathContainer path = pathOf(request);
+        ConcurrencyLimiter limiter = null;
+        PathPattern matched = null;
+        for (ParsedGroup group : groups) {
+            for (RequestPattern pattern : group.patterns()) {
+                if (pattern.matches(request.getMethod(), path) && (matched == null
+                        || PathPattern.SPECIFICITY_COMPARATOR.compare(pattern.path(), matched) < 0)) {
+                    limiter = group.limiter();
+                    matched = pattern.path();
+                }
+            }
+        }
+        if (limiter == null) {
+            return true;
+        }
+        request.setAttribute(GROUP_ATTRIBUTE, limiter);
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ConcurrencyLimiter limiter = (ConcurrencyLimiter) request.getAttribute(GROUP_ATTRIBUTE);
+        ConcurrencyLimiter.Priority requestPriority = matchesAny(priority, request.getMethod(), pathOf(request))
+                ? ConcurrencyLimiter.Priority.HIGH
+                : ConcurrencyLimiter.Priority.LOW;
+        Optional<ConcurrencyLimiter.Permit> acquired = limiter.tryAcquire(requestPriority);
+        if (acquired.isEmpty()) {
+            reject(request, response);
+            return;
+        }
+
+        ConcurrencyLimiter.Permit permit = acquired.get();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                // Streams run long by design; hold the slot until they end but do not sample them
+                request.getAsyncContext().addListener(new ReleasingListener(permit));
+            } else {
+                int status = response.getStatus();
+                permit.complete(status == HttpStatus.SERVICE_UNAVAILABLE.value()
+                        || status == HttpStatus.GATEWAY_TIMEOUT.value());
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        groups.forEach(group -> group.limiter().bindTo(registry));
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("message", "Service is busy, please retry");
+        body.put("details", "uri=" + request.getRequestURI());
+
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    private static PathContainer pathOf(HttpServletRequest request) {
+        return PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+    }
+
+    private static boolean matchesAny(List<RequestPattern> patterns, String method, PathContainer path) {
+        for (RequestPattern pattern : patterns) {
+            if (pattern.matches(method, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<RequestPattern> parse(List<String> patterns) {
+        return patterns.stream().filter(pattern -> !pattern.isBlank()).map(RequestPattern::parse).toList();
+    }
+
+    private record RequestPattern(String method, PathPattern path) {
+
+        static RequestPattern parse(String pattern) {
+            String trimmed = pattern.trim();
+            int space = trimmed.indexOf(' ');
+            if (space < 0) {
+                return new RequestPattern(null, PathPatternParser.defaultInstance.parse(trimmed));
+            }
+            return new RequestPattern(trimmed.substring(0, space).toUpperCase(),
+                    PathPatternParser.defaultInstance.parse(trimmed.substring(space + 1).trim()));
+        }
+
+        boolean matches(String requestMethod, PathContainer requestPath) {
+            return (method == null || method.equals(requestMethod)) && path.matches(requestPath);
+        }
+    }
+
+    private record ReleasingListener(ConcurrencyLimiter.Permit permit) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            permit.ignore();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            permit.ignore();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            permit.ignore();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Listeners are dropped when async processing restarts; stay registered
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
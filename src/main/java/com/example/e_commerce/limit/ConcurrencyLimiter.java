@@ -0,0 +1,130 @@
+package com.example.e_commerce.limit;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Admits one endpoint group's requests while fewer than its adaptive limit are in
+ * flight. Priority requests may use the whole limit; the others only a share of
+ * it, so when the backend slows down they are shed first and priority traffic
+ * keeps a reserve.
+ */
+public class ConcurrencyLimiter implements MeterBinder {
+
+    public enum Priority {
+        HIGH, LOW
+    }
+
+    private final String group;
+    private final VegasLimit limit;
+    private final double lowPriorityShare;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejectedHigh = new LongAdder();
+    private final LongAdder rejectedLow = new LongAdder();
+
+    public ConcurrencyLimiter(String group, VegasLimit limit, double lowPriorityShare) {
+        if (lowPriorityShare <= 0 || lowPriorityShare > 1) {
+            throw new IllegalArgumentException("lowPriorityShare must be in (0, 1]");
+        }
+        this.group = group;
+        this.limit = limit;
+        this.lowPriorityShare = lowPriorityShare;
+    }
+
+    /**
+     * Takes a slot, or returns empty if the request must be rejected. The caller
+     * must complete the returned permit exactly once.
+     */
+    public Optional<Permit> tryAcquire(Priority priority) {
+        int current = limit.getLimit();
+        int allowed = priority == Priority.HIGH ? current : Math.max(1, (int) (current * lowPriorityShare));
+        while (true) {
+            int running = inFlight.get();
+            if (running >= allowed) {
+                (priority == Priority.HIGH ? rejectedHigh : rejectedLow).increment();
+                return Optional.empty();
+            }
+            if (inFlight.compareAndSet(running, running + 1)) {
+                return Optional.of(new Permit(running + 1, System.nanoTime()));
+            }
+        }
+    }
+
+    public String getGroup() {
+        return group;
+    }
+
+    public int getLimit() {
+        return limit.getLimit();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("shop.requests.concurrency.limit", limit, VegasLimit::getLimit)
+                .description("Current adaptive limit on concurrent requests of the endpoint group")
+                .tag("group", group)
+                .register(registry);
+        Gauge.builder("shop.requests.concurrency.in.flight", inFlight, AtomicInteger::get)
+                .description("Requests of the endpoint group currently in flight")
+                .tag("group", group)
+                .register(registry);
+        FunctionCounter.builder("shop.requests.rejected", rejectedHigh, LongAdder::sum)
+                .description("Requests rejected by the concurrency limit")
+                .tag("group", group)
+                .tag("priority", "high")
+                .register(registry);
+        FunctionCounter.builder("shop.requests.rejected", rejectedLow, LongAdder::sum)
+                .description("Requests rejected by the concurrency limit")
+                .tag("group", group)
+                .tag("priority", "low")
+                .register(registry);
+    }
+
+    public final class Permit {
+
+        private final int inFlightAtStart;
+        private final long startNanos;
+        private final AtomicBoolean completed = new AtomicBoolean();
+
+        private Permit(int inFlightAtStart, long startNanos) {
+            this.inFlightAtStart = inFlightAtStart;
+            this.startNanos = startNanos;
+        }
+
+        /**
+         * Frees the slot and feeds the request's latency to the limit.
+         */
+        public void complete(boolean dropped) {
+            if (release()) {
+                limit.onSample(System.nanoTime() - startNanos, inFlightAtStart, dropped);
+            }
+        }
+
+        /**
+         * Frees the slot without a latency sample, for requests whose duration says
+         * nothing about the backend (long-running streams).
+         */
+        public void ignore() {
+            release();
+        }
+
+        private boolean release() {
+            if (!completed.compareAndSet(false, true)) {
+                return false;
+            }
+            inFlight.decrementAndGet();
+            return true;
+        }
+    }
+}
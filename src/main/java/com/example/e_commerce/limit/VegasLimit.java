@@ -0,0 +1,121 @@
+package com.example.e_commerce.limit;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A concurrency limit that follows measured latency, after TCP Vegas. Samples are
+ * taken in windows of {@value #WINDOW_SIZE} requests and each window's median
+ * latency is used, so a single slow request (a GC pause, a cold cache) does not
+ * move the limit. The lowest window latency seen is the no-load baseline; the
+ * amount by which a window exceeds it estimates how many requests are queued
+ * behind the bottleneck ({@code limit * (1 - baseline / latency)}). A short queue
+ * raises the limit, a long one or a dropped request (the backend gave up) lowers it.
+ *
+ * <p>The baseline is forgotten every few dozen limits' worth of requests, so a
+ * backend that has become permanently slower is re-measured instead of shrinking
+ * the limit forever.
+ */
+public class VegasLimit {
+
+    static final int WINDOW_SIZE = 16;
+    private static final int PROBE_MULTIPLIER = 30;
+
+    private final int minLimit;
+    private final int maxLimit;
+    // Guards the sample window and baseline; each sampled request takes it
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile double limit;
+    private long baselineNanos;
+    private long windowsUntilProbe;
+
+    private final long[] windowLatencies = new long[WINDOW_SIZE];
+    private int windowSamples;
+    private int windowMaxInFlight;
+    private boolean windowDropped;
+
+    public VegasLimit(int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit < 1 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= initial <= max");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = initialLimit;
+        this.windowsUntilProbe = nextProbe(initialLimit);
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * Records one completed request.
+     *
+     * @param latencyNanos how long the request took
+     * @param inFlight     requests in flight when it started, itself included
+     * @param dropped      whether the backend gave up on it (timeout, no connection)
+     */
+    public void onSample(long latencyNanos, int inFlight, boolean dropped) {
+        if (latencyNanos <= 0) {
+            return;
+        }
+        lock.lock();
+        try {
+            windowLatencies[windowSamples++] = latencyNanos;
+            windowMaxInFlight = Math.max(windowMaxInFlight, inFlight);
+            windowDropped |= dropped;
+            if (windowSamples == WINDOW_SIZE) {
+                Arrays.sort(windowLatencies);
+                update(windowLatencies[WINDOW_SIZE / 2], windowMaxInFlight, windowDropped);
+                windowSamples = 0;
+                windowMaxInFlight = 0;
+                windowDropped = false;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void update(long latencyNanos, int inFlight, boolean dropped) {
+        if (--windowsUntilProbe <= 0) {
+            baselineNanos = 0;
+            windowsUntilProbe = nextProbe(limit);
+        }
+        if (baselineNanos == 0 || latencyNanos < baselineNanos) {
+            baselineNanos = latencyNanos;
+            return;
+        }
+
+        double current = limit;
+        double step = Math.max(1.0, Math.log10(current));
+        double next;
+        if (dropped) {
+            next = current - step;
+        } else if (inFlight * 2 < current) {
+            // Far below the limit; latency says nothing about whether more would fit
+            return;
+        } else {
+            double queued = current * (1.0 - (double) baselineNanos / latencyNanos);
+            double alpha = 3 * step;
+            double beta = 6 * step;
+            if (queued <= step) {
+                next = current + beta;
+            } else if (queued < alpha) {
+                next = current + step;
+            } else if (queued > beta) {
+                next = current - step;
+            } else {
+                return;
+            }
+        }
+        limit = Math.min(maxLimit, Math.max(minLimit, next));
+    }
+
+    private static long nextProbe(double limit) {
+        // Jittered so replicas restarted together do not probe in lockstep
+        return (long) (PROBE_MULTIPLIER * limit / WINDOW_SIZE * ThreadLocalRandom.current().nextDouble(0.5, 1.0))
+                + 1;
+    }
+}
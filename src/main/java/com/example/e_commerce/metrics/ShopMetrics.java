@@ -0,0 +1,69 @@
+package com.example.e_commerce.metrics;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.e_commerce.event.OrderCreatedEvent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Business counters and distributions: orders created, items and value per order,
+ * and catalog search outcomes. Orders are counted only once their transaction
+ * has committed.
+ */
+@Component
+public class ShopMetrics {
+
+    private final Counter ordersCreated;
+    private final DistributionSummary orderItems;
+    private final DistributionSummary orderValue;
+    private final Counter searchesWithHits;
+    private final Counter searchesWithoutHits;
+    private final DistributionSummary searchHits;
+
+    public ShopMetrics(MeterRegistry registry) {
+        this.ordersCreated = Counter.builder("shop.orders.created")
+                .description("Orders created")
+                .register(registry);
+        this.orderItems = DistributionSummary.builder("shop.order.items")
+                .description("Line items per created order")
+                .baseUnit("items")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1.0)
+                .maximumExpectedValue(500.0)
+                .register(registry);
+        this.orderValue = DistributionSummary.builder("shop.order.value")
+                .description("Total amount per created order")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1.0)
+                .maximumExpectedValue(100_000.0)
+                .register(registry);
+        this.searchesWithHits = Counter.builder("shop.product.searches")
+                .description("Catalog searches by outcome")
+                .tag("outcome", "hit")
+                .register(registry);
+        this.searchesWithoutHits = Counter.builder("shop.product.searches")
+                .description("Catalog searches by outcome")
+                .tag("outcome", "empty")
+                .register(registry);
+        this.searchHits = DistributionSummary.builder("shop.product.search.hits")
+                .description("Matching products per catalog search")
+                .baseUnit("products")
+                .register(registry);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderCreated(OrderCreatedEvent event) {
+        ordersCreated.increment();
+        orderItems.record(event.getItemCount());
+        orderValue.record(event.getTotalAmount().doubleValue());
+    }
+
+    public void recordSearch(long hits) {
+        (hits > 0 ? searchesWithHits : searchesWithoutHits).increment();
+        searchHits.record(hits);
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.e_commerce.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * One row per background job that must not run on two instances at once. A job
+ * holds its row locked ({@code SELECT ... FOR UPDATE}) for as long as it runs.
+ */
+@Entity
+@Table(name = "job_locks")
+public class JobLock {
+    @Id
+    @Column(length = 100)
+    private String name;
+
+    public JobLock() {
+    }
+
+    public String getName() {
+        return name;
+    }
+}
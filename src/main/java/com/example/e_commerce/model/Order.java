@@ -4,26 +4,34 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_user_id_id", columnList = "user_id, id"),
+        @Index(name = "idx_orders_order_date", columnList = "order_date") })
 public class Order {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Sequence ids (not IDENTITY) let Hibernate batch the order and item inserts
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
@@ -35,6 +43,10 @@ public class Order {
 
     private String status; // PENDING, COMPLETED, CANCELLED
 
+    // Set for orders submitted through asynchronous ingestion; makes log replay idempotent
+    @Column(name = "ingestion_id", unique = true, updatable = false)
+    private UUID ingestionId;
+
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<OrderItem> orderItems = new ArrayList<>();
 
@@ -81,6 +93,14 @@ public class Order {
         this.status = status;
     }
 
+    public UUID getIngestionId() {
+        return ingestionId;
+    }
+
+    public void setIngestionId(UUID ingestionId) {
+        this.ingestionId = ingestionId;
+    }
+
     public List<OrderItem> getOrderItems() {
         return orderItems;
     }
@@ -1,12 +1,18 @@
 package com.example.e_commerce.model;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 @Entity
 @Table(name = "products")
@@ -21,6 +27,23 @@ public class Product {
     private BigDecimal price;
     private String imageUrl;
 
+    // Only changed through InventoryService's conditional updates, never by saving the entity.
+    // Null means stock is not tracked: products created without a quantity, and those that
+    // existed before the column, stay on sale until their stock is first set
+    @Column(name = "stock_quantity", updatable = false)
+    private Integer stockQuantity;
+
+    // Bumped by every update that changes the product; stock changes do not touch it
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    @UpdateTimestamp
+    @ColumnDefault("CURRENT_TIMESTAMP")
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
     // Default constructor (required by JPA)
     public Product() {}
     
@@ -46,4 +69,13 @@ public class Product {
     
     public String getImageUrl() { return imageUrl; }
     public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; }
+
+    public Integer getStockQuantity() { return stockQuantity; }
+    public void setStockQuantity(Integer stockQuantity) { this.stockQuantity = stockQuantity; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
+    public Instant getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(Instant updatedAt) { this.updatedAt = updatedAt; }
 }
\ No newline at end of file
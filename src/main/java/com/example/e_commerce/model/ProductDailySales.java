@@ -0,0 +1,81 @@
+package com.example.e_commerce.model;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+
+/**
+ * Sales of one product on one day. Maintained by the sales rollup job; the product
+ * id is kept without a foreign key so rollups outlive deleted products.
+ */
+@Entity
+@Table(name = "sales_product_daily")
+@IdClass(ProductDailySales.Key.class)
+public class ProductDailySales {
+    @Id
+    @Column(name = "sale_date")
+    private LocalDate saleDate;
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    // Orders containing the product, however many lines it had in each
+    @Column(nullable = false)
+    private long orders;
+
+    @Column(nullable = false)
+    private long units;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal revenue;
+
+    public ProductDailySales() {
+    }
+
+    public LocalDate getSaleDate() {
+        return saleDate;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public long getOrders() {
+        return orders;
+    }
+
+    public long getUnits() {
+        return units;
+    }
+
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+
+    public static class Key implements Serializable {
+        private LocalDate saleDate;
+        private Long productId;
+
+        public Key() {
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key other && Objects.equals(saleDate, other.saleDate)
+                    && Objects.equals(productId, other.productId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(saleDate, productId);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.e_commerce.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+
+/**
+ * An order change not yet folded into the sales rollups. Written in the same
+ * transaction as the change itself and deleted once the rollup job has applied it.
+ */
+@Entity
+@Table(name = "sales_rollup_changes")
+public class SalesRollupChange {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sales_rollup_changes_seq")
+    @SequenceGenerator(name = "sales_rollup_changes_seq", sequenceName = "sales_rollup_changes_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    // Null when the change is the order's creation
+    @Column(name = "from_status")
+    private String fromStatus;
+
+    @Column(name = "to_status", nullable = false)
+    private String toStatus;
+
+    public SalesRollupChange() {
+    }
+
+    public SalesRollupChange(Long orderId, String fromStatus, String toStatus) {
+        this.orderId = orderId;
+        this.fromStatus = fromStatus;
+        this.toStatus = toStatus;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public String getFromStatus() {
+        return fromStatus;
+    }
+
+    public String getToStatus() {
+        return toStatus;
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.e_commerce.model;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+
+/**
+ * Orders placed on one day by their current status. Maintained by the sales rollup
+ * job: a status change moves the order from one row to another.
+ */
+@Entity
+@Table(name = "sales_status_daily")
+@IdClass(StatusDailySales.Key.class)
+public class StatusDailySales {
+    @Id
+    @Column(name = "sale_date")
+    private LocalDate saleDate;
+
+    @Id
+    @Column(name = "status")
+    private String status;
+
+    @Column(nullable = false)
+    private long orders;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal revenue;
+
+    public StatusDailySales() {
+    }
+
+    public LocalDate getSaleDate() {
+        return saleDate;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public long getOrders() {
+        return orders;
+    }
+
+    public BigDecimal getRevenue() {
+        return revenue;
+    }
+
+    public static class Key implements Serializable {
+        private LocalDate saleDate;
+        private String status;
+
+        public Key() {
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key other && Objects.equals(saleDate, other.saleDate)
+                    && Objects.equals(status, other.status);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(saleDate, status);
+        }
+    }
+}
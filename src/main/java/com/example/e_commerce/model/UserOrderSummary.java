@@ -0,0 +1,52 @@
+package com.example.e_commerce.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * A user's order count, lifetime spend and last order date, kept up to date by
+ * every order creation and status change so the account page need not read the
+ * orders. Created on the user's first order write after it was introduced.
+ */
+@Entity
+@Table(name = "user_order_summaries")
+public class UserOrderSummary {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    // Every order placed, cancelled ones included
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+
+    // Total of the orders that are not cancelled
+    @Column(name = "lifetime_spend", nullable = false, precision = 19, scale = 2)
+    private BigDecimal lifetimeSpend;
+
+    @Column(name = "last_order_date")
+    private LocalDateTime lastOrderDate;
+
+    public UserOrderSummary() {
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public long getOrderCount() {
+        return orderCount;
+    }
+
+    public BigDecimal getLifetimeSpend() {
+        return lifetimeSpend;
+    }
+
+    public LocalDateTime getLastOrderDate() {
+        return lastOrderDate;
+    }
+}
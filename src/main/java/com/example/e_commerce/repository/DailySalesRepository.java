@@ -0,0 +1,16 @@
+package com.example.e_commerce.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.example.e_commerce.dto.DailySalesView;
+import com.example.e_commerce.model.DailySales;
+
+@Repository
+public interface DailySalesRepository extends JpaRepository<DailySales, LocalDate> {
+
+    List<DailySalesView> findBySaleDateBetweenOrderBySaleDate(LocalDate from, LocalDate to);
+}
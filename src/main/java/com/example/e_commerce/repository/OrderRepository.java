@@ -1,13 +1,81 @@
 package com.example.e_commerce.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 
+import com.example.e_commerce.dto.OrderLineView;
+import com.example.e_commerce.dto.OrderTotalsView;
 import com.example.e_commerce.model.Order;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
+
+    String ORDER_LINE_SELECT = "select o.id as orderId, o.user.id as userId, o.orderDate as orderDate, "
+            + "o.totalAmount as totalAmount, o.status as status, p.id as productId, p.name as productName, "
+            + "i.quantity as quantity, i.price as price "
+            + "from Order o left join o.orderItems i left join i.product p ";
+
+    // Fetches the whole aggregate in one query for callers that need managed entities
+    @EntityGraph(attributePaths = { "user", "orderItems", "orderItems.product" })
     List<Order> findByUserId(Long userId);
+
+    // Row lock held until commit, so concurrent status changes of one order run one after the other
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select o from Order o where o.id = :id")
+    Optional<Order> findByIdForUpdate(@Param("id") Long id);
+
+    // Keyset pages of order ids, newest first; each page is an index seek below the cursor id
+    @Query("select o.id from Order o order by o.id desc")
+    List<Long> findPageIds(Limit limit);
+
+    @Query("select o.id from Order o where o.id < :before order by o.id desc")
+    List<Long> findPageIdsBefore(@Param("before") Long before, Limit limit);
+
+    @Query("select o.id from Order o where o.user.id = :userId order by o.id desc")
+    List<Long> findPageIdsByUserId(@Param("userId") Long userId, Limit limit);
+
+    @Query("select o.id from Order o where o.user.id = :userId and o.id < :before order by o.id desc")
+    List<Long> findPageIdsByUserIdBefore(@Param("userId") Long userId, @Param("before") Long before, Limit limit);
+
+    // Projection variants read orders straight into DTO rows without managed entities
+    @Query(ORDER_LINE_SELECT + "where o.id in :ids order by o.id desc, i.id")
+    List<OrderLineView> findOrderLinesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Full scan of the user's orders; only used to seed a missing order summary
+    @Query("select count(o) as orderCount, "
+            + "coalesce(sum(case when o.status <> 'CANCELLED' then o.totalAmount else 0 end), 0) as lifetimeSpend, "
+            + "max(o.orderDate) as lastOrderDate from Order o where o.user.id = :userId")
+    OrderTotalsView sumByUserId(@Param("userId") Long userId);
+
+    // Orders already persisted for the given ingestion ids, as (ingestionId, id) pairs
+    @Query("select o.ingestionId, o.id from Order o where o.ingestionId in :ingestionIds")
+    List<Object[]> findIdsByIngestionIdIn(@Param("ingestionIds") Collection<UUID> ingestionIds);
+
+    @Query("select o.id from Order o where o.ingestionId = :ingestionId")
+    Optional<Long> findIdByIngestionId(@Param("ingestionId") UUID ingestionId);
+
+    // Server-side cursor for exports; must be consumed inside a transaction and closed.
+    // Ordered along idx_orders_order_date, so rows stream without sorting the range first
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+    @Query(ORDER_LINE_SELECT + "where o.orderDate >= :from and o.orderDate < :to "
+            + "order by o.orderDate, o.id, i.id")
+    Stream<OrderLineView> streamOrderLines(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 }
@@ -0,0 +1,25 @@
+package com.example.e_commerce.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.e_commerce.dto.ProductSalesView;
+import com.example.e_commerce.model.ProductDailySales;
+
+@Repository
+public interface ProductDailySalesRepository extends JpaRepository<ProductDailySales, ProductDailySales.Key> {
+
+    // Best sellers by revenue over the range; deleted products keep their sales but lose their name
+    @Query("select s.productId as productId, p.name as productName, sum(s.orders) as orders, "
+            + "sum(s.units) as units, sum(s.revenue) as revenue "
+            + "from ProductDailySales s left join Product p on p.id = s.productId "
+            + "where s.saleDate between :from and :to "
+            + "group by s.productId, p.name order by sum(s.revenue) desc, s.productId")
+    List<ProductSalesView> findTopProducts(@Param("from") LocalDate from, @Param("to") LocalDate to, Limit limit);
+}
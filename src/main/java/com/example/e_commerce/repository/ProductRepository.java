@@ -1,14 +1,34 @@
 package com.example.e_commerce.repository;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import com.example.e_commerce.dto.ProductVersionView;
 import com.example.e_commerce.model.Product;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
-    // This is empty, but it inherits powerful methods automatically.
-    List<Product> findByNameContainingIgnoreCase(String keyword);
-    List<Product> findByPriceBetween(Double minPrice, Double maxPrice);
+    // Keyset chunks in id order, used to load the whole catalog into in-memory indexes
+    List<Product> findAllByOrderByIdAsc(Limit limit);
+
+    List<Product> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    // Validators only, for conditional GETs; the same rows and order as findAll(pageable)
+    @Query("select p.id as id, p.version as version, p.updatedAt as updatedAt from Product p where p.id = :id")
+    Optional<ProductVersionView> findVersionById(Long id);
+
+    @Query(value = "select p.id as id, p.version as version, p.updatedAt as updatedAt from Product p",
+            countQuery = "select count(p) from Product p")
+    Page<ProductVersionView> findVersions(Pageable pageable);
+
+    // Keyset chunks of every product's version in id order, to reconcile a catalog snapshot
+    @Query("select p.id as id, p.version as version, p.updatedAt as updatedAt from Product p "
+            + "where p.id > :id order by p.id")
+    List<ProductVersionView> findVersionsAfter(Long id, Limit limit);
 }
\ No newline at end of file
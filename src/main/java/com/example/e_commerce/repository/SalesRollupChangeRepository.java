@@ -0,0 +1,10 @@
+package com.example.e_commerce.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.example.e_commerce.model.SalesRollupChange;
+
+@Repository
+public interface SalesRollupChangeRepository extends JpaRepository<SalesRollupChange, Long> {
+}
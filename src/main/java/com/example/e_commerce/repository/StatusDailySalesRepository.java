@@ -0,0 +1,21 @@
+package com.example.e_commerce.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.example.e_commerce.dto.StatusSalesView;
+import com.example.e_commerce.model.StatusDailySales;
+
+@Repository
+public interface StatusDailySalesRepository extends JpaRepository<StatusDailySales, StatusDailySales.Key> {
+
+    @Query("select s.status as status, sum(s.orders) as orders, sum(s.revenue) as revenue "
+            + "from StatusDailySales s where s.saleDate between :from and :to "
+            + "group by s.status order by s.status")
+    List<StatusSalesView> findStatusTotals(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
@@ -1,8 +1,32 @@
 package com.example.e_commerce.repository;
 
+import java.util.List;
+import java.util.Optional;
+
 import com.example.e_commerce.model.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface UserRepository extends JpaRepository<User, Long> {
-    
+
+    // Keyset pages in id order; each page is an index seek above the cursor id
+    List<User> findAllByOrderByIdAsc(Limit limit);
+
+    List<User> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    // A user without a password reads as an empty hash rather than as a missing user
+    @Query("select coalesce(u.password, '') from User u where u.id = :id")
+    Optional<String> findPasswordById(@Param("id") Long id);
+
+    // Compare-and-set on the hash read before hashing ran outside the transaction;
+    // returns 0 when the row is gone or its password changed in between
+    @Modifying
+    @Query("update User u set u.name = :name, u.email = :email, u.password = :password "
+            + "where u.id = :id and coalesce(u.password, '') = :expectedPassword")
+    int updateIfPasswordUnchanged(@Param("id") Long id, @Param("name") String name,
+            @Param("email") String email, @Param("password") String password,
+            @Param("expectedPassword") String expectedPassword);
 }
@@ -0,0 +1,136 @@
+package com.example.e_commerce.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.e_commerce.dto.OrderRequest;
+import com.example.e_commerce.dto.StockResponse;
+import com.example.e_commerce.exception.BadRequestException;
+import com.example.e_commerce.exception.InsufficientStockException;
+import com.example.e_commerce.exception.ResourceNotFoundException;
+
+/**
+ * Product stock, reserved with conditional updates rather than read-modify-write.
+ * Each line is {@code stock_quantity = stock_quantity - ? WHERE stock_quantity >= ?},
+ * so the database checks and decrements in one step under the row lock and stock can
+ * never go below zero. The row lock is held until the caller's transaction commits,
+ * so concurrent checkouts on the same product queue for the rest of that transaction.
+ * Lines are always sent in product id order, so two transactions that each reserve
+ * once lock shared products in the same order and cannot deadlock. A transaction
+ * that reserves several times, like an order batch, must sum its quantities into a
+ * single call to keep that guarantee.
+ *
+ * <p>A product whose {@code stock_quantity} is null does not track stock: reserving
+ * always succeeds and leaves it null, until {@link #setStock} gives it a quantity.
+ */
+@Service
+public class InventoryService {
+
+    private static final String RESERVE_SQL =
+            "UPDATE products SET stock_quantity = stock_quantity - ? "
+                    + "WHERE id = ? AND (stock_quantity IS NULL OR stock_quantity >= ?)";
+    private static final String RELEASE_SQL =
+            "UPDATE products SET stock_quantity = stock_quantity + ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public InventoryService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Total quantity per product for the order's items, in product id order.
+     */
+    public static SortedMap<Long, Integer> quantitiesByProduct(List<OrderRequest.OrderItemRequest> items) {
+        SortedMap<Long, Integer> quantities = new TreeMap<>();
+        for (OrderRequest.OrderItemRequest item : items) {
+            quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        return quantities;
+    }
+
+    /**
+     * Takes the given quantities out of stock, all or nothing. Runs in the caller's
+     * transaction; if any product is short, the lines already taken are put back
+     * before {@link InsufficientStockException} is thrown, so the caller may carry
+     * on with the same transaction. Quantities must be positive: a negative one
+     * would pass the stock check and add stock.
+     */
+    public void reserve(SortedMap<Long, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return;
+        }
+        quantities.forEach((productId, quantity) -> {
+            if (quantity == null || quantity < 1) {
+                throw new BadRequestException("Quantity must be at least 1 for product " + productId);
+            }
+        });
+        List<Map.Entry<Long, Integer>> lines = new ArrayList<>(quantities.entrySet());
+        int[][] counts = jdbcTemplate.batchUpdate(RESERVE_SQL, lines, lines.size(), (statement, line) -> {
+            statement.setInt(1, line.getValue());
+            statement.setLong(2, line.getKey());
+            statement.setInt(3, line.getValue());
+        });
+
+        List<Long> shortProducts = new ArrayList<>();
+        List<Map.Entry<Long, Integer>> reserved = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            if (counts[0][i] == 0) {
+                shortProducts.add(lines.get(i).getKey());
+            } else {
+                reserved.add(lines.get(i));
+            }
+        }
+        if (!shortProducts.isEmpty()) {
+            release(reserved);
+            throw new InsufficientStockException(shortProducts);
+        }
+    }
+
+    /**
+     * Puts quantities back into stock, e.g. when an order is cancelled.
+     */
+    public void release(SortedMap<Long, Integer> quantities) {
+        release(new ArrayList<>(quantities.entrySet()));
+    }
+
+    private void release(List<Map.Entry<Long, Integer>> lines) {
+        if (lines.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(RELEASE_SQL, lines, lines.size(), (statement, line) -> {
+            statement.setInt(1, line.getValue());
+            statement.setLong(2, line.getKey());
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public StockResponse getStock(Long productId) {
+        List<Integer> quantity = jdbcTemplate.queryForList(
+                "SELECT stock_quantity FROM products WHERE id = ?", Integer.class, productId);
+        if (quantity.isEmpty()) {
+            throw new ResourceNotFoundException("Product not found with id: " + productId);
+        }
+        return new StockResponse(productId, quantity.get(0));
+    }
+
+    /**
+     * Sets the stock to an absolute quantity, e.g. after a stock take. Reservations
+     * made before this call are not added back.
+     */
+    @Transactional
+    public StockResponse setStock(Long productId, int quantity) {
+        int updated = jdbcTemplate.update("UPDATE products SET stock_quantity = ? WHERE id = ?", quantity, productId);
+        if (updated == 0) {
+            throw new ResourceNotFoundException("Product not found with id: " + productId);
+        }
+        return new StockResponse(productId, quantity);
+    }
+}
@@ -0,0 +1,271 @@
+package com.example.e_commerce.service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.e_commerce.dto.BatchOrderResponse;
+import com.example.e_commerce.dto.OrderRequest;
+import com.example.e_commerce.event.OrderCreatedEvent;
+import com.example.e_commerce.exception.BadRequestException;
+import com.example.e_commerce.exception.InsufficientStockException;
+import com.example.e_commerce.model.Order;
+import com.example.e_commerce.model.OrderItem;
+import com.example.e_commerce.model.Product;
+import com.example.e_commerce.model.User;
+import com.example.e_commerce.repository.OrderRepository;
+import com.example.e_commerce.repository.ProductRepository;
+import com.example.e_commerce.repository.UserRepository;
+
+/**
+ * Creates many orders in one call. Every referenced user and product is loaded with
+ * one query each, and all orders and items are inserted in JDBC batches within one
+ * transaction. Orders that fail validation or reference unknown ids are reported
+ * and skipped. Stock for the whole batch is reserved in one pass in product id
+ * order, the order checkouts lock products in, so the batch cannot deadlock with
+ * them while it holds those rows until commit. If any product is short, or the
+ * batch transaction fails, the orders are placed one transaction each instead, so
+ * a single bad order cannot fail the rest.
+ */
+@Service
+public class OrderBatchService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderBatchService.class);
+
+    private final OrderRepository orderRepository;
+    private final UserRepository userRepository;
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final InventoryService inventoryService;
+    private final int maxBatchSize;
+
+    public OrderBatchService(OrderRepository orderRepository, UserRepository userRepository,
+            ProductRepository productRepository, PlatformTransactionManager transactionManager,
+            ApplicationEventPublisher eventPublisher, InventoryService inventoryService,
+            @Value("${app.orders.batch.max-size:1000}") int maxBatchSize) {
+        this.orderRepository = orderRepository;
+        this.userRepository = userRepository;
+        this.productRepository = productRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.inventoryService = inventoryService;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public BatchOrderResponse createOrders(List<OrderRequest> requests) {
+        return createOrders(requests, null, null);
+    }
+
+    /**
+     * Same as {@link #createOrders(List)}, storing {@code ingestionIds.get(i)} on the
+     * order created for {@code requests.get(i)} and dating it {@code acceptedAt.get(i)},
+     * when it was accepted rather than when it reached the database. If the database
+     * cannot be reached at all, the exception is thrown instead of failing every order,
+     * so the caller can retry the batch later.
+     */
+    public BatchOrderResponse createOrders(List<OrderRequest> requests, List<UUID> ingestionIds,
+            List<Instant> acceptedAt) {
+        if (requests == null || requests.isEmpty()) {
+            throw new BadRequestException("At least one order is required");
+        }
+        if (requests.size() > maxBatchSize) {
+            throw new BadRequestException("At most " + maxBatchSize + " orders can be submitted per batch");
+        }
+
+        BatchOrderResponse.Result[] results = new BatchOrderResponse.Result[requests.size()];
+        List<Integer> candidates = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            String problem = OrderRequestValidator.validate(requests.get(i));
+            if (problem != null) {
+                results[i] = BatchOrderResponse.Result.failed(i, problem);
+            } else {
+                candidates.add(i);
+            }
+        }
+
+        if (!candidates.isEmpty()) {
+            References references = new References(ingestionIds, acceptedAt);
+            try {
+                transactionTemplate.executeWithoutResult(status -> saveAll(requests, candidates, references, results));
+            } catch (InsufficientStockException e) {
+                log.debug("Order batch of {} is short of stock, placing orders individually", candidates.size());
+                saveIndividually(requests, candidates, references, results);
+            } catch (RuntimeException batchFailure) {
+                log.warn("Order batch of {} failed, retrying orders individually: {}", candidates.size(),
+                        NestedExceptionUtils.getMostSpecificCause(batchFailure).getMessage());
+                saveIndividually(requests, candidates, references, results);
+            }
+        }
+        return new BatchOrderResponse(List.of(results));
+    }
+
+    private void saveAll(List<OrderRequest> requests, List<Integer> candidates, References references,
+            BatchOrderResponse.Result[] results) {
+        references.load(candidates.stream().map(requests::get).toList());
+
+        List<Integer> built = new ArrayList<>();
+        List<OrderRequest.OrderItemRequest> items = new ArrayList<>();
+        for (Integer index : candidates) {
+            String missing = references.findMissing(requests.get(index));
+            if (missing != null) {
+                results[index] = BatchOrderResponse.Result.failed(index, missing);
+            } else {
+                built.add(index);
+                items.addAll(requests.get(index).getItems());
+            }
+        }
+        // Throws without reserving anything if any product is short
+        inventoryService.reserve(InventoryService.quantitiesByProduct(items));
+
+        List<Order> orders = new ArrayList<>();
+        for (Integer index : built) {
+            orders.add(references.build(index, requests.get(index)));
+        }
+
+        // Sequence ids and hibernate.jdbc.batch_size turn this into a few batched inserts
+        orderRepository.saveAll(orders);
+        for (int i = 0; i < orders.size(); i++) {
+            Order order = orders.get(i);
+            results[built.get(i)] = BatchOrderResponse.Result.created(built.get(i), OrderService.mapToResponse(order));
+            publishCreated(order);
+        }
+    }
+
+    private void saveIndividually(List<OrderRequest> requests, List<Integer> candidates, References references,
+            BatchOrderResponse.Result[] results) {
+        if (!references.isLoaded()) {
+            transactionTemplate.executeWithoutResult(
+                    status -> references.load(candidates.stream().map(requests::get).toList()));
+        }
+        for (Integer index : candidates) {
+            OrderRequest request = requests.get(index);
+            try {
+                results[index] = transactionTemplate.execute(status -> {
+                    String missing = references.findMissingOrReserve(request);
+                    if (missing != null) {
+                        return BatchOrderResponse.Result.failed(index, missing);
+                    }
+                    Order order = orderRepository.save(references.build(index, request));
+                    publishCreated(order);
+                    return BatchOrderResponse.Result.created(index, OrderService.mapToResponse(order));
+                });
+            } catch (CannotCreateTransactionException e) {
+                // No connection: the order itself is not at fault
+                throw e;
+            } catch (RuntimeException e) {
+                results[index] = BatchOrderResponse.Result.failed(index,
+                        "Order could not be saved: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            }
+        }
+    }
+
+    private void publishCreated(Order order) {
+        eventPublisher.publishEvent(OrderCreatedEvent.of(order));
+    }
+
+    /**
+     * Users and products referenced by the batch, loaded once. After a failed batch
+     * transaction they are detached, which is fine: new orders only need them as
+     * foreign key references and for the names in the response.
+     */
+    private final class References {
+        private final List<UUID> ingestionIds;
+        private final List<Instant> acceptedAt;
+        private Map<Long, User> users;
+        private Map<Long, Product> products;
+
+        References(List<UUID> ingestionIds, List<Instant> acceptedAt) {
+            this.ingestionIds = ingestionIds;
+            this.acceptedAt = acceptedAt;
+        }
+
+        boolean isLoaded() {
+            return users != null;
+        }
+
+        void load(List<OrderRequest> requests) {
+            Set<Long> userIds = new HashSet<>();
+            Set<Long> productIds = new HashSet<>();
+            for (OrderRequest request : requests) {
+                userIds.add(request.getUserId());
+                request.getItems().forEach(item -> productIds.add(item.getProductId()));
+            }
+            users = userRepository.findAllById(userIds).stream()
+                    .collect(Collectors.toMap(User::getId, Function.identity()));
+            products = productRepository.findAllById(productIds).stream()
+                    .collect(Collectors.toMap(Product::getId, Function.identity()));
+        }
+
+        /**
+         * Reason the order references an unknown user or product, or null.
+         */
+        String findMissing(OrderRequest request) {
+            if (!users.containsKey(request.getUserId())) {
+                return "User not found with id: " + request.getUserId();
+            }
+            for (OrderRequest.OrderItemRequest item : request.getItems()) {
+                if (!products.containsKey(item.getProductId())) {
+                    return "Product not found with id: " + item.getProductId();
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Reason the order cannot be placed, or null once its stock is reserved.
+         */
+        String findMissingOrReserve(OrderRequest request) {
+            String missing = findMissing(request);
+            if (missing != null) {
+                return missing;
+            }
+            try {
+                inventoryService.reserve(InventoryService.quantitiesByProduct(request.getItems()));
+            } catch (InsufficientStockException e) {
+                return e.getMessage();
+            }
+            return null;
+        }
+
+        Order build(int index, OrderRequest request) {
+            Order order = new Order();
+            order.setUser(users.get(request.getUserId()));
+            if (ingestionIds != null) {
+                order.setIngestionId(ingestionIds.get(index));
+            }
+            order.setOrderDate(acceptedAt != null
+                    ? LocalDateTime.ofInstant(acceptedAt.get(index), ZoneId.systemDefault())
+                    : LocalDateTime.now());
+            order.setStatus("PENDING");
+            for (OrderRequest.OrderItemRequest itemRequest : request.getItems()) {
+                Product product = products.get(itemRequest.getProductId());
+                OrderItem orderItem = new OrderItem();
+                orderItem.setProduct(product);
+                orderItem.setQuantity(itemRequest.getQuantity());
+                orderItem.setPrice(product.getPrice()); // Snapshot price
+                order.addOrderItem(orderItem);
+            }
+            order.setTotalAmount(OrderService.calculateTotal(order.getOrderItems()));
+            return order;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.e_commerce.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import com.example.e_commerce.dto.OrderLineView;
+import com.example.e_commerce.dto.OrderResponse;
+import com.example.e_commerce.repository.OrderRepository;
+
+@Service
+public class OrderExportService {
+
+    private final OrderRepository orderRepository;
+    private final ObjectWriter orderWriter;
+
+    public OrderExportService(OrderRepository orderRepository, ObjectMapper objectMapper) {
+        this.orderRepository = orderRepository;
+        this.orderWriter = objectMapper.writerFor(OrderResponse.class);
+    }
+
+    /**
+     * Writes every order placed in [from, to) to the stream as newline-delimited JSON.
+     * Rows come from a server-side cursor as DTO projections, so neither the result
+     * set nor the persistence context grows with the size of the export.
+     */
+    @Transactional(readOnly = true)
+    public long exportOrders(LocalDateTime from, LocalDateTime to, OutputStream out) throws IOException {
+        long exported = 0;
+        try (Stream<OrderLineView> lines = orderRepository.streamOrderLines(from, to)) {
+            OrderResponse current = null;
+            for (Iterator<OrderLineView> it = lines.iterator(); it.hasNext();) {
+                OrderLineView line = it.next();
+                if (current == null || !current.getId().equals(line.getOrderId())) {
+                    if (current != null) {
+                        writeLine(current, out);
+                        exported++;
+                    }
+                    current = new OrderResponse(
+                            line.getOrderId(),
+                            line.getUserId(),
+                            line.getOrderDate(),
+                            line.getTotalAmount(),
+                            line.getStatus(),
+                            new ArrayList<>());
+                }
+                if (line.getProductId() != null) {
+                    current.getItems().add(OrderService.toItemResponse(line));
+                }
+            }
+            if (current != null) {
+                writeLine(current, out);
+                exported++;
+            }
+        }
+        out.flush();
+        return exported;
+    }
+
+    private void writeLine(OrderResponse order, OutputStream out) throws IOException {
+        out.write(orderWriter.writeValueAsBytes(order));
+        out.write('\n');
+    }
+}
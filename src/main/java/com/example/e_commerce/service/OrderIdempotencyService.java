@@ -0,0 +1,234 @@
+package com.example.e_commerce.service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.e_commerce.dto.OrderRequest;
+import com.example.e_commerce.dto.OrderResponse;
+import com.example.e_commerce.exception.BadRequestException;
+import com.example.e_commerce.exception.IdempotencyKeyReusedException;
+import com.example.e_commerce.model.IdempotencyRecord;
+import com.example.e_commerce.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+/**
+ * Runs {@link OrderService#createOrder} at most once per Idempotency-Key. A repeated
+ * key gets the response stored for the first request, found in a bounded local
+ * cache or else in the {@code idempotency_keys} table, without touching users or
+ * products. Requests with the same key arriving together on one instance wait for
+ * a single execution; across instances the table's primary key decides, and the
+ * losing transaction, order included, is rolled back.
+ *
+ * <p>Only successful responses are stored. A request that fails can be retried
+ * with the same key.
+ */
+@Service
+public class OrderIdempotencyService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderIdempotencyService.class);
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    /**
+     * The order for the key, and whether it came from an earlier request.
+     */
+    public record Result(OrderResponse order, boolean replayed) {
+    }
+
+    private record Stored(String requestHash, OrderResponse order, LocalDateTime expiresAt) {
+    }
+
+    private record InFlight(String requestHash, CompletableFuture<OrderResponse> result) {
+    }
+
+    private final OrderService orderService;
+    private final IdempotencyRecordRepository repository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration ttl;
+    private final Cache<String, Stored> cache;
+    private final ConcurrentHashMap<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    public OrderIdempotencyService(OrderService orderService, IdempotencyRecordRepository repository,
+            ObjectMapper objectMapper, PlatformTransactionManager transactionManager,
+            @Value("${app.orders.idempotency.ttl:24h}") Duration ttl,
+            @Value("${app.orders.idempotency.cache-size:10000}") long cacheSize) {
+        this.orderService = orderService;
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttl = ttl;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfter(new UntilRecordExpires())
+                .build();
+    }
+
+    public Result createOrder(String key, OrderRequest request) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        String requestHash = hash(request);
+
+        Stored stored = cache.getIfPresent(key);
+        if (stored != null) {
+            return replay(key, requestHash, stored);
+        }
+
+        CompletableFuture<OrderResponse> mine = new CompletableFuture<>();
+        InFlight running = inFlight.putIfAbsent(key, new InFlight(requestHash, mine));
+        if (running != null) {
+            checkSameRequest(key, requestHash, running.requestHash());
+            return new Result(await(running.result()), true);
+        }
+
+        try {
+            Result result = execute(key, requestHash, request);
+            mine.complete(result.order());
+            return result;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.orders.idempotency.cleanup-interval:1h}")
+    @Transactional
+    public void deleteExpired() {
+        int deleted = repository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.debug("Deleted {} expired idempotency keys", deleted);
+        }
+    }
+
+    private Result execute(String key, String requestHash, OrderRequest request) {
+        Optional<Stored> existing = findStored(key);
+        if (existing.isPresent()) {
+            return replay(key, requestHash, existing.get());
+        }
+
+        Stored created;
+        try {
+            created = transactionTemplate.execute(status -> {
+                OrderResponse order = orderService.createOrder(request);
+                LocalDateTime now = LocalDateTime.now();
+                repository.deleteExpiredKey(key, now);
+                IdempotencyRecord record = repository.saveAndFlush(new IdempotencyRecord(key, requestHash,
+                        order.getId(), toJson(order), now, now.plus(ttl)));
+                return new Stored(requestHash, order, record.getExpiresAt());
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Another instance stored this key first; its order stands and this one was rolled back
+            Stored winner = findStored(key).orElseThrow(() -> e);
+            return replay(key, requestHash, winner);
+        }
+        cache.put(key, created);
+        return new Result(created.order(), false);
+    }
+
+    // Read from the primary: a key that a lagging replica has not seen yet would run
+    // the order again, only for its record to collide with the stored one
+    private Optional<Stored> findStored(String key) {
+        return transactionTemplate.execute(status -> repository.findByKeyAndExpiresAtAfter(key, LocalDateTime.now()))
+                .map(record -> {
+                    Stored stored = new Stored(record.getRequestHash(), fromJson(record.getResponseBody()),
+                            record.getExpiresAt());
+                    cache.put(key, stored);
+                    return stored;
+                });
+    }
+
+    /**
+     * Keeps a cached response until its record's {@code expiresAt}, not for a full TTL
+     * from the lookup, so this instance stops replaying a key when the table and the
+     * other instances do.
+     */
+    private static final class UntilRecordExpires implements Expiry<String, Stored> {
+
+        @Override
+        public long expireAfterCreate(String key, Stored stored, long currentTime) {
+            return Math.max(0, Duration.between(LocalDateTime.now(), stored.expiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Stored stored, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, stored, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Stored stored, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    private static Result replay(String key, String requestHash, Stored stored) {
+        checkSameRequest(key, requestHash, stored.requestHash());
+        return new Result(stored.order(), true);
+    }
+
+    private static void checkSameRequest(String key, String requestHash, String storedHash) {
+        if (!storedHash.equals(requestHash)) {
+            throw new IdempotencyKeyReusedException(
+                    "Idempotency-Key " + key + " was already used for a different request");
+        }
+    }
+
+    private static OrderResponse await(CompletableFuture<OrderResponse> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private String hash(OrderRequest request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(request)));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not fingerprint order request", e);
+        }
+    }
+
+    private String toJson(OrderResponse response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not store order response", e);
+        }
+    }
+
+    private OrderResponse fromJson(String json) {
+        try {
+            return objectMapper.readValue(json, OrderResponse.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read stored order response", e);
+        }
+    }
+}
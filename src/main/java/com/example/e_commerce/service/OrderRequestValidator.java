@@ -0,0 +1,50 @@
+package com.example.e_commerce.service;
+
+import com.example.e_commerce.dto.OrderRequest;
+import com.example.e_commerce.exception.BadRequestException;
+
+/**
+ * The rules every order entry point applies before an order is placed: single,
+ * idempotent, batch and asynchronous submissions accept and reject the same
+ * payloads. Quantities must be positive, since reserving a negative one would
+ * add stock.
+ */
+public final class OrderRequestValidator {
+
+    private OrderRequestValidator() {
+    }
+
+    /**
+     * Reason the order request is malformed, or null if it is well formed.
+     */
+    public static String validate(OrderRequest request) {
+        if (request == null) {
+            return "Order is required";
+        }
+        if (request.getUserId() == null) {
+            return "userId is required";
+        }
+        if (request.getItems() == null || request.getItems().isEmpty()) {
+            return "At least one item is required";
+        }
+        for (OrderRequest.OrderItemRequest item : request.getItems()) {
+            if (item == null || item.getProductId() == null) {
+                return "Every item needs a productId";
+            }
+            if (item.getQuantity() == null || item.getQuantity() < 1) {
+                return "Quantity must be at least 1 for product " + item.getProductId();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Throws {@link BadRequestException} with the reason if the request is malformed.
+     */
+    public static void requireValid(OrderRequest request) {
+        String problem = validate(request);
+        if (problem != null) {
+            throw new BadRequestException(problem);
+        }
+    }
+}
@@ -2,14 +2,29 @@ package com.example.e_commerce.service;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.example.e_commerce.dto.CursorPage;
+import com.example.e_commerce.dto.OrderLineView;
 import com.example.e_commerce.dto.OrderRequest;
 import com.example.e_commerce.dto.OrderResponse;
+import com.example.e_commerce.event.OrderCreatedEvent;
+import com.example.e_commerce.event.OrderStatusChangedEvent;
+import com.example.e_commerce.exception.BadRequestException;
 import com.example.e_commerce.exception.ResourceNotFoundException;
 import com.example.e_commerce.model.Order;
 import com.example.e_commerce.model.OrderItem;
@@ -22,19 +37,31 @@ import com.example.e_commerce.repository.UserRepository;
 @Service
 public class OrderService {
 
+        // Statuses an order may move to from each status; COMPLETED and CANCELLED are final
+        private static final Map<String, Set<String>> TRANSITIONS = Map.of(
+                        "PENDING", Set.of("COMPLETED", "CANCELLED"),
+                        "COMPLETED", Set.of(),
+                        "CANCELLED", Set.of());
+
         private final OrderRepository orderRepository;
         private final UserRepository userRepository;
         private final ProductRepository productRepository;
+        private final ApplicationEventPublisher eventPublisher;
+        private final InventoryService inventoryService;
 
         public OrderService(OrderRepository orderRepository, UserRepository userRepository,
-                        ProductRepository productRepository) {
+                        ProductRepository productRepository, ApplicationEventPublisher eventPublisher,
+                        InventoryService inventoryService) {
                 this.orderRepository = orderRepository;
                 this.userRepository = userRepository;
                 this.productRepository = productRepository;
+                this.eventPublisher = eventPublisher;
+                this.inventoryService = inventoryService;
         }
 
         @Transactional
         public OrderResponse createOrder(OrderRequest orderRequest) {
+                OrderRequestValidator.requireValid(orderRequest);
                 User user = userRepository.findById(orderRequest.getUserId())
                                 .orElseThrow(
                                                 () -> new ResourceNotFoundException(
@@ -45,12 +72,11 @@ public class OrderService {
                 order.setOrderDate(LocalDateTime.now());
                 order.setStatus("PENDING");
 
-                BigDecimal totalAmount = BigDecimal.ZERO;
+                Map<Long, Product> products = loadProducts(orderRequest.getItems());
+                inventoryService.reserve(InventoryService.quantitiesByProduct(orderRequest.getItems()));
 
                 for (OrderRequest.OrderItemRequest itemRequest : orderRequest.getItems()) {
-                        Product product = productRepository.findById(itemRequest.getProductId())
-                                        .orElseThrow(() -> new ResourceNotFoundException(
-                                                        "Product not found with id: " + itemRequest.getProductId()));
+                        Product product = products.get(itemRequest.getProductId());
 
                         OrderItem orderItem = new OrderItem();
                         orderItem.setProduct(product);
@@ -58,31 +84,148 @@ public class OrderService {
                         orderItem.setPrice(product.getPrice()); // Snapshot price
 
                         order.addOrderItem(orderItem);
-
-                        BigDecimal itemTotal = product.getPrice()
-                                        .multiply(BigDecimal.valueOf(itemRequest.getQuantity()));
-                        totalAmount = totalAmount.add(itemTotal);
                 }
 
-                order.setTotalAmount(totalAmount);
+                order.setTotalAmount(calculateTotal(order.getOrderItems()));
                 Order savedOrder = orderRepository.save(order);
 
+                eventPublisher.publishEvent(OrderCreatedEvent.of(savedOrder));
                 return mapToResponse(savedOrder);
         }
 
-        public List<OrderResponse> getAllOrders() {
-                return orderRepository.findAll().stream()
-                                .map(this::mapToResponse)
-                                .collect(Collectors.toList());
+        /**
+         * Moves the order to another status. Cancelling puts its items back into stock.
+         */
+        @Transactional
+        public OrderResponse updateStatus(Long orderId, String status) {
+                if (!TRANSITIONS.containsKey(status)) {
+                        throw new BadRequestException("Unknown order status: " + status);
+                }
+                Order order = orderRepository.findByIdForUpdate(orderId)
+                                .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + orderId));
+                String previous = order.getStatus();
+                if (previous.equals(status)) {
+                        return mapToResponse(order);
+                }
+                if (!TRANSITIONS.getOrDefault(previous, Set.of()).contains(status)) {
+                        throw new BadRequestException("Order " + orderId + " is " + previous + " and cannot become " + status);
+                }
+
+                order.setStatus(status);
+                if ("CANCELLED".equals(status)) {
+                        SortedMap<Long, Integer> quantities = new TreeMap<>();
+                        for (OrderItem item : order.getOrderItems()) {
+                                quantities.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum);
+                        }
+                        inventoryService.release(quantities);
+                }
+                eventPublisher.publishEvent(new OrderStatusChangedEvent(orderId, order.getUser().getId(),
+                                order.getTotalAmount(), previous, status));
+                return mapToResponse(order);
         }
 
-        public List<OrderResponse> getOrdersByUserId(Long userId) {
-                return orderRepository.findByUserId(userId).stream()
-                                .map(this::mapToResponse)
-                                .collect(Collectors.toList());
+        /**
+         * Sum of price times quantity over the items, using each item's snapshot price.
+         */
+        static BigDecimal calculateTotal(List<OrderItem> items) {
+                BigDecimal totalAmount = BigDecimal.ZERO;
+                for (OrderItem item : items) {
+                        totalAmount = totalAmount.add(item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity())));
+                }
+                return totalAmount;
+        }
+
+        /**
+         * Resolves every product referenced by the order with a single multi-id query.
+         * Missing ids fail with the same message as a per-item lookup, reported in
+         * request order.
+         */
+        private Map<Long, Product> loadProducts(List<OrderRequest.OrderItemRequest> items) {
+                Set<Long> productIds = items.stream()
+                                .map(OrderRequest.OrderItemRequest::getProductId)
+                                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+                Map<Long, Product> products = productRepository.findAllById(productIds).stream()
+                                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+                for (Long productId : productIds) {
+                        if (!products.containsKey(productId)) {
+                                throw new ResourceNotFoundException("Product not found with id: " + productId);
+                        }
+                }
+                return products;
+        }
+
+        @Transactional(readOnly = true)
+        public CursorPage<OrderResponse> getAllOrders(String after, int limit) {
+                Long before = PageCursor.decode(after);
+                int pageSize = PageCursor.limit(limit);
+                Limit fetch = Limit.of(pageSize + 1);
+
+                List<Long> ids = before == null
+                                ? orderRepository.findPageIds(fetch)
+                                : orderRepository.findPageIdsBefore(before, fetch);
+                return toPage(ids, pageSize);
+        }
+
+        @Transactional(readOnly = true)
+        public CursorPage<OrderResponse> getOrdersByUserId(Long userId, String after, int limit) {
+                Long before = PageCursor.decode(after);
+                int pageSize = PageCursor.limit(limit);
+                Limit fetch = Limit.of(pageSize + 1);
+
+                List<Long> ids = before == null
+                                ? orderRepository.findPageIdsByUserId(userId, fetch)
+                                : orderRepository.findPageIdsByUserIdBefore(userId, before, fetch);
+                return toPage(ids, pageSize);
+        }
+
+        /**
+         * Loads the orders for one page of ids. One extra id is fetched to tell
+         * whether another page follows.
+         */
+        private CursorPage<OrderResponse> toPage(List<Long> ids, int pageSize) {
+                boolean hasMore = ids.size() > pageSize;
+                List<Long> pageIds = hasMore ? ids.subList(0, pageSize) : ids;
+                if (pageIds.isEmpty()) {
+                        return new CursorPage<>(List.of(), null);
+                }
+
+                List<OrderResponse> orders = mapLinesToResponses(orderRepository.findOrderLinesByIdIn(pageIds));
+                String nextCursor = hasMore ? PageCursor.encode(pageIds.get(pageIds.size() - 1)) : null;
+                return new CursorPage<>(orders, nextCursor);
+        }
+
+        /**
+         * Folds order line rows (grouped by order id) back into one response per order.
+         */
+        static List<OrderResponse> mapLinesToResponses(List<OrderLineView> lines) {
+                Map<Long, OrderResponse> responses = new LinkedHashMap<>();
+                for (OrderLineView line : lines) {
+                        OrderResponse response = responses.computeIfAbsent(line.getOrderId(),
+                                        orderId -> new OrderResponse(
+                                                        orderId,
+                                                        line.getUserId(),
+                                                        line.getOrderDate(),
+                                                        line.getTotalAmount(),
+                                                        line.getStatus(),
+                                                        new ArrayList<>()));
+                        if (line.getProductId() != null) {
+                                response.getItems().add(toItemResponse(line));
+                        }
+                }
+                return new ArrayList<>(responses.values());
+        }
+
+        static OrderResponse.OrderItemResponse toItemResponse(OrderLineView line) {
+                return new OrderResponse.OrderItemResponse(
+                                line.getProductId(),
+                                line.getProductName(),
+                                line.getQuantity(),
+                                line.getPrice());
         }
 
-        private OrderResponse mapToResponse(Order order) {
+        static OrderResponse mapToResponse(Order order) {
                 List<OrderResponse.OrderItemResponse> itemResponses = order.getOrderItems().stream()
                                 .map(item -> new OrderResponse.OrderItemResponse(
                                                 item.getProduct().getId(),
@@ -0,0 +1,52 @@
+package com.example.e_commerce.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import com.example.e_commerce.exception.BadRequestException;
+
+/**
+ * Encodes and decodes the opaque {@code after} tokens used by keyset-paginated
+ * endpoints. A token wraps the id of the last row on the previous page, so the
+ * next page is a {@code where id > / < ?} index seek instead of an OFFSET scan.
+ */
+final class PageCursor {
+
+    static final int DEFAULT_LIMIT = 20;
+    static final int MAX_LIMIT = 100;
+
+    private static final String PREFIX = "id:";
+
+    private PageCursor() {
+    }
+
+    static String encode(Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the id wrapped by the token, or null when no token was given.
+     */
+    static Long decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            if (!value.startsWith(PREFIX)) {
+                throw new BadRequestException("Invalid cursor: " + token);
+            }
+            return Long.valueOf(value.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor: " + token);
+        }
+    }
+
+    static int limit(int requested) {
+        if (requested < 1) {
+            throw new BadRequestException("Limit must be at least 1");
+        }
+        return Math.min(requested, MAX_LIMIT);
+    }
+}
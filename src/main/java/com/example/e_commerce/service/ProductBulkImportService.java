@@ -0,0 +1,268 @@
+package com.example.e_commerce.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.e_commerce.dto.BulkImportResponse;
+import com.example.e_commerce.dto.ProductRequest;
+import com.example.e_commerce.event.ProductChangedEvent;
+import com.example.e_commerce.exception.BadRequestException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * Imports products from a JSON array or CSV stream. The body is parsed one row at a
+ * time; valid rows are written with JDBC batch inserts and committed per chunk, so
+ * memory stays flat and a failure only affects its own chunk. When a chunk fails
+ * it is retried row by row to find and report the offending rows.
+ *
+ * <p>Caches and indexes are refreshed once at the end rather than per product.
+ */
+@Service
+public class ProductBulkImportService {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO products (name, description, price, image_url, stock_quantity) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final CsvMapper csvMapper = new CsvMapper();
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+    private final int batchSize;
+    private final int maxErrors;
+
+    public ProductBulkImportService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            Validator validator, ObjectMapper objectMapper, ApplicationEventPublisher eventPublisher,
+            @Value("${app.products.bulk.chunk-size:5000}") int chunkSize,
+            @Value("${app.products.bulk.batch-size:1000}") int batchSize,
+            @Value("${app.products.bulk.max-errors:1000}") int maxErrors) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+        this.batchSize = batchSize;
+        this.maxErrors = maxErrors;
+    }
+
+    /**
+     * Imports a JSON array of objects shaped like {@link ProductRequest}.
+     */
+    public BulkImportResponse importJson(InputStream body) throws IOException {
+        Import run = new Import();
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new BadRequestException("Expected a JSON array of products");
+            }
+            long row = 0;
+            try {
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    row++;
+                    // Read each element as a tree first so a bad field fails only its row
+                    JsonNode node = parser.readValueAsTree();
+                    ProductRequest request;
+                    try {
+                        request = objectMapper.treeToValue(node, ProductRequest.class);
+                    } catch (JsonProcessingException e) {
+                        run.reject(row, "Invalid product: " + e.getOriginalMessage());
+                        continue;
+                    }
+                    run.accept(row, request);
+                }
+            } catch (JsonProcessingException e) {
+                // Malformed JSON: nothing after this point can be read
+                run.reject(row, "Malformed JSON, import stopped: " + e.getOriginalMessage());
+            }
+        }
+        return run.finish();
+    }
+
+    /**
+     * Imports CSV with a header row naming the columns: name, description, price,
+     * imageUrl (or image_url) and stockQuantity (or stock). Column order is free;
+     * unknown columns are ignored.
+     */
+    public BulkImportResponse importCsv(InputStream body) throws IOException {
+        Import run = new Import();
+        CsvSchema schema = CsvSchema.emptySchema().withHeader();
+        try (MappingIterator<Map<String, String>> rows = csvMapper.readerForMapOf(String.class)
+                .with(schema)
+                .readValues(body)) {
+            Set<String> columns = rows.getParserSchema() instanceof CsvSchema header
+                    ? header.getColumnNames().stream().map(ProductBulkImportService::normalize)
+                            .collect(Collectors.toSet())
+                    : Set.of();
+            if (!columns.contains("name") || !columns.contains("price")) {
+                throw new BadRequestException("CSV header must include the columns name and price");
+            }
+            long row = 0;
+            try {
+                while (rows.hasNextValue()) {
+                    Map<String, String> values = rows.nextValue();
+                    row++;
+                    ProductRequest request;
+                    try {
+                        request = toRequest(values);
+                    } catch (NumberFormatException e) {
+                        run.reject(row, e.getMessage());
+                        continue;
+                    }
+                    run.accept(row, request);
+                }
+            } catch (IOException e) {
+                run.reject(row + 1, "Malformed CSV, import stopped: " + e.getMessage());
+            }
+        }
+        return run.finish();
+    }
+
+    private static ProductRequest toRequest(Map<String, String> values) {
+        ProductRequest request = new ProductRequest();
+        values.forEach((column, value) -> {
+            String text = value == null || value.isBlank() ? null : value.trim();
+            switch (normalize(column)) {
+                case "name" -> request.setName(text);
+                case "description" -> request.setDescription(text);
+                case "imageurl" -> request.setImageUrl(text);
+                case "price" -> request.setPrice(parse(text, BigDecimal::new, "price: must be a number"));
+                case "stockquantity", "stock" -> request.setStockQuantity(
+                        parse(text, Integer::valueOf, "stockQuantity: must be a whole number"));
+                default -> {
+                }
+            }
+        });
+        return request;
+    }
+
+    private static <T> T parse(String text, Function<String, T> parser, String error) {
+        if (text == null) {
+            return null;
+        }
+        try {
+            return parser.apply(text);
+        } catch (NumberFormatException e) {
+            throw new NumberFormatException(error);
+        }
+    }
+
+    private static String normalize(String column) {
+        return column.trim().replace("_", "").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * State of one import: the chunk being filled and the running totals.
+     */
+    private final class Import {
+        private final List<Long> pendingRows = new ArrayList<>(chunkSize);
+        private final List<ProductRequest> pending = new ArrayList<>(chunkSize);
+        private final List<BulkImportResponse.RowError> errors = new ArrayList<>();
+        private long received;
+        private long imported;
+        private long failed;
+
+        void accept(long row, ProductRequest request) {
+            received++;
+            Set<ConstraintViolation<ProductRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                failed++;
+                addError(row, violations.stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                return;
+            }
+            pendingRows.add(row);
+            pending.add(request);
+            if (pending.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        void reject(long row, String message) {
+            received++;
+            failed++;
+            addError(row, message);
+        }
+
+        BulkImportResponse finish() {
+            flush();
+            if (imported > 0) {
+                eventPublisher.publishEvent(ProductChangedEvent.all());
+            }
+            return new BulkImportResponse(received, imported, failed, errors, failed > errors.size());
+        }
+
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> insert(pending));
+                imported += pending.size();
+            } catch (DataAccessException chunkFailure) {
+                // Retry the chunk row by row so only the offending rows are rejected
+                for (int i = 0; i < pending.size(); i++) {
+                    ProductRequest request = pending.get(i);
+                    try {
+                        transactionTemplate.executeWithoutResult(status -> insert(List.of(request)));
+                        imported++;
+                    } catch (DataAccessException rowFailure) {
+                        failed++;
+                        addError(pendingRows.get(i), "Rejected by database: "
+                                + NestedExceptionUtils.getMostSpecificCause(rowFailure).getMessage());
+                    }
+                }
+            }
+            pending.clear();
+            pendingRows.clear();
+        }
+
+        private void insert(List<ProductRequest> requests) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, requests, batchSize, (statement, request) -> {
+                statement.setString(1, request.getName());
+                statement.setString(2, request.getDescription());
+                statement.setBigDecimal(3, request.getPrice());
+                statement.setString(4, request.getImageUrl());
+                // No quantity leaves the product's stock untracked, as on create
+                statement.setObject(5, request.getStockQuantity(), Types.INTEGER);
+            });
+        }
+
+        private void addError(long row, String message) {
+            if (errors.size() < maxErrors) {
+                errors.add(new BulkImportResponse.RowError(row, message));
+            }
+        }
+    }
+}
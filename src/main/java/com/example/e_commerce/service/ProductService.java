@@ -1,37 +1,109 @@
 package com.example.e_commerce.service;
 
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.example.e_commerce.cache.ProductCache;
+import com.example.e_commerce.catalog.CatalogSnapshotStore;
 import com.example.e_commerce.dto.ProductRequest;
 import com.example.e_commerce.dto.ProductResponse;
+import com.example.e_commerce.dto.ProductVersionView;
+import com.example.e_commerce.dto.TrendingProductResponse;
+import com.example.e_commerce.event.ProductChangedEvent;
+import com.example.e_commerce.index.ProductPriceIndex;
+import com.example.e_commerce.index.ProductSearchIndex;
+import com.example.e_commerce.metrics.ShopMetrics;
+import com.example.e_commerce.exception.BadRequestException;
 import com.example.e_commerce.exception.ResourceNotFoundException;
 import com.example.e_commerce.model.Product;
 import com.example.e_commerce.repository.ProductRepository;
+import com.example.e_commerce.trending.SpaceSavingSketch;
+import com.example.e_commerce.trending.TrendingProducts;
 
 @Service
 public class ProductService {
 
     private final ProductRepository productRepository;
-
-    public ProductService(ProductRepository productRepository) {
+    private final ProductCache productCache;
+    private final ProductSearchIndex searchIndex;
+    private final ProductPriceIndex priceIndex;
+    private final TrendingProducts trendingProducts;
+    private final CatalogSnapshotStore catalogSnapshot;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ShopMetrics shopMetrics;
+    // Cache fills read from the primary: a replica that lags behind an update would
+    // put the old row back into the cache for its whole TTL
+    private final TransactionTemplate primaryReads;
+
+    public ProductService(ProductRepository productRepository, ProductCache productCache,
+            ProductSearchIndex searchIndex, ProductPriceIndex priceIndex, TrendingProducts trendingProducts,
+            CatalogSnapshotStore catalogSnapshot, ApplicationEventPublisher eventPublisher, ShopMetrics shopMetrics,
+            PlatformTransactionManager transactionManager) {
         this.productRepository = productRepository;
+        this.productCache = productCache;
+        this.searchIndex = searchIndex;
+        this.priceIndex = priceIndex;
+        this.trendingProducts = trendingProducts;
+        this.catalogSnapshot = catalogSnapshot;
+        this.eventPublisher = eventPublisher;
+        this.shopMetrics = shopMetrics;
+        this.primaryReads = new TransactionTemplate(transactionManager);
     }
 
     public Page<ProductResponse> getAllProducts(Pageable pageable) {
-        return productRepository.findAll(pageable)
-                .map(this::mapToResponse);
+        return productCache.getPage(pageable, key -> primaryReads.execute(status -> productRepository.findAll(key)
+                .map(ProductService::mapToResponse)));
     }
 
     public ProductResponse getProductById(Long id) {
-        Product product = productRepository.findById(id)
+        // Misses are served from the catalog snapshot while it has the product's current version
+        ProductResponse product = productCache.getProduct(id, key -> {
+            ProductResponse snapshotted = catalogSnapshot.get(key);
+            if (snapshotted != null) {
+                return snapshotted;
+            }
+            return primaryReads.execute(status -> productRepository.findById(key)
+                    .map(ProductService::mapToResponse)
+                    .orElse(null));
+        });
+        if (product == null) {
+            throw new ResourceNotFoundException("Product not found with id: " + id);
+        }
+        return product;
+    }
+
+    /**
+     * The product's version and update time, read without loading the product.
+     */
+    @Transactional(readOnly = true)
+    public ProductVersionView getProductVersion(Long id) {
+        return productRepository.findVersionById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
-        return mapToResponse(product);
+    }
+
+    /**
+     * Versions of the products {@link #getAllProducts} returns for the same page request.
+     */
+    @Transactional(readOnly = true)
+    public Page<ProductVersionView> getPageVersions(Pageable pageable) {
+        return productRepository.findVersions(pageable);
     }
 
     @Transactional
@@ -41,9 +113,12 @@ public class ProductService {
         product.setDescription(productRequest.getDescription());
         product.setPrice(productRequest.getPrice());
         product.setImageUrl(productRequest.getImageUrl());
+        product.setStockQuantity(productRequest.getStockQuantity());
 
         Product savedProduct = productRepository.save(product);
-        return mapToResponse(savedProduct);
+        ProductResponse response = mapToResponse(savedProduct);
+        eventPublisher.publishEvent(ProductChangedEvent.saved(response));
+        return response;
     }
 
     @Transactional
@@ -57,7 +132,11 @@ public class ProductService {
         product.setImageUrl(productRequest.getImageUrl());
 
         Product updatedProduct = productRepository.save(product);
-        return mapToResponse(updatedProduct);
+        // The version and update time are bumped on flush; the response must carry them
+        productRepository.flush();
+        ProductResponse response = mapToResponse(updatedProduct);
+        eventPublisher.publishEvent(ProductChangedEvent.saved(response));
+        return response;
     }
 
     @Transactional
@@ -66,30 +145,77 @@ public class ProductService {
             throw new ResourceNotFoundException("Product not found with id: " + id);
         }
         productRepository.deleteById(id);
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(id));
     }
 
-    private ProductResponse mapToResponse(Product product) {
+    public static ProductResponse mapToResponse(Product product) {
         return new ProductResponse(
                 product.getId(),
                 product.getName(),
                 product.getDescription(),
                 product.getPrice(),
-                product.getImageUrl());
+                product.getImageUrl(),
+                product.getVersion(),
+                product.getUpdatedAt());
+    }
+
+    public Page<ProductResponse> search(String keyword, Pageable pageable) {
+        // Served from the in-memory index over name and description, ranked by relevance
+        Page<ProductResponse> results = searchIndex.search(keyword, pageable);
+        shopMetrics.recordSearch(results.getTotalElements());
+        return results;
     }
 
-    public List<ProductResponse> searchByName(String keyword) {
-        // Use ProductRepository.findByNameContainingIgnoreCase()
-        return productRepository.findByNameContainingIgnoreCase(keyword)
-                .stream()
-                .map(this::mapToResponse)
+    public Page<ProductResponse> filterByPriceRange(BigDecimal minPrice, BigDecimal maxPrice,
+            Sort.Direction direction, Pageable pageable) {
+        if (minPrice.compareTo(maxPrice) > 0) {
+            throw new BadRequestException("minPrice must not be greater than maxPrice");
+        }
+
+        // Ids come from the in-memory price index; product bodies from the cache
+        ProductPriceIndex.RangeResult range = priceIndex.range(minPrice, maxPrice,
+                direction == Sort.Direction.DESC, pageable.getOffset(), pageable.getPageSize());
+        List<Long> ids = Arrays.stream(range.getIds()).boxed().collect(Collectors.toList());
+        Map<Long, ProductResponse> products = cachedProducts(ids);
+
+        List<ProductResponse> content = ids.stream()
+                .map(products::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
+        return new PageImpl<>(content, pageable, range.getTotal());
     }
 
-    public List<ProductResponse> filterByPriceRange(Double minPrice, Double maxPrice) {
-        // Use ProductRepository.findByPriceBetween()
-        return productRepository.findByPriceBetween(minPrice, maxPrice)
-                .stream()
-                .map(this::mapToResponse)
+    public List<TrendingProductResponse> getTrending(Duration window, int limit) {
+        if (window.isNegative() || window.isZero() || window.compareTo(trendingProducts.maxWindow()) > 0) {
+            throw new BadRequestException("window must be positive and at most " + trendingProducts.maxWindow());
+        }
+        if (limit < 1 || limit > TrendingProducts.MAX_LIMIT) {
+            throw new BadRequestException("limit must be between 1 and " + TrendingProducts.MAX_LIMIT);
+        }
+
+        // Ids and unit estimates come from the sketches; product bodies from the cache
+        List<SpaceSavingSketch.Estimate> top = trendingProducts.top(window, limit);
+        List<Long> ids = top.stream().map(SpaceSavingSketch.Estimate::item).collect(Collectors.toList());
+        Map<Long, ProductResponse> products = cachedProducts(ids);
+
+        // Deleted products drop out
+        return top.stream()
+                .filter(estimate -> products.containsKey(estimate.item()))
+                .map(estimate -> new TrendingProductResponse(products.get(estimate.item()), estimate.count(),
+                        estimate.lowerBound()))
                 .collect(Collectors.toList());
     }
+
+    private Map<Long, ProductResponse> cachedProducts(List<Long> ids) {
+        return productCache.getProducts(ids, missing -> {
+            Map<Long, ProductResponse> loaded = catalogSnapshot.getAll(missing);
+            if (loaded.size() < missing.size()) {
+                Set<Long> remaining = new HashSet<>(missing);
+                remaining.removeAll(loaded.keySet());
+                primaryReads.executeWithoutResult(status -> productRepository.findAllById(remaining)
+                        .forEach(product -> loaded.put(product.getId(), mapToResponse(product))));
+            }
+            return loaded;
+        });
+    }
 }
@@ -0,0 +1,74 @@
+package com.example.e_commerce.service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.e_commerce.analytics.SalesRollupJob;
+import com.example.e_commerce.dto.DailySalesView;
+import com.example.e_commerce.dto.ProductSalesView;
+import com.example.e_commerce.dto.RollupRebuildResponse;
+import com.example.e_commerce.dto.StatusSalesView;
+import com.example.e_commerce.exception.BadRequestException;
+import com.example.e_commerce.repository.DailySalesRepository;
+import com.example.e_commerce.repository.ProductDailySalesRepository;
+import com.example.e_commerce.repository.StatusDailySalesRepository;
+
+/**
+ * Sales reports read from the rollups kept by {@link SalesRollupJob}, never from the
+ * orders themselves. Date ranges are inclusive; orders placed in the last few
+ * seconds may not be counted yet.
+ */
+@Service
+public class SalesAnalyticsService {
+
+    private static final int MAX_PRODUCTS = 100;
+
+    private final DailySalesRepository dailySalesRepository;
+    private final ProductDailySalesRepository productDailySalesRepository;
+    private final StatusDailySalesRepository statusDailySalesRepository;
+    private final SalesRollupJob salesRollupJob;
+
+    public SalesAnalyticsService(DailySalesRepository dailySalesRepository,
+            ProductDailySalesRepository productDailySalesRepository,
+            StatusDailySalesRepository statusDailySalesRepository, SalesRollupJob salesRollupJob) {
+        this.dailySalesRepository = dailySalesRepository;
+        this.productDailySalesRepository = productDailySalesRepository;
+        this.statusDailySalesRepository = statusDailySalesRepository;
+        this.salesRollupJob = salesRollupJob;
+    }
+
+    @Transactional(readOnly = true)
+    public List<DailySalesView> getDailySales(LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        return dailySalesRepository.findBySaleDateBetweenOrderBySaleDate(from, to);
+    }
+
+    @Transactional(readOnly = true)
+    public List<ProductSalesView> getTopProducts(LocalDate from, LocalDate to, int limit) {
+        checkRange(from, to);
+        if (limit < 1 || limit > MAX_PRODUCTS) {
+            throw new BadRequestException("'limit' must be between 1 and " + MAX_PRODUCTS);
+        }
+        return productDailySalesRepository.findTopProducts(from, to, Limit.of(limit));
+    }
+
+    @Transactional(readOnly = true)
+    public List<StatusSalesView> getStatusTotals(LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        return statusDailySalesRepository.findStatusTotals(from, to);
+    }
+
+    public RollupRebuildResponse rebuildRollups() {
+        return salesRollupJob.rebuild();
+    }
+
+    private static void checkRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new BadRequestException("'from' must not be after 'to'");
+        }
+    }
+}
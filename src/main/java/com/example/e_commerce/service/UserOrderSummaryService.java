@@ -0,0 +1,165 @@
+package com.example.e_commerce.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.e_commerce.dto.OrderTotalsView;
+import com.example.e_commerce.dto.UserOrderSummaryResponse;
+import com.example.e_commerce.event.OrderCreatedEvent;
+import com.example.e_commerce.event.OrderStatusChangedEvent;
+import com.example.e_commerce.exception.ResourceNotFoundException;
+import com.example.e_commerce.repository.OrderRepository;
+import com.example.e_commerce.repository.UserOrderSummaryRepository;
+import com.example.e_commerce.repository.UserRepository;
+
+/**
+ * Keeps each user's {@link com.example.e_commerce.model.UserOrderSummary} in step
+ * with their orders. Order events only collect deltas per user; just before the
+ * transaction commits they are applied as one relative {@code UPDATE} per user, in
+ * user id order. Concurrent checkouts of one user therefore never overwrite each
+ * other's counts, a batch of a thousand orders for one account costs one update,
+ * and two batches lock summary rows in the same order.
+ */
+@Service
+public class UserOrderSummaryService {
+
+    private static final String UPDATE_SQL = "UPDATE user_order_summaries SET order_count = order_count + ?, "
+            + "lifetime_spend = lifetime_spend + ? WHERE user_id = ?";
+    private static final String UPDATE_WITH_DATE_SQL = "UPDATE user_order_summaries SET order_count = order_count + ?, "
+            + "lifetime_spend = lifetime_spend + ?, "
+            + "last_order_date = CASE WHEN last_order_date > ? THEN last_order_date ELSE ? END WHERE user_id = ?";
+    // No conflict target: H2 accepts the clause only without one, and the key is the
+    // table's only unique constraint
+    private static final String INSERT_SQL = "INSERT INTO user_order_summaries "
+            + "(user_id, order_count, lifetime_spend, last_order_date) VALUES (?, ?, ?, ?) ON CONFLICT DO NOTHING";
+
+    private static final class Delta {
+        long orders;
+        BigDecimal spend = BigDecimal.ZERO;
+        LocalDateTime lastOrderDate;
+    }
+
+    private final UserOrderSummaryRepository summaryRepository;
+    private final OrderRepository orderRepository;
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserOrderSummaryService(UserOrderSummaryRepository summaryRepository, OrderRepository orderRepository,
+            UserRepository userRepository, JdbcTemplate jdbcTemplate) {
+        this.summaryRepository = summaryRepository;
+        this.orderRepository = orderRepository;
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Transactional(readOnly = true)
+    public UserOrderSummaryResponse getSummary(Long userId) {
+        return summaryRepository.findById(userId)
+                .map(summary -> new UserOrderSummaryResponse(userId, summary.getOrderCount(),
+                        summary.getLifetimeSpend(), summary.getLastOrderDate()))
+                .orElseGet(() -> {
+                    if (!userRepository.existsById(userId)) {
+                        throw new ResourceNotFoundException("User not found with id: " + userId);
+                    }
+                    // No order written since summaries were introduced; usually no orders at all
+                    OrderTotalsView totals = orderRepository.sumByUserId(userId);
+                    return new UserOrderSummaryResponse(userId, totals.getOrderCount(), totals.getLifetimeSpend(),
+                            totals.getLastOrderDate());
+                });
+    }
+
+    @EventListener
+    public void onOrderCreated(OrderCreatedEvent event) {
+        Delta delta = pendingDelta(event.getUserId());
+        delta.orders++;
+        if (!"CANCELLED".equals(event.getStatus())) {
+            delta.spend = delta.spend.add(event.getTotalAmount());
+        }
+        if (delta.lastOrderDate == null || event.getOrderDate().isAfter(delta.lastOrderDate)) {
+            delta.lastOrderDate = event.getOrderDate();
+        }
+    }
+
+    @EventListener
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        boolean wasCancelled = "CANCELLED".equals(event.getFromStatus());
+        boolean isCancelled = "CANCELLED".equals(event.getToStatus());
+        if (wasCancelled == isCancelled) {
+            return;
+        }
+        Delta delta = pendingDelta(event.getUserId());
+        delta.spend = isCancelled ? delta.spend.subtract(event.getTotalAmount())
+                : delta.spend.add(event.getTotalAmount());
+    }
+
+    /**
+     * The delta collected for the user in the current transaction. The first call in
+     * a transaction registers the callback that applies all of them before commit;
+     * if the transaction rolls back they are dropped with it.
+     */
+    private Delta pendingDelta(Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Order changes must be published inside a transaction");
+        }
+        @SuppressWarnings("unchecked")
+        SortedMap<Long, Delta> deltas = (SortedMap<Long, Delta>) TransactionSynchronizationManager.getResource(this);
+        if (deltas == null) {
+            SortedMap<Long, Delta> created = new TreeMap<>();
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    apply(created);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(UserOrderSummaryService.this);
+                }
+            });
+            deltas = created;
+        }
+        return deltas.computeIfAbsent(userId, id -> new Delta());
+    }
+
+    private void apply(SortedMap<Long, Delta> deltas) {
+        for (Map.Entry<Long, Delta> entry : deltas.entrySet()) {
+            if (update(entry.getKey(), entry.getValue()) == 0) {
+                create(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    private int update(Long userId, Delta delta) {
+        if (delta.lastOrderDate == null) {
+            return jdbcTemplate.update(UPDATE_SQL, delta.orders, delta.spend, userId);
+        }
+        return jdbcTemplate.update(UPDATE_WITH_DATE_SQL, delta.orders, delta.spend, delta.lastOrderDate,
+                delta.lastOrderDate, userId);
+    }
+
+    /**
+     * Seeds the summary of a user who has none from their orders. When two
+     * transactions seed the same user, the second insert waits for the first to
+     * commit and then does nothing, so the second applies its delta to that row.
+     */
+    private void create(Long userId, Delta delta) {
+        // A JPQL query flushes this transaction's pending order writes first, so the
+        // totals already include the delta
+        OrderTotalsView totals = orderRepository.sumByUserId(userId);
+        if (jdbcTemplate.update(INSERT_SQL, userId, totals.getOrderCount(), totals.getLifetimeSpend(),
+                totals.getLastOrderDate()) == 0) {
+            update(userId, delta);
+        }
+    }
+}
@@ -3,10 +3,14 @@ package com.example.e_commerce.service;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.example.e_commerce.dto.CursorPage;
 import com.example.e_commerce.dto.UserRequest;
 import com.example.e_commerce.dto.UserResponse;
 import com.example.e_commerce.exception.ResourceNotFoundException;
@@ -17,48 +21,77 @@ import com.example.e_commerce.repository.UserRepository;
 public class UserService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
+    private final TransactionTemplate transactionTemplate;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, PasswordHasher passwordHasher,
+            PlatformTransactionManager transactionManager) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHasher = passwordHasher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
-    public List<UserResponse> getAllUsers() {
-        return userRepository.findAll().stream()
+    @Transactional(readOnly = true)
+    public CursorPage<UserResponse> getAllUsers(String after, int limit) {
+        Long afterId = PageCursor.decode(after);
+        int pageSize = PageCursor.limit(limit);
+        Limit fetch = Limit.of(pageSize + 1);
+
+        List<User> users = afterId == null
+                ? userRepository.findAllByOrderByIdAsc(fetch)
+                : userRepository.findByIdGreaterThanOrderByIdAsc(afterId, fetch);
+
+        boolean hasMore = users.size() > pageSize;
+        List<User> page = hasMore ? users.subList(0, pageSize) : users;
+        String nextCursor = hasMore ? PageCursor.encode(page.get(page.size() - 1).getId()) : null;
+        return new CursorPage<>(page.stream()
                 .map(this::mapToResponse)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()), nextCursor);
     }
 
+    @Transactional(readOnly = true)
     public UserResponse getUserById(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
         return mapToResponse(user);
     }
 
-    @Transactional
+    // Not @Transactional: the hash is computed before save() opens its transaction,
+    // so no connection is held while BCrypt runs
     public UserResponse createUser(UserRequest userRequest) {
         User user = new User();
         user.setName(userRequest.getName());
         user.setEmail(userRequest.getEmail());
-        user.setPassword(passwordEncoder.encode(userRequest.getPassword()));
+        user.setPassword(passwordHasher.encode(userRequest.getPassword()));
         user.setCreatedAt(java.time.LocalDateTime.now());
 
         User savedUser = userRepository.save(user);
         return mapToResponse(savedUser);
     }
 
-    @Transactional
+    // The stored hash is read from the primary, then checked and, only when needed,
+    // re-hashed with no transaction open. The write is a compare-and-set on that hash,
+    // so a password changed by another request in between is not overwritten
     public UserResponse updateUser(Long id, UserRequest userRequest) {
-        User user = userRepository.findById(id)
+        String currentHash = transactionTemplate.execute(status -> userRepository.findPasswordById(id))
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
 
-        user.setName(userRequest.getName());
-        user.setEmail(userRequest.getEmail());
-        user.setPassword(passwordEncoder.encode(userRequest.getPassword()));
+        // An unchanged password keeps its hash unless the hash is due for an upgrade
+        boolean keepHash = !currentHash.isEmpty() && !passwordHasher.needsUpgrade(currentHash)
+                && passwordHasher.matches(userRequest.getPassword(), currentHash);
+        String newHash = keepHash ? currentHash : passwordHasher.encode(userRequest.getPassword());
 
-        User updatedUser = userRepository.save(user);
-        return mapToResponse(updatedUser);
+        return transactionTemplate.execute(status -> {
+            int updated = userRepository.updateIfPasswordUnchanged(id, userRequest.getName(),
+                    userRequest.getEmail(), newHash, currentHash);
+            if (updated == 0) {
+                if (!userRepository.existsById(id)) {
+                    throw new ResourceNotFoundException("User not found with id: " + id);
+                }
+                throw new OptimisticLockingFailureException("Password of user " + id + " changed during update");
+            }
+            return new UserResponse(id, userRequest.getName(), userRequest.getEmail());
+        });
     }
 
     @Transactional
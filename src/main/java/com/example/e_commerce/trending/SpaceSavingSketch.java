@@ -0,0 +1,193 @@
+package com.example.e_commerce.trending;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Space-Saving heavy-hitter summary (Metwally et al.) over weighted items, with at
+ * most {@code capacity} counters. Not thread-safe.
+ *
+ * <p>Every estimate satisfies {@code count - error <= true weight <= count}, and any
+ * item heavier than {@link #floor()} is monitored. For a single stream of total
+ * weight N, {@code error <= floor() <= N / capacity}. Merged summaries keep both
+ * guarantees; their floor is at least the sum of the merged floors.
+ */
+public final class SpaceSavingSketch {
+
+    public record Estimate(long item, long count, long error) {
+
+        public long lowerBound() {
+            return count - error;
+        }
+    }
+
+    private static final class Counter {
+        final long item;
+        long count;
+        long error;
+
+        Counter(long item, long count, long error) {
+            this.item = item;
+            this.count = count;
+            this.error = error;
+        }
+    }
+
+    private static final Comparator<Counter> BY_COUNT = Comparator.<Counter>comparingLong(c -> c.count)
+            .thenComparingLong(c -> c.item);
+
+    private final int capacity;
+    private final Map<Long, Counter> counters = new HashMap<>();
+    private final TreeSet<Counter> byCount = new TreeSet<>(BY_COUNT);
+    private long total;
+    // Bound on unmonitored items inherited from a merge, whose dropped counters are gone
+    private long mergedFloor;
+
+    public SpaceSavingSketch(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+    }
+
+    public void offer(long item, long weight) {
+        if (weight <= 0) {
+            return;
+        }
+        total += weight;
+        Counter counter = counters.get(item);
+        if (counter != null) {
+            byCount.remove(counter);
+            counter.count += weight;
+        } else if (counters.size() < capacity) {
+            counter = new Counter(item, weight, 0);
+            counters.put(item, counter);
+        } else {
+            // Evict the smallest counter; the newcomer may have had up to its count already
+            Counter smallest = byCount.pollFirst();
+            counters.remove(smallest.item);
+            counter = new Counter(item, smallest.count + weight, smallest.count);
+            counters.put(item, counter);
+        }
+        byCount.add(counter);
+    }
+
+    /**
+     * Upper bound on the weight of any item that is not monitored.
+     */
+    public long floor() {
+        long smallest = counters.size() < capacity ? 0 : byCount.first().count;
+        return Math.max(smallest, mergedFloor);
+    }
+
+    public long total() {
+        return total;
+    }
+
+    public int size() {
+        return counters.size();
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public Estimate estimate(long item) {
+        Counter counter = counters.get(item);
+        if (counter == null) {
+            long floor = floor();
+            return new Estimate(item, floor, floor);
+        }
+        return new Estimate(item, counter.count, counter.error);
+    }
+
+    /**
+     * The {@code k} items with the highest counts, highest first.
+     */
+    public List<Estimate> top(int k) {
+        List<Estimate> top = new ArrayList<>(Math.min(k, counters.size()));
+        for (Counter counter : byCount.descendingSet()) {
+            if (top.size() == k) {
+                break;
+            }
+            top.add(new Estimate(counter.item, counter.count, counter.error));
+        }
+        return top;
+    }
+
+    /**
+     * Combines summaries of disjoint streams into one of the given capacity. An item
+     * missing from a summary is charged that summary's floor, in count and error.
+     */
+    public static SpaceSavingSketch merge(int capacity, Collection<SpaceSavingSketch> sketches) {
+        long floors = sketches.stream().mapToLong(SpaceSavingSketch::floor).sum();
+        long total = sketches.stream().mapToLong(SpaceSavingSketch::total).sum();
+        Map<Long, Counter> merged = new HashMap<>();
+        for (SpaceSavingSketch sketch : sketches) {
+            long floor = sketch.floor();
+            for (Counter counter : sketch.counters.values()) {
+                // Start from the sum of all floors and swap this sketch's floor for its counter
+                Counter sum = merged.computeIfAbsent(counter.item, item -> new Counter(item, floors, floors));
+                sum.count += counter.count - floor;
+                sum.error += counter.error - floor;
+            }
+        }
+
+        SpaceSavingSketch result = new SpaceSavingSketch(capacity);
+        result.total = total;
+        result.mergedFloor = floors;
+        List<Counter> ordered = new ArrayList<>(merged.values());
+        ordered.sort(BY_COUNT.reversed());
+        for (int i = 0; i < ordered.size(); i++) {
+            Counter counter = ordered.get(i);
+            if (i < capacity) {
+                result.counters.put(counter.item, counter);
+                result.byCount.add(counter);
+            } else {
+                result.mergedFloor = Math.max(result.mergedFloor, counter.count);
+                break;
+            }
+        }
+        return result;
+    }
+
+    void writeTo(DataOutput out) throws IOException {
+        out.writeLong(total);
+        out.writeLong(mergedFloor);
+        out.writeInt(counters.size());
+        for (Counter counter : byCount) {
+            out.writeLong(counter.item);
+            out.writeLong(counter.count);
+            out.writeLong(counter.error);
+        }
+    }
+
+    static SpaceSavingSketch readFrom(DataInput in, int capacity) throws IOException {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(capacity);
+        sketch.total = in.readLong();
+        sketch.mergedFloor = in.readLong();
+        int size = in.readInt();
+        List<Counter> counters = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            counters.add(new Counter(in.readLong(), in.readLong(), in.readLong()));
+        }
+        // Written smallest first; with a smaller capacity now, keep the largest
+        for (int i = Math.max(0, size - capacity); i < size; i++) {
+            Counter counter = counters.get(i);
+            sketch.counters.put(counter.item, counter);
+            sketch.byCount.add(counter);
+        }
+        if (size > capacity) {
+            sketch.mergedFloor = Math.max(sketch.mergedFloor, counters.get(size - capacity - 1).count);
+        }
+        return sketch;
+    }
+}
@@ -0,0 +1,238 @@
+package com.example.e_commerce.trending;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.e_commerce.event.OrderCreatedEvent;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Units sold per product over sliding windows, approximated with one
+ * {@link SpaceSavingSketch} per time bucket. A window query merges the sketches of
+ * the buckets it covers; the merged top list is cached per window for
+ * {@code refresh-interval}, so most queries are a list copy.
+ *
+ * <p>The buckets are written to {@code snapshot-file} every {@code snapshot-interval}
+ * and on shutdown, and read back at startup. Orders committed after the last
+ * snapshot are lost on a crash.
+ */
+@Component
+public class TrendingProducts {
+
+    private static final Logger log = LoggerFactory.getLogger(TrendingProducts.class);
+
+    private static final int SNAPSHOT_MAGIC = 0x54524e44;
+    private static final int SNAPSHOT_VERSION = 1;
+    public static final int MAX_LIMIT = 100;
+
+    private record Bucket(long start, SpaceSavingSketch sketch) {
+    }
+
+    private record CachedTop(long bucketStart, long computedAt, List<SpaceSavingSketch.Estimate> top) {
+    }
+
+    private final long bucketMillis;
+    private final int capacity;
+    private final long refreshMillis;
+    private final Path snapshotFile;
+    // Slot i holds the bucket starting at a multiple of bucketMillis congruent to i
+    private final Bucket[] buckets;
+    // Guards the ring and its sketches, which are not thread-safe: checkouts record
+    // into the current bucket while queries merge and the snapshot serializes them
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<Integer, CachedTop> cache = new ConcurrentHashMap<>();
+
+    public TrendingProducts(@Value("${app.trending.bucket:1m}") Duration bucket,
+            @Value("${app.trending.max-window:1h}") Duration maxWindow,
+            @Value("${app.trending.capacity:1000}") int capacity,
+            @Value("${app.trending.refresh-interval:1s}") Duration refreshInterval,
+            @Value("${app.trending.snapshot-file:}") String snapshotFile) {
+        this.bucketMillis = bucket.toMillis();
+        this.capacity = capacity;
+        this.refreshMillis = refreshInterval.toMillis();
+        this.snapshotFile = snapshotFile.isBlank() ? null : Path.of(snapshotFile);
+        this.buckets = new Bucket[(int) Math.ceilDiv(maxWindow.toMillis(), bucketMillis)];
+        restore();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderCreated(OrderCreatedEvent event) {
+        record(event.getQuantities(), System.currentTimeMillis());
+    }
+
+    void record(Map<Long, Integer> quantities, long now) {
+        lock.lock();
+        try {
+            SpaceSavingSketch sketch = bucketAt(now);
+            quantities.forEach(sketch::offer);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<SpaceSavingSketch.Estimate> top(Duration window, int limit) {
+        return top(window, limit, System.currentTimeMillis());
+    }
+
+    /**
+     * The best sellers by units over the last {@code window}, counted in whole
+     * buckets including the current one, highest first.
+     */
+    List<SpaceSavingSketch.Estimate> top(Duration window, int limit, long now) {
+        int bucketCount = (int) Math.min(buckets.length, Math.max(1, Math.ceilDiv(window.toMillis(), bucketMillis)));
+        long currentStart = now - Math.floorMod(now, bucketMillis);
+        CachedTop cached = cache.get(bucketCount);
+        if (cached == null || cached.bucketStart() != currentStart || now - cached.computedAt() >= refreshMillis) {
+            cached = new CachedTop(currentStart, now, merge(bucketCount, currentStart).top(MAX_LIMIT));
+            cache.put(bucketCount, cached);
+        }
+        List<SpaceSavingSketch.Estimate> top = cached.top();
+        return top.subList(0, Math.min(limit, top.size()));
+    }
+
+    /**
+     * Longest window that can be queried.
+     */
+    public Duration maxWindow() {
+        return Duration.ofMillis(bucketMillis * buckets.length);
+    }
+
+    private SpaceSavingSketch merge(int bucketCount, long currentStart) {
+        List<SpaceSavingSketch> sketches = new ArrayList<>(bucketCount);
+        lock.lock();
+        try {
+            long oldest = currentStart - (bucketCount - 1) * bucketMillis;
+            for (Bucket bucket : buckets) {
+                if (bucket != null && bucket.start() >= oldest && bucket.start() <= currentStart) {
+                    sketches.add(bucket.sketch());
+                }
+            }
+            return SpaceSavingSketch.merge(capacity, sketches);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private SpaceSavingSketch bucketAt(long time) {
+        long start = time - Math.floorMod(time, bucketMillis);
+        int slot = (int) Math.floorMod(start / bucketMillis, (long) buckets.length);
+        Bucket bucket = buckets[slot];
+        if (bucket == null || bucket.start() < start) {
+            // Reuses the slot of the bucket that has just left the longest window
+            bucket = new Bucket(start, new SpaceSavingSketch(capacity));
+            buckets[slot] = bucket;
+        }
+        return bucket.sketch();
+    }
+
+    @Scheduled(fixedDelayString = "${app.trending.snapshot-interval:1m}")
+    public void snapshot() {
+        if (snapshotFile == null) {
+            return;
+        }
+        try {
+            Files.createDirectories(snapshotFile.toAbsolutePath().getParent());
+            Path temp = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+            // Serialized under the lock, written without it
+            ByteBuffer contents = ByteBuffer.wrap(serializeBuckets());
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (contents.hasRemaining()) {
+                    channel.write(contents);
+                }
+                channel.force(false);
+            }
+            Files.move(temp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Could not write trending products snapshot to {}: {}", snapshotFile, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        snapshot();
+    }
+
+    private byte[] serializeBuckets() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        lock.lock();
+        try {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeLong(bucketMillis);
+            List<Bucket> live = new ArrayList<>();
+            for (Bucket bucket : buckets) {
+                if (bucket != null) {
+                    live.add(bucket);
+                }
+            }
+            out.writeInt(live.size());
+            for (Bucket bucket : live) {
+                out.writeLong(bucket.start());
+                bucket.sketch().writeTo(out);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return bytes.toByteArray();
+    }
+
+    private void restore() {
+        if (snapshotFile == null || !Files.exists(snapshotFile)) {
+            return;
+        }
+        try (InputStream file = Files.newInputStream(snapshotFile);
+                DataInputStream in = new DataInputStream(new BufferedInputStream(file))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                log.warn("Ignoring trending products snapshot {}: unknown format", snapshotFile);
+                return;
+            }
+            if (in.readLong() != bucketMillis) {
+                log.info("Ignoring trending products snapshot {}: bucket size changed", snapshotFile);
+                return;
+            }
+            int count = in.readInt();
+            long oldest = System.currentTimeMillis() - bucketMillis * buckets.length;
+            int restored = 0;
+            for (int i = 0; i < count; i++) {
+                long start = in.readLong();
+                SpaceSavingSketch sketch = SpaceSavingSketch.readFrom(in, capacity);
+                if (start > oldest) {
+                    int slot = (int) Math.floorMod(start / bucketMillis, (long) buckets.length);
+                    if (buckets[slot] == null || buckets[slot].start() < start) {
+                        buckets[slot] = new Bucket(start, sketch);
+                        restored++;
+                    }
+                }
+            }
+            log.info("Restored {} trending product buckets from {}", restored, snapshotFile);
+        } catch (IOException e) {
+            log.warn("Could not read trending products snapshot {}: {}", snapshotFile, e.getMessage());
+        }
+    }
+}
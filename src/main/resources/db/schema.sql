@@ -0,0 +1,134 @@
+-- PostgreSQL schema for the prod profile, which validates the schema against the
+-- entities (spring.jpa.hibernate.ddl-auto=validate) but never creates or alters it.
+-- Generated from the entities by Hibernate; see "Fast Startup" in the README for how to
+-- regenerate it after an entity changes. Apply once to an empty database:
+--   psql -d ecommerce_db -f src/main/resources/db/schema.sql
+
+create sequence order_items_seq start with 1 increment by 50;
+
+create sequence orders_seq start with 1 increment by 50;
+
+create sequence sales_rollup_changes_seq start with 1 increment by 50;
+
+create table idempotency_keys (
+    created_at timestamp(6) not null,
+    expires_at timestamp(6) not null,
+    order_id bigint not null,
+    request_hash varchar(64) not null,
+    response_body varchar(1000000) not null,
+    idempotency_key varchar(255) not null,
+    primary key (idempotency_key)
+);
+
+create table job_locks (
+    name varchar(100) not null,
+    primary key (name)
+);
+
+create table order_items (
+    price numeric(38,2),
+    quantity integer,
+    id bigint not null,
+    order_id bigint,
+    product_id bigint,
+    primary key (id)
+);
+
+create table orders (
+    total_amount numeric(38,2),
+    id bigint not null,
+    order_date timestamp(6),
+    user_id bigint,
+    ingestion_id uuid unique,
+    status varchar(255),
+    primary key (id)
+);
+
+create table products (
+    price numeric(38,2),
+    stock_quantity integer,
+    id bigint generated by default as identity,
+    updated_at timestamp(6) with time zone default CURRENT_TIMESTAMP not null,
+    version bigint default 0 not null,
+    description varchar(255),
+    image_url varchar(255),
+    name varchar(255),
+    primary key (id)
+);
+
+create table sales_daily (
+    revenue numeric(19,2) not null,
+    sale_date date not null,
+    orders bigint not null,
+    units bigint not null,
+    primary key (sale_date)
+);
+
+create table sales_product_daily (
+    revenue numeric(19,2) not null,
+    sale_date date not null,
+    orders bigint not null,
+    product_id bigint not null,
+    units bigint not null,
+    primary key (sale_date, product_id)
+);
+
+create table sales_rollup_changes (
+    id bigint not null,
+    order_id bigint not null,
+    from_status varchar(255),
+    to_status varchar(255) not null,
+    primary key (id)
+);
+
+create table sales_status_daily (
+    revenue numeric(19,2) not null,
+    sale_date date not null,
+    orders bigint not null,
+    status varchar(255) not null,
+    primary key (sale_date, status)
+);
+
+create table user_order_summaries (
+    lifetime_spend numeric(19,2) not null,
+    last_order_date timestamp(6),
+    order_count bigint not null,
+    user_id bigint not null,
+    primary key (user_id)
+);
+
+create table users (
+    created_at timestamp(6),
+    id bigint generated by default as identity,
+    email varchar(255),
+    name varchar(255),
+    password varchar(255),
+    primary key (id)
+);
+
+create index idx_idempotency_keys_expires_at
+   on idempotency_keys (expires_at);
+
+create index idx_order_items_order_id
+   on order_items (order_id);
+
+create index idx_orders_user_id_id
+   on orders (user_id, id);
+
+create index idx_orders_order_date
+   on orders (order_date);
+
+alter table if exists order_items
+   add constraint FKbioxgbv59vetrxe0ejfubep1w
+   foreign key (order_id)
+   references orders;
+
+alter table if exists order_items
+   add constraint FKocimc7dtr037rh4ls4l95nlfi
+   foreign key (product_id)
+   references products;
+
+alter table if exists orders
+   add constraint FK32ql8ubntj5uh44ph9659tiih
+   foreign key (user_id)
+   references users;
@@ -3,7 +3,10 @@ package com.example.e_commerce;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+// Snapshots are not restored from or written to the working directory
+@SpringBootTest(properties = {
+		"app.trending.snapshot-file=",
+		"app.catalog.snapshot.file=" })
 class ECommerceApplicationTests {
 
 	@Test
@@ -0,0 +1,27 @@
+package com.example.e_commerce;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.annotation.AliasFor;
+
+/**
+ * {@link DataJpaTest} that does not print every statement. Tests that place many orders
+ * would otherwise flood the build output, and {@code showSql} overrides
+ * {@code spring.jpa.show-sql} from any properties file.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Inherited
+@DataJpaTest(showSql = false)
+public @interface QuietDataJpaTest {
+
+    @AliasFor(annotation = DataJpaTest.class)
+    String[] properties() default {};
+}
@@ -0,0 +1,68 @@
+package com.example.e_commerce;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.example.e_commerce.dto.OrderRequest;
+import com.example.e_commerce.model.Product;
+
+/**
+ * Entities and requests shared by tests that place orders against a real schema.
+ */
+public final class TestFixtures {
+
+    private TestFixtures() {
+    }
+
+    /**
+     * An unsaved product with a stock of 1,000.
+     */
+    public static Product product(String name, String price) {
+        return product(name, price, 1_000);
+    }
+
+    /**
+     * An unsaved product with the given stock; null does not track stock.
+     */
+    public static Product product(String name, String price, Integer stock) {
+        Product product = new Product();
+        product.setName(name);
+        product.setDescription(name + " for the study");
+        product.setPrice(new BigDecimal(price));
+        product.setImageUrl("https://img.example.com/" + name.toLowerCase() + ".png");
+        product.setStockQuantity(stock);
+        return product;
+    }
+
+    /**
+     * An order of the given products, each a saved {@link Product} or a product id,
+     * followed by its quantity: {@code orderRequest(userId, lamp, 2, desk, 1)}.
+     */
+    public static OrderRequest orderRequest(Long userId, Object... productsAndQuantities) {
+        List<OrderRequest.OrderItemRequest> items = new ArrayList<>();
+        for (int i = 0; i < productsAndQuantities.length; i += 2) {
+            OrderRequest.OrderItemRequest item = new OrderRequest.OrderItemRequest();
+            item.setProductId(productsAndQuantities[i] instanceof Product product
+                    ? product.getId() : (Long) productsAndQuantities[i]);
+            item.setQuantity((Integer) productsAndQuantities[i + 1]);
+            items.add(item);
+        }
+        OrderRequest request = new OrderRequest();
+        request.setUserId(userId);
+        request.setItems(items);
+        return request;
+    }
+
+    /**
+     * An order of every one of the saved products, {@code quantity} of each.
+     */
+    public static OrderRequest orderRequest(Long userId, List<Product> products, int quantity) {
+        Object[] productsAndQuantities = new Object[2 * products.size()];
+        for (int i = 0; i < products.size(); i++) {
+            productsAndQuantities[2 * i] = products.get(i);
+            productsAndQuantities[2 * i + 1] = quantity;
+        }
+        return orderRequest(userId, productsAndQuantities);
+    }
+}
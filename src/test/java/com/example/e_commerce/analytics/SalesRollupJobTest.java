@@ -0,0 +1,215 @@
+package com.example.e_commerce.analytics;
+
+import static com.example.e_commerce.TestFixtures.orderRequest;
+import static com.example.e_commerce.TestFixtures.product;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.e_commerce.QuietDataJpaTest;
+import com.example.e_commerce.dto.DailySalesView;
+import com.example.e_commerce.dto.ProductSalesView;
+import com.example.e_commerce.dto.RollupRebuildResponse;
+import com.example.e_commerce.dto.StatusSalesView;
+import com.example.e_commerce.model.Product;
+import com.example.e_commerce.model.User;
+import com.example.e_commerce.repository.OrderRepository;
+import com.example.e_commerce.repository.ProductRepository;
+import com.example.e_commerce.repository.SalesRollupChangeRepository;
+import com.example.e_commerce.repository.UserRepository;
+import com.example.e_commerce.service.InventoryService;
+import com.example.e_commerce.service.OrderService;
+import com.example.e_commerce.service.SalesAnalyticsService;
+
+/**
+ * Runs outside a test transaction: changes are recorded just before an order commits.
+ */
+@QuietDataJpaTest(properties = {
+        "app.analytics.rollup.batch-size=2",
+        "app.analytics.rebuild.chunk-days=1",
+        "app.analytics.rebuild.parallelism=2" })
+@Import({ SalesRollupJob.class, SalesAnalyticsService.class, OrderService.class, InventoryService.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SalesRollupJobTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+    private static final LocalDate YESTERDAY = TODAY.minusDays(1);
+
+    @Autowired
+    private SalesRollupJob salesRollupJob;
+    @Autowired
+    private SalesAnalyticsService salesAnalyticsService;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private SalesRollupChangeRepository changeRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User user;
+    private Product lamp;
+    private Product desk;
+
+    @BeforeEach
+    void setUp() {
+        salesRollupJob.createLock();
+        user = userRepository.save(new User(null, "Analyst", "analyst@example.com", "pass"));
+        lamp = productRepository.save(product("Lamp", "20.00"));
+        desk = productRepository.save(product("Desk", "100.00"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM sales_daily");
+        jdbcTemplate.update("DELETE FROM sales_product_daily");
+        jdbcTemplate.update("DELETE FROM sales_status_daily");
+        changeRepository.deleteAll();
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void applyPending_ShouldFoldNewOrdersIntoRollups() {
+        placeOrder(TODAY, lamp, 2, desk, 1);
+        placeOrder(TODAY, lamp, 1);
+        placeOrder(YESTERDAY, desk, 3);
+        assertEquals(3, changeRepository.count());
+
+        // Three changes with a batch size of two: the job keeps going until the queue is empty
+        salesRollupJob.applyPending();
+
+        assertEquals(0, changeRepository.count());
+        assertEquals(List.of(YESTERDAY + " 1 3 300.00", TODAY + " 2 4 160.00"), dailySales());
+        assertEquals(List.of("Desk 2 4 400.00", "Lamp 2 3 60.00"), topProducts());
+        assertEquals(List.of("PENDING 3 460.00"), statusTotals());
+        assertEquals(List.of("Desk 2 4 400.00"),
+                salesAnalyticsService.getTopProducts(YESTERDAY, TODAY, 1).stream().map(SalesRollupJobTest::format).toList());
+        assertEquals(List.of(TODAY + " 2 4 160.00"),
+                salesAnalyticsService.getDailySales(TODAY, TODAY).stream().map(SalesRollupJobTest::format).toList());
+    }
+
+    @Test
+    void rebuild_ShouldReproduceIncrementalRollups() {
+        placeOrder(YESTERDAY.minusDays(2), lamp, 5);
+        placeOrder(YESTERDAY, lamp, 2, desk, 1);
+        placeOrder(TODAY, desk, 2);
+        salesRollupJob.applyPending();
+        List<String> daily = dailySales();
+        List<String> products = topProducts();
+        List<String> statuses = statusTotals();
+
+        RollupRebuildResponse response = salesRollupJob.rebuild();
+
+        assertEquals(4, response.getDays());
+        assertEquals(4, response.getChunks());
+        assertEquals(daily, dailySales());
+        assertEquals(products, topProducts());
+        assertEquals(statuses, statusTotals());
+    }
+
+    @Test
+    void rebuild_ShouldNotCountPendingChangesTwice() {
+        placeOrder(TODAY, lamp, 1);
+        salesRollupJob.rebuild();
+        placeOrder(TODAY, desk, 1);
+
+        // The first order's change was cleared by the rebuild; only the second is left
+        assertEquals(1, changeRepository.count());
+        salesRollupJob.applyPending();
+
+        assertEquals(List.of(TODAY + " 2 2 120.00"), dailySales());
+        assertEquals(List.of("Desk 1 1 100.00", "Lamp 1 1 20.00"), topProducts());
+    }
+
+    @Test
+    void rebuild_ShouldDropRollupsOfDaysThatNoLongerHaveOrders() {
+        placeOrder(YESTERDAY.minusDays(3), lamp, 1);
+        placeOrder(YESTERDAY, desk, 1);
+        placeOrder(TODAY, lamp, 2);
+        salesRollupJob.applyPending();
+        jdbcTemplate.update("DELETE FROM order_items WHERE order_id IN (SELECT id FROM orders WHERE order_date < ?)",
+                YESTERDAY.atStartOfDay());
+        jdbcTemplate.update("DELETE FROM orders WHERE order_date < ?", YESTERDAY.atStartOfDay());
+
+        salesRollupJob.rebuild();
+
+        assertEquals(List.of(YESTERDAY + " 1 1 100.00", TODAY + " 1 2 40.00"), dailySales());
+        assertEquals(List.of("Desk 1 1 100.00", "Lamp 1 2 40.00"), topProducts());
+        assertEquals(List.of("PENDING 2 140.00"), statusTotals());
+    }
+
+    @Test
+    void applyPending_ShouldSkipWhileAnotherInstanceHoldsTheLock() {
+        placeOrder(TODAY, lamp, 1);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.queryForList("SELECT name FROM job_locks WHERE name = ? FOR UPDATE", String.class,
+                    SalesRollupJob.LOCK_NAME);
+            CompletableFuture.runAsync(salesRollupJob::applyPending).join();
+        });
+
+        assertEquals(1, changeRepository.count());
+        assertEquals(List.of(), dailySales());
+
+        salesRollupJob.applyPending();
+
+        assertEquals(List.of(TODAY + " 1 1 20.00"), dailySales());
+    }
+
+    private void placeOrder(LocalDate day, Object... productsAndQuantities) {
+        Long orderId = orderService.createOrder(orderRequest(user.getId(), productsAndQuantities)).getId();
+        jdbcTemplate.update("UPDATE orders SET order_date = ? WHERE id = ?", day.atTime(12, 0), orderId);
+    }
+
+    private List<String> dailySales() {
+        return salesAnalyticsService.getDailySales(YESTERDAY.minusDays(7), TODAY).stream()
+                .map(SalesRollupJobTest::format).toList();
+    }
+
+    private List<String> topProducts() {
+        return salesAnalyticsService.getTopProducts(YESTERDAY.minusDays(7), TODAY, 10).stream()
+                .map(SalesRollupJobTest::format).toList();
+    }
+
+    private List<String> statusTotals() {
+        return salesAnalyticsService.getStatusTotals(YESTERDAY.minusDays(7), TODAY).stream()
+                .map(s -> s.getStatus() + " " + s.getOrders() + " " + scaled(s.getRevenue())).toList();
+    }
+
+    private static String format(DailySalesView sales) {
+        return sales.getSaleDate() + " " + sales.getOrders() + " " + sales.getUnits() + " " + scaled(sales.getRevenue());
+    }
+
+    private static String format(ProductSalesView sales) {
+        return sales.getProductName() + " " + sales.getOrders() + " " + sales.getUnits() + " "
+                + scaled(sales.getRevenue());
+    }
+
+    private static BigDecimal scaled(BigDecimal value) {
+        return value.setScale(2);
+    }
+}
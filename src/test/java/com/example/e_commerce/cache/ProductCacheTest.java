@@ -0,0 +1,142 @@
+package com.example.e_commerce.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import com.example.e_commerce.dto.ProductResponse;
+import com.example.e_commerce.event.ProductChangedEvent;
+
+class ProductCacheTest {
+
+    private ProductCache nodeA;
+    private ProductCache nodeB;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        // Two nodes sharing one in-process transport
+        LoopbackInvalidationTransport transport = new LoopbackInvalidationTransport();
+        nodeA = new ProductCache(new InvalidationBus(transport), 100, Duration.ofMinutes(1), 10, Duration.ofMinutes(1));
+        nodeB = new ProductCache(new InvalidationBus(transport), 100, Duration.ofMinutes(1), 10, Duration.ofMinutes(1));
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void getProduct_ShouldLoadOnceAndRecordHitsAndMisses() {
+        ProductResponse first = nodeA.getProduct(1L, this::load);
+        ProductResponse second = nodeA.getProduct(1L, this::load);
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals(1, nodeA.productStats().hitCount());
+        assertEquals(1, nodeA.productStats().missCount());
+    }
+
+    @Test
+    void onProductChanged_ShouldEvictEntryOnEveryNode() {
+        ProductResponse cachedOnA = nodeA.getProduct(1L, this::load);
+        ProductResponse cachedOnB = nodeB.getProduct(1L, this::load);
+
+        nodeA.onProductChanged(ProductChangedEvent.deleted(1L));
+
+        assertNotSame(cachedOnA, nodeA.getProduct(1L, this::load));
+        assertNotSame(cachedOnB, nodeB.getProduct(1L, this::load));
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void onProductChanged_ShouldEvictCachedPagesOnEveryNode() {
+        PageRequest pageable = PageRequest.of(0, 10);
+        Page<ProductResponse> cachedOnB = nodeB.getPage(pageable, p -> new PageImpl<>(List.of(load(1L)), p, 1));
+
+        nodeA.onProductChanged(ProductChangedEvent.saved(load(2L)));
+
+        assertNotSame(cachedOnB, nodeB.getPage(pageable, p -> new PageImpl<>(List.of(load(1L)), p, 1)));
+    }
+
+    @Test
+    void getProduct_ShouldNotCacheUnknownIds() {
+        nodeA.getProduct(99L, id -> null);
+        nodeA.getProduct(99L, this::load);
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void getProduct_ShouldRethrowLoaderExceptionAndNotCacheIt() {
+        IllegalStateException failure = new IllegalStateException("boom");
+
+        IllegalStateException thrown = assertThrows(IllegalStateException.class,
+                () -> nodeA.getProduct(1L, id -> { throw failure; }));
+        nodeA.getProduct(1L, this::load);
+
+        assertSame(failure, thrown);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void getProduct_ShouldShareOneInFlightLoadBetweenConcurrentCallers() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<ProductResponse> first = executor.submit(() -> nodeA.getProduct(1L, id -> {
+                loading.countDown();
+                await(release);
+                return load(id);
+            }));
+            loading.await();
+            Future<ProductResponse> second = executor.submit(() -> nodeA.getProduct(1L, this::load));
+            release.countDown();
+
+            assertSame(first.get(), second.get());
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void getProducts_ShouldLoadOnlyMissingIdsInOneCall() {
+        nodeA.getProduct(1L, this::load);
+        List<Set<Long>> calls = new ArrayList<>();
+
+        Map<Long, ProductResponse> products = nodeA.getProducts(List.of(1L, 2L, 3L), missing -> {
+            calls.add(Set.copyOf(missing));
+            return Map.of(2L, load(2L));
+        });
+
+        assertEquals(List.of(Set.of(2L, 3L)), calls);
+        assertEquals(Set.of(1L, 2L), products.keySet());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private ProductResponse load(Long id) {
+        loads.incrementAndGet();
+        return new ProductResponse(id, "Product " + id, null, new BigDecimal("10.00"), null);
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.e_commerce.cache;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.unit.DataSize;
+
+import com.example.e_commerce.dto.ProductResponse;
+import com.example.e_commerce.event.ProductChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class ProductJsonCacheTest {
+
+    private static final Instant UPDATED_AT = Instant.parse("2024-05-17T10:30:00.123456Z");
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private InvalidationBus otherNode;
+    private ProductJsonCache cache;
+
+    @BeforeEach
+    void setUp() {
+        LoopbackInvalidationTransport transport = new LoopbackInvalidationTransport();
+        otherNode = new InvalidationBus(transport);
+        cache = new ProductJsonCache(objectMapper, new InvalidationBus(transport), DataSize.ofMegabytes(1));
+    }
+
+    @Test
+    void toJson_ShouldMatchJackson_AndEncodeEachVersionOnce() throws Exception {
+        ProductResponse product = product(1L, 0L, "Lamp");
+
+        byte[] first = cache.toJson(product);
+        byte[] second = cache.toJson(product);
+
+        assertArrayEquals(objectMapper.writeValueAsBytes(product), first);
+        assertSame(first, second);
+        assertEquals(1, cache.stats().hitCount());
+
+        ProductResponse renamed = product(1L, 1L, "Desk lamp");
+        byte[] updated = cache.toJson(renamed);
+        assertNotSame(first, updated);
+        assertArrayEquals(objectMapper.writeValueAsBytes(renamed), updated);
+    }
+
+    @Test
+    void toJsonPage_ShouldWriteTheSameBytesAsJackson() throws Exception {
+        // Non-ASCII text, and a product larger than the generator's output buffer
+        ProductResponse large = product(3L, 2L, "Große Lampe ✨");
+        large.setDescription("x".repeat(20_000));
+        Page<ProductResponse> page = new PageImpl<>(List.of(product(1L, 0L, "Lamp"), product(2L, 5L, "Desk"), large),
+                PageRequest.of(0, 3), 10);
+        cache.toJson(page.getContent().get(0));
+
+        assertArrayEquals(objectMapper.writeValueAsBytes(page), objectMapper.writeValueAsBytes(cache.toJson(page)));
+        assertEquals(objectMapper.writeValueAsString(page), objectMapper.writeValueAsString(cache.toJson(page)));
+    }
+
+    @Test
+    void evict_ShouldDropEntries_LocallyAndFromOtherNodes() {
+        ProductResponse lamp = product(1L, 0L, "Lamp");
+        ProductResponse desk = product(2L, 0L, "Desk");
+        byte[] lampJson = cache.toJson(lamp);
+        byte[] deskJson = cache.toJson(desk);
+
+        cache.onProductChanged(ProductChangedEvent.deleted(1L));
+        otherNode.publish(ProductCache.REGION, Set.of(2L));
+
+        assertNotSame(lampJson, cache.toJson(lamp));
+        assertNotSame(deskJson, cache.toJson(desk));
+        assertEquals(0, cache.stats().hitCount());
+    }
+
+    private static ProductResponse product(Long id, Long version, String name) {
+        return new ProductResponse(id, name, "Description of " + name, new BigDecimal("19.99"),
+                "https://cdn.example.com/products/" + id + ".jpg", version, UPDATED_AT);
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.e_commerce.catalog;
+
+import static com.example.e_commerce.TestFixtures.product;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.e_commerce.QuietDataJpaTest;
+import com.example.e_commerce.cache.InvalidationBus;
+import com.example.e_commerce.cache.LoopbackInvalidationTransport;
+import com.example.e_commerce.cache.ProductCache;
+import com.example.e_commerce.dto.ProductResponse;
+import com.example.e_commerce.event.ProductChangedEvent;
+import com.example.e_commerce.model.Product;
+import com.example.e_commerce.repository.ProductRepository;
+import com.example.e_commerce.service.ProductService;
+
+/**
+ * Runs outside a test transaction: snapshots and reconciliation read committed rows.
+ */
+@QuietDataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CatalogSnapshotStoreTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path dir;
+
+    private Product lamp;
+    private Product desk;
+    private Product chair;
+
+    @BeforeEach
+    void setUp() {
+        lamp = productRepository.save(product("Lamp", "20.00"));
+        desk = productRepository.save(product("Desk", "100.00"));
+        chair = productRepository.save(product("Chair", "45.50"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void nextStartServesTheWrittenCatalogWithoutTheDatabase() {
+        store().writeSnapshot();
+
+        CatalogSnapshotStore restarted = store();
+        productRepository.deleteAll();
+
+        ProductResponse served = restarted.get(desk.getId());
+        assertEquals("Desk", served.getName());
+        assertEquals(0, new BigDecimal("100.00").compareTo(served.getPrice()));
+        assertEquals(ProductService.mapToResponse(desk).getVersion(), served.getVersion());
+        assertEquals(List.of(lamp.getId(), desk.getId(), chair.getId()),
+                restarted.products().stream().map(ProductResponse::getId).toList());
+        assertNull(restarted.get(chair.getId() + 1));
+    }
+
+    @Test
+    void reconcileStopsServingProductsChangedSinceTheSnapshot() {
+        store().writeSnapshot();
+        lamp.setPrice(new BigDecimal("25.00"));
+        productRepository.save(lamp);
+        productRepository.delete(desk);
+        Product sofa = productRepository.save(product("Sofa", "300.00"));
+
+        CatalogSnapshotStore restarted = store();
+        // Served as snapshotted until reconciled
+        assertEquals(0, new BigDecimal("20.00").compareTo(restarted.get(lamp.getId()).getPrice()));
+
+        Set<Long> changed = restarted.reconcile();
+
+        assertEquals(Set.of(lamp.getId(), desk.getId(), sofa.getId()), changed);
+        assertNull(restarted.get(lamp.getId()));
+        assertNull(restarted.get(desk.getId()));
+        assertNotNull(restarted.get(chair.getId()));
+        assertEquals(List.of(chair.getId()), restarted.products().stream().map(ProductResponse::getId).toList());
+    }
+
+    @Test
+    void productChangesWhileRunningBypassTheSnapshot() {
+        store().writeSnapshot();
+        CatalogSnapshotStore restarted = store();
+
+        restarted.onProductChanged(ProductChangedEvent.deleted(chair.getId()));
+        assertNull(restarted.get(chair.getId()));
+        assertNotNull(restarted.get(lamp.getId()));
+
+        restarted.onProductChanged(ProductChangedEvent.all());
+        assertNull(restarted.get(lamp.getId()));
+        assertTrue(restarted.products().isEmpty());
+        assertTrue(restarted.reconcile().isEmpty());
+    }
+
+    private CatalogSnapshotStore store() {
+        InvalidationBus bus = new InvalidationBus(new LoopbackInvalidationTransport());
+        ProductCache productCache = new ProductCache(bus, 100, Duration.ofMinutes(1), 10, Duration.ofMinutes(1));
+        return new CatalogSnapshotStore(productRepository, productCache, bus, transactionManager,
+                dir.resolve("catalog.snapshot").toString());
+    }
+}
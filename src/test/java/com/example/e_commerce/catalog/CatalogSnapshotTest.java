@@ -0,0 +1,87 @@
+package com.example.e_commerce.catalog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.example.e_commerce.dto.ProductResponse;
+
+class CatalogSnapshotTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTripsProductsAndFindsThemById() throws IOException {
+        Path file = dir.resolve("catalog.snapshot");
+        Instant updatedAt = Instant.parse("2024-05-01T10:15:30.123456789Z");
+        try (CatalogSnapshot.Writer writer = CatalogSnapshot.Writer.create(file)) {
+            for (long id = 1; id <= 5000; id++) {
+                writer.add(new ProductResponse(id * 2, "Lamp " + id, "Desk lamp, färg " + id,
+                        new BigDecimal("19.99").add(BigDecimal.valueOf(id)), "https://img/" + id + ".png", id % 7,
+                        updatedAt));
+            }
+            writer.add(new ProductResponse(20_000L, "Bare", null, null, null, null, null));
+            writer.commit();
+        }
+
+        CatalogSnapshot snapshot = CatalogSnapshot.open(file);
+        assertEquals(5001, snapshot.size());
+        ProductResponse lamp = snapshot.get(2468);
+        assertEquals("Lamp 1234", lamp.getName());
+        assertEquals("Desk lamp, färg 1234", lamp.getDescription());
+        assertEquals(new BigDecimal("1253.99"), lamp.getPrice());
+        assertEquals("https://img/1234.png", lamp.getImageUrl());
+        assertEquals(2L, lamp.getVersion());
+        assertEquals(updatedAt, lamp.getUpdatedAt());
+        assertEquals(0L, snapshot.versionAt(snapshot.indexOf(14)));
+
+        ProductResponse bare = snapshot.get(20_000);
+        assertEquals("Bare", bare.getName());
+        assertNull(bare.getDescription());
+        assertNull(bare.getPrice());
+        assertNull(bare.getVersion());
+        assertNull(bare.getUpdatedAt());
+
+        assertNull(snapshot.get(3));
+        assertNull(snapshot.get(0));
+        assertNull(snapshot.get(20_001));
+    }
+
+    @Test
+    void discardsUncommittedSnapshotsAndRejectsOutOfOrderIds() throws IOException {
+        Path file = dir.resolve("catalog.snapshot");
+        try (CatalogSnapshot.Writer writer = CatalogSnapshot.Writer.create(file)) {
+            writer.add(new ProductResponse(2L, "Lamp", null, BigDecimal.ONE, null, 0L, null));
+            assertThrows(IllegalArgumentException.class,
+                    () -> writer.add(new ProductResponse(1L, "Desk", null, BigDecimal.ONE, null, 0L, null)));
+        }
+
+        assertFalse(Files.exists(file));
+        assertFalse(Files.exists(dir.resolve("catalog.snapshot.tmp")));
+    }
+
+    @Test
+    void rejectsTruncatedFiles() throws IOException {
+        Path file = dir.resolve("catalog.snapshot");
+        try (CatalogSnapshot.Writer writer = CatalogSnapshot.Writer.create(file)) {
+            writer.add(new ProductResponse(1L, "Lamp", null, BigDecimal.ONE, null, 0L, null));
+            writer.commit();
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+
+        assertThrows(IOException.class, () -> CatalogSnapshot.open(file));
+    }
+}
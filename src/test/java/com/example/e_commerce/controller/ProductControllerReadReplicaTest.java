@@ -0,0 +1,105 @@
+package com.example.e_commerce.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.e_commerce.TestFixtures;
+import com.example.e_commerce.model.Product;
+import com.example.e_commerce.repository.ProductRepository;
+
+/**
+ * Goes through the web layer, where a request may run a read-only transaction on a
+ * replica before the primary read that fills the product cache. The replica holds
+ * the same product under another name, so the response shows which database the
+ * cached product came from.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:web-primary;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "app.datasource.replicas.urls=jdbc:h2:mem:web-replica;DB_CLOSE_DELAY=-1;IFEXISTS=TRUE",
+        "app.cache.invalidation.transport=loopback",
+        "app.trending.snapshot-file=",
+        "app.catalog.snapshot.file=" })
+@AutoConfigureMockMvc
+class ProductControllerReadReplicaTest {
+
+    private static final String REPLICA_URL = "jdbc:h2:mem:web-replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ProductRepository productRepository;
+
+    @BeforeAll
+    static void createReplica() throws SQLException {
+        execute("CREATE TABLE IF NOT EXISTS products (id BIGINT PRIMARY KEY, name VARCHAR(255), "
+                + "description VARCHAR(255), price DECIMAL(38, 2), image_url VARCHAR(255), "
+                + "stock_quantity INTEGER, version BIGINT NOT NULL, updated_at TIMESTAMP WITH TIME ZONE NOT NULL)");
+    }
+
+    @AfterEach
+    void cleanUp() throws SQLException {
+        productRepository.deleteAll();
+        execute("DELETE FROM products");
+    }
+
+    @Test
+    void getProductById_ShouldCacheThePrimaryRow_AfterAReplicaVersionCheck() throws Exception {
+        Product product = productRepository.save(TestFixtures.product("Primary", "10.00"));
+        insertIntoReplica(product.getId(), "Lagging replica");
+
+        // The conditional GET checks the version on the replica, then misses the cache
+        mockMvc.perform(get("/api/products/{id}", product.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Primary"));
+        mockMvc.perform(get("/api/products/{id}", product.getId()))
+                .andExpect(jsonPath("$.name").value("Primary"));
+    }
+
+    @Test
+    void getAllProducts_ShouldCacheThePrimaryPage_AfterAReplicaVersionCheck() throws Exception {
+        Product product = productRepository.save(TestFixtures.product("Primary", "10.00"));
+        insertIntoReplica(product.getId(), "Lagging replica");
+
+        mockMvc.perform(get("/api/products").header(HttpHeaders.IF_NONE_MATCH, "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name").value("Primary"));
+    }
+
+    private static void insertIntoReplica(Long id, String name) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(REPLICA_URL, "sa", "");
+                PreparedStatement insert = connection.prepareStatement("INSERT INTO products "
+                        + "(id, name, price, version, updated_at) VALUES (?, ?, 10.00, 0, CURRENT_TIMESTAMP)")) {
+            insert.setLong(1, id);
+            insert.setString(2, name);
+            insert.executeUpdate();
+        }
+    }
+
+    private static void execute(String sql) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(REPLICA_URL, "sa", "");
+                Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
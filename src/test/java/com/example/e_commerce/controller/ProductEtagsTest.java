@@ -0,0 +1,89 @@
+package com.example.e_commerce.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import com.example.e_commerce.QuietDataJpaTest;
+import com.example.e_commerce.dto.ProductVersionView;
+import com.example.e_commerce.model.Product;
+import com.example.e_commerce.repository.ProductRepository;
+import com.example.e_commerce.service.ProductService;
+
+/**
+ * The tags a conditional request is checked against come from the version lookup;
+ * the tags clients hold come from full responses. They must agree.
+ */
+@QuietDataJpaTest
+class ProductEtagsTest {
+
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 3, Sort.by("id"));
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private final List<Product> products = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 5; i++) {
+            Product product = new Product();
+            product.setName("Product " + i);
+            product.setPrice(new BigDecimal("10.00"));
+            products.add(productRepository.saveAndFlush(product));
+        }
+    }
+
+    @Test
+    void update_ShouldBumpVersion_AndChangeTheProductTag() {
+        Product product = products.get(0);
+        String before = ProductEtags.of(ProductService.mapToResponse(product));
+        Instant created = product.getUpdatedAt();
+        assertEquals(0L, product.getVersion());
+
+        product.setName("Renamed");
+        Product updated = productRepository.saveAndFlush(product);
+
+        ProductVersionView version = productRepository.findVersionById(product.getId()).orElseThrow();
+        assertEquals(1L, version.getVersion());
+        assertEquals(ProductEtags.of(ProductService.mapToResponse(updated)), ProductEtags.of(version));
+        assertNotEquals(before, ProductEtags.of(version));
+        assertTrue(version.getUpdatedAt().isAfter(created));
+    }
+
+    @Test
+    void pageTag_ShouldMatchFullPage_AndChangeWhenTheCatalogChanges() {
+        String fromVersions = ProductEtags.of(productRepository.findVersions(FIRST_PAGE));
+        assertEquals(pageTag(), fromVersions);
+
+        Product onPage = products.get(1);
+        onPage.setPrice(new BigDecimal("12.00"));
+        productRepository.saveAndFlush(onPage);
+        String afterUpdate = ProductEtags.of(productRepository.findVersions(FIRST_PAGE));
+        assertEquals(pageTag(), afterUpdate);
+        assertNotEquals(fromVersions, afterUpdate);
+
+        // Nothing on the first page changed, but its total did
+        productRepository.delete(products.get(4));
+        productRepository.flush();
+        String afterDelete = ProductEtags.of(productRepository.findVersions(FIRST_PAGE));
+        assertEquals(pageTag(), afterDelete);
+        assertNotEquals(afterUpdate, afterDelete);
+    }
+
+    private String pageTag() {
+        return ProductEtags.of(productRepository.findAll(FIRST_PAGE).map(ProductService::mapToResponse));
+    }
+}
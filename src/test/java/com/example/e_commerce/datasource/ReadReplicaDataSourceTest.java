@@ -0,0 +1,120 @@
+package com.example.e_commerce.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.e_commerce.QuietDataJpaTest;
+import com.example.e_commerce.config.ReadReplicaConfig;
+import com.example.e_commerce.model.User;
+import com.example.e_commerce.repository.UserRepository;
+import com.example.e_commerce.service.PasswordHasher;
+import com.example.e_commerce.service.UserService;
+
+/**
+ * Two in-memory H2 databases stand in for the primary and a replica. The replica
+ * gets its table and rows by hand, with names that differ from the primary's, so
+ * each read shows which database answered it.
+ */
+@QuietDataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "app.datasource.replicas.urls=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1;IFEXISTS=TRUE" })
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ ReadReplicaConfig.class, UserService.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReadReplicaDataSourceTest {
+
+    private static final String REPLICA_URL = "jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ReadReplicaDataSource readReplicaDataSource;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockitoBean
+    private PasswordHasher passwordHasher;
+
+    @BeforeAll
+    static void createReplica() throws SQLException {
+        execute("CREATE TABLE IF NOT EXISTS users (id BIGINT PRIMARY KEY, name VARCHAR(255), "
+                + "email VARCHAR(255), password VARCHAR(255), created_at TIMESTAMP)");
+    }
+
+    @AfterEach
+    void cleanUp() throws SQLException {
+        userRepository.deleteAll();
+        execute("DELETE FROM users");
+    }
+
+    @Test
+    void readOnlyTransactions_ShouldUseReplica_WhileOtherTransactionsUsePrimary() throws SQLException {
+        User user = userRepository.save(new User(null, "On primary", "alice@example.com", "hash"));
+        insertIntoReplica(user.getId(), "On replica");
+
+        assertEquals("On replica", userService.getUserById(user.getId()).getName());
+        assertEquals("On primary", new TransactionTemplate(transactionManager)
+                .execute(status -> userRepository.findById(user.getId()).orElseThrow().getName()));
+    }
+
+    @Test
+    void readOnlyTransactions_ShouldUsePrimary_UntilReplicaIsHealthyAgain() throws SQLException {
+        User user = userRepository.save(new User(null, "On primary", "alice@example.com", "hash"));
+        insertIntoReplica(user.getId(), "On replica");
+        assertEquals("On replica", userService.getUserById(user.getId()).getName());
+
+        execute("SHUTDOWN");
+        readReplicaDataSource.checkHealth();
+
+        assertEquals(0, readReplicaDataSource.getHealthyReplicas());
+        assertEquals("On primary", userService.getUserById(user.getId()).getName());
+
+        createReplica();
+        insertIntoReplica(user.getId(), "On replica again");
+        // Still skipped until a health check has seen it come back
+        assertEquals("On primary", userService.getUserById(user.getId()).getName());
+
+        readReplicaDataSource.checkHealth();
+
+        assertEquals(1, readReplicaDataSource.getHealthyReplicas());
+        assertEquals("On replica again", userService.getUserById(user.getId()).getName());
+    }
+
+    private static void insertIntoReplica(Long id, String name) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(REPLICA_URL, "sa", "");
+                PreparedStatement insert = connection.prepareStatement(
+                        "INSERT INTO users (id, name, email, password) VALUES (?, ?, 'alice@example.com', 'hash')")) {
+            insert.setLong(1, id);
+            insert.setString(2, name);
+            insert.executeUpdate();
+        }
+    }
+
+    private static void execute(String sql) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(REPLICA_URL, "sa", "");
+                Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.e_commerce.index;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.mockito.Mockito.mock;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.example.e_commerce.cache.InvalidationBus;
+import com.example.e_commerce.cache.LoopbackInvalidationTransport;
+import com.example.e_commerce.catalog.CatalogSnapshotStore;
+import com.example.e_commerce.dto.ProductResponse;
+import com.example.e_commerce.event.ProductChangedEvent;
+import com.example.e_commerce.repository.ProductRepository;
+
+class ProductIndexMaintainerTest {
+
+    private ProductPriceIndex index;
+    private ProductIndexMaintainer maintainer;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductPriceIndex();
+        maintainer = new ProductIndexMaintainer(mock(ProductRepository.class), List.of(index),
+                mock(CatalogSnapshotStore.class), new InvalidationBus(new LoopbackInvalidationTransport()),
+                mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    void onProductChanged_ShouldKeepTheNewerVersion_WhenCommitsArriveOutOfOrder() {
+        maintainer.onProductChanged(ProductChangedEvent.saved(product(1L, "30.00", 2L)));
+        maintainer.onProductChanged(ProductChangedEvent.saved(product(1L, "10.00", 1L)));
+
+        assertArrayEquals(new long[] {}, pricedUpTo("20.00"));
+        assertArrayEquals(new long[] { 1L }, pricedUpTo("30.00"));
+
+        maintainer.onProductChanged(ProductChangedEvent.saved(product(1L, "15.00", 3L)));
+
+        assertArrayEquals(new long[] { 1L }, pricedUpTo("20.00"));
+    }
+
+    @Test
+    void onProductChanged_ShouldNotBringBackDeletedProducts() {
+        maintainer.onProductChanged(ProductChangedEvent.saved(product(1L, "10.00", 0L)));
+        maintainer.onProductChanged(ProductChangedEvent.deleted(1L));
+        maintainer.onProductChanged(ProductChangedEvent.saved(product(1L, "10.00", 1L)));
+
+        assertArrayEquals(new long[] {}, pricedUpTo("100.00"));
+    }
+
+    private long[] pricedUpTo(String price) {
+        return index.range(BigDecimal.ZERO, new BigDecimal(price), false, 0, 10).getIds();
+    }
+
+    private static ProductResponse product(Long id, String price, Long version) {
+        return new ProductResponse(id, "Lamp", null, new BigDecimal(price), null, version, null);
+    }
+}
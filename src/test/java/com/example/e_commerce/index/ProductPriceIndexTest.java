@@ -0,0 +1,71 @@
+package com.example.e_commerce.index;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.e_commerce.dto.ProductResponse;
+
+class ProductPriceIndexTest {
+
+    private ProductPriceIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductPriceIndex();
+        index.rebuild(List.of(
+                product(1L, "10.00"),
+                product(2L, "25.50"),
+                product(3L, "10.00"),
+                product(4L, "99.99"),
+                product(5L, "5.00")));
+    }
+
+    @Test
+    void range_ShouldReturnIdsInPriceOrderWithTiesById() {
+        ProductPriceIndex.RangeResult result = index.range(new BigDecimal("10"), new BigDecimal("30"), false, 0, 10);
+
+        assertArrayEquals(new long[] { 1L, 3L, 2L }, result.getIds());
+        assertEquals(3, result.getTotal());
+    }
+
+    @Test
+    void range_ShouldTreatDecimalBoundsExactly() {
+        assertArrayEquals(new long[] { 2L }, index.range(new BigDecimal("10.001"), new BigDecimal("25.50"), false, 0, 10).getIds());
+        assertArrayEquals(new long[] { 1L, 3L }, index.range(new BigDecimal("9.999"), new BigDecimal("25.499"), false, 0, 10).getIds());
+        assertEquals(0, index.range(new BigDecimal("10.001"), new BigDecimal("10.009"), false, 0, 10).getTotal());
+        assertEquals(5, index.range(new BigDecimal("-1E+30"), new BigDecimal("1E+30"), false, 0, 10).getTotal());
+    }
+
+    @Test
+    void range_ShouldPageInDescendingOrder() {
+        ProductPriceIndex.RangeResult firstPage = index.range(BigDecimal.ZERO, new BigDecimal("100"), true, 0, 2);
+        ProductPriceIndex.RangeResult lastPage = index.range(BigDecimal.ZERO, new BigDecimal("100"), true, 4, 2);
+
+        assertArrayEquals(new long[] { 4L, 2L }, firstPage.getIds());
+        assertArrayEquals(new long[] { 5L }, lastPage.getIds());
+        assertEquals(5, lastPage.getTotal());
+        assertEquals(0, index.range(BigDecimal.ZERO, new BigDecimal("100"), true, 10, 2).getIds().length);
+    }
+
+    @Test
+    void upsertAndRemove_ShouldKeepArraysSorted() {
+        index.upsert(product(4L, "1.00"));
+        index.upsert(product(6L, "10.00"));
+        index.remove(1L);
+        index.remove(42L);
+
+        assertArrayEquals(new long[] { 4L, 5L, 3L, 6L, 2L },
+                index.range(BigDecimal.ZERO, new BigDecimal("100"), false, 0, 10).getIds());
+        assertEquals(5, index.size());
+    }
+
+    private ProductResponse product(Long id, String price) {
+        return new ProductResponse(id, "Product " + id, null, new BigDecimal(price), null);
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.e_commerce.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import com.example.e_commerce.dto.ProductResponse;
+
+class ProductSearchIndexTest {
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex();
+        index.rebuild(List.of(
+                product(1L, "Gaming Laptop", "High-performance laptop for gamers"),
+                product(2L, "Laptop Bag", "Padded bag"),
+                product(3L, "Mechanical Keyboard", "RGB keyboard, great with any gaming laptop"),
+                product(4L, "Desk Lamp", "LED lamp")));
+    }
+
+    @Test
+    void search_ShouldRankNameMatchesAboveDescriptionMatches() {
+        Page<ProductResponse> results = index.search("laptop", PageRequest.of(0, 10));
+
+        assertEquals(3, results.getTotalElements());
+        assertEquals(1L, results.getContent().get(0).getId());
+        assertEquals(3L, results.getContent().get(2).getId());
+    }
+
+    @Test
+    void search_ShouldRequireEveryTokenAndIgnoreCaseAndPunctuation() {
+        Page<ProductResponse> results = index.search("GAMING, laptop!", PageRequest.of(0, 10));
+
+        assertEquals(List.of(1L, 3L), results.getContent().stream().map(ProductResponse::getId).toList());
+    }
+
+    @Test
+    void search_ShouldMatchPrefixesBelowExactTerms() {
+        index.upsert(product(5L, "Lap desk", null));
+
+        Page<ProductResponse> results = index.search("lap", PageRequest.of(0, 10));
+
+        assertEquals(5L, results.getContent().get(0).getId());
+        assertTrue(results.getTotalElements() >= 3);
+    }
+
+    @Test
+    void search_ShouldPaginateRankedResults() {
+        Page<ProductResponse> firstPage = index.search("laptop", PageRequest.of(0, 2));
+        Page<ProductResponse> secondPage = index.search("laptop", PageRequest.of(1, 2));
+
+        assertEquals(2, firstPage.getContent().size());
+        assertEquals(1, secondPage.getContent().size());
+        assertEquals(3L, secondPage.getContent().get(0).getId());
+        assertEquals(2, firstPage.getTotalPages());
+    }
+
+    @Test
+    void upsertAndRemove_ShouldUpdateIndexIncrementally() {
+        index.upsert(product(2L, "Travel Backpack", "Padded bag"));
+        index.remove(4L);
+
+        assertEquals(2, index.search("laptop", PageRequest.of(0, 10)).getTotalElements());
+        assertEquals(2L, index.search("backpack", PageRequest.of(0, 10)).getContent().get(0).getId());
+        assertTrue(index.search("lamp", PageRequest.of(0, 10)).isEmpty());
+        assertEquals(3, index.size());
+    }
+
+    private ProductResponse product(Long id, String name, String description) {
+        return new ProductResponse(id, name, description, new BigDecimal("10.00"), null);
+    }
+}
@@ -0,0 +1,233 @@
+package com.example.e_commerce.ingestion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.spy;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.unit.DataSize;
+
+import com.example.e_commerce.QuietDataJpaTest;
+import com.example.e_commerce.dto.IngestionResponse;
+import com.example.e_commerce.dto.OrderRequest;
+import com.example.e_commerce.exception.BadRequestException;
+import com.example.e_commerce.exception.ResourceNotFoundException;
+import com.example.e_commerce.model.Product;
+import com.example.e_commerce.model.User;
+import com.example.e_commerce.repository.OrderRepository;
+import com.example.e_commerce.repository.ProductRepository;
+import com.example.e_commerce.repository.UserRepository;
+import com.example.e_commerce.service.InventoryService;
+import com.example.e_commerce.service.OrderBatchService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Runs outside a test transaction, since orders are written by the consumer thread.
+ */
+@QuietDataJpaTest(properties = {
+        "app.orders.ingestion.enabled=true",
+        "app.orders.ingestion.batch-size=20" })
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({ OrderIngestionService.class, OrderBatchService.class, InventoryService.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderIngestionServiceTest {
+
+    private static final Duration WAIT = Duration.ofSeconds(20);
+
+    @DynamicPropertySource
+    static void logDirectory(DynamicPropertyRegistry registry) throws IOException {
+        Path directory = Files.createTempDirectory("order-log");
+        registry.add("app.orders.ingestion.log-dir", directory::toString);
+    }
+
+    @TempDir
+    Path restartDirectory;
+
+    @Autowired
+    private OrderIngestionService ingestionService;
+    @Autowired
+    private OrderBatchService orderBatchService;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(new User(null, "Partner", "partner@example.com", "pass"));
+        Product lamp = new Product();
+        lamp.setName("Lamp");
+        lamp.setPrice(new BigDecimal("19.99"));
+        lamp.setStockQuantity(1_000);
+        product = productRepository.save(lamp);
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void submit_ShouldAcceptImmediately_AndCommitInTheBackground() throws Exception {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            IngestionResponse accepted = ingestionService.submit(orderRequest(product.getId(), 2));
+            assertEquals(IngestionResponse.ACCEPTED, accepted.getStatus());
+            ids.add(accepted.getIngestionId());
+        }
+
+        for (UUID id : ids) {
+            IngestionResponse status = awaitFinished(ingestionService, id);
+            assertEquals(IngestionResponse.COMMITTED, status.getStatus());
+            assertTrue(orderRepository.existsById(status.getOrderId()));
+        }
+        assertEquals(50, orderRepository.count());
+        assertEquals(900, productRepository.findById(product.getId()).orElseThrow().getStockQuantity());
+    }
+
+    @Test
+    void submit_ShouldRejectMalformedOrder_AndReportOrdersThatFailToPersist() throws Exception {
+        assertThrows(BadRequestException.class, () -> ingestionService.submit(orderRequest(product.getId(), 0)));
+
+        IngestionResponse accepted = ingestionService.submit(orderRequest(Long.MAX_VALUE, 1));
+        IngestionResponse status = awaitFinished(ingestionService, accepted.getIngestionId());
+
+        assertEquals(IngestionResponse.FAILED, status.getStatus());
+        assertEquals("Product not found with id: " + Long.MAX_VALUE, status.getError());
+        assertThrows(ResourceNotFoundException.class, () -> ingestionService.getStatus(UUID.randomUUID()));
+    }
+
+    @Test
+    void start_ShouldReplayLoggedOrders_WithoutDuplicatingCommittedOnes() throws Exception {
+        // Orders logged before a crash; the first had already reached the database
+        Instant acceptedAt = Instant.now().minus(Duration.ofDays(1)).truncatedTo(ChronoUnit.SECONDS);
+        OrderIngestionService.IngestedOrder committed = ingested(acceptedAt);
+        OrderIngestionService.IngestedOrder pending = ingested(acceptedAt);
+        orderBatchService.createOrders(List.of(committed.order()), List.of(committed.ingestionId()),
+                List.of(committed.acceptedAt()));
+        try (OrderLog log = new OrderLog(restartDirectory, DataSize.ofMegabytes(1).toBytes())) {
+            log.append(List.of(objectMapper.writeValueAsBytes(committed), objectMapper.writeValueAsBytes(pending)));
+        }
+
+        OrderIngestionService restarted = new OrderIngestionService(orderBatchService, orderRepository,
+                objectMapper, transactionManager, restartDirectory, DataSize.ofMegabytes(1), 100, 20,
+                Duration.ofSeconds(2), Duration.ofHours(1));
+        restarted.start();
+        try {
+            assertEquals(IngestionResponse.COMMITTED, awaitFinished(restarted, pending.ingestionId()).getStatus());
+            assertEquals(IngestionResponse.COMMITTED, awaitFinished(restarted, committed.ingestionId()).getStatus());
+            assertEquals(2, orderRepository.count());
+            // Dated when it was accepted, not when the replay wrote it
+            Long pendingOrderId = orderRepository.findIdByIngestionId(pending.ingestionId()).orElseThrow();
+            assertEquals(LocalDateTime.ofInstant(acceptedAt, ZoneId.systemDefault()),
+                    orderRepository.findById(pendingOrderId).orElseThrow().getOrderDate());
+        } finally {
+            restarted.stop();
+        }
+
+        // The checkpoint now covers both orders, so nothing is replayed again
+        OrderIngestionService again = new OrderIngestionService(orderBatchService, orderRepository,
+                objectMapper, transactionManager, restartDirectory, DataSize.ofMegabytes(1), 100, 20,
+                Duration.ofSeconds(2), Duration.ofHours(1));
+        again.start();
+        again.stop();
+        assertEquals(2, orderRepository.count());
+    }
+
+    @Test
+    void consumer_ShouldFailAnOrderThatKeepsFailing_WithoutHoldingUpTheRest() throws Exception {
+        // Throws for any batch holding the 13-lamp order, as a bug while loading references would
+        OrderBatchService failing = spy(orderBatchService);
+        doAnswer(invocation -> {
+            List<OrderRequest> requests = invocation.getArgument(0);
+            if (requests.stream().anyMatch(request -> request.getItems().get(0).getQuantity() == 13)) {
+                throw new IllegalStateException("cannot load references");
+            }
+            return invocation.callRealMethod();
+        }).when(failing).createOrders(anyList(), anyList(), anyList());
+
+        OrderIngestionService service = new OrderIngestionService(failing, orderRepository, objectMapper,
+                transactionManager, restartDirectory, DataSize.ofMegabytes(1), 100, 20, Duration.ofSeconds(2),
+                Duration.ofHours(1));
+        service.start();
+        try {
+            UUID before = service.submit(orderRequest(product.getId(), 1)).getIngestionId();
+            UUID poisoned = service.submit(orderRequest(product.getId(), 13)).getIngestionId();
+            UUID after = service.submit(orderRequest(product.getId(), 2)).getIngestionId();
+
+            assertEquals(IngestionResponse.COMMITTED, awaitFinished(service, before).getStatus());
+            IngestionResponse failed = awaitFinished(service, poisoned);
+            assertEquals(IngestionResponse.FAILED, failed.getStatus());
+            assertEquals("Order could not be stored: cannot load references", failed.getError());
+            assertEquals(IngestionResponse.COMMITTED, awaitFinished(service, after).getStatus());
+            assertEquals(2, orderRepository.count());
+        } finally {
+            service.stop();
+        }
+    }
+
+    private OrderIngestionService.IngestedOrder ingested(Instant acceptedAt) {
+        return new OrderIngestionService.IngestedOrder(UUID.randomUUID(), acceptedAt,
+                orderRequest(product.getId(), 1));
+    }
+
+    private static IngestionResponse awaitFinished(OrderIngestionService service, UUID id) throws InterruptedException {
+        Instant deadline = Instant.now().plus(WAIT);
+        IngestionResponse status = service.getStatus(id);
+        while ((IngestionResponse.LOGGING.equals(status.getStatus())
+                || IngestionResponse.ACCEPTED.equals(status.getStatus())) && Instant.now().isBefore(deadline)) {
+            Thread.sleep(20);
+            status = service.getStatus(id);
+        }
+        return status;
+    }
+
+    private OrderRequest orderRequest(Long productId, int quantity) {
+        OrderRequest.OrderItemRequest item = new OrderRequest.OrderItemRequest();
+        item.setProductId(productId);
+        item.setQuantity(quantity);
+        OrderRequest request = new OrderRequest();
+        request.setUserId(user.getId());
+        request.setItems(List.of(item));
+        return request;
+    }
+}
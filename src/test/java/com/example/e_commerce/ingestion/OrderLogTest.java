@@ -0,0 +1,126 @@
+package com.example.e_commerce.ingestion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class OrderLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replay_ShouldReturnAppendedRecordsInOrder_AfterReopening() throws IOException {
+        try (OrderLog log = new OrderLog(directory, 1024)) {
+            log.append(records("a", "b"));
+            log.append(records("c"));
+        }
+
+        try (OrderLog log = new OrderLog(directory, 1024)) {
+            assertEquals(List.of("a", "b", "c"), replay(log, OrderLog.Position.START));
+            log.append(records("d"));
+            assertEquals(List.of("a", "b", "c", "d"), replay(log, OrderLog.Position.START));
+        }
+    }
+
+    @Test
+    void replay_ShouldStartAfterCheckpoint_AndDeleteSegmentsBeforeIt() throws IOException {
+        try (OrderLog log = new OrderLog(directory, 64)) {
+            List<OrderLog.Position> ends = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                // Records of 8 + 30 bytes: each segment holds two before rolling
+                ends.addAll(log.append(records(String.format("%030d", i))));
+            }
+            assertEquals(5, segmentCount());
+
+            log.checkpoint(ends.get(6));
+
+            assertEquals(ends.get(6), log.readCheckpoint());
+            List<String> remaining = replay(log, log.readCheckpoint());
+            assertEquals(List.of(String.format("%030d", 7), String.format("%030d", 8), String.format("%030d", 9)),
+                    remaining);
+            assertEquals(2, segmentCount());
+        }
+    }
+
+    @Test
+    void open_ShouldCutOffTornRecordAtTheEnd() throws IOException {
+        try (OrderLog log = new OrderLog(directory, 1024)) {
+            log.append(records("complete"));
+        }
+        Path segment = segments().get(0);
+        long intact = Files.size(segment);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.APPEND)) {
+            // A length header promising more bytes than were written before the crash
+            channel.write(ByteBuffer.allocate(10).putInt(100).putInt(0).flip());
+        }
+
+        try (OrderLog log = new OrderLog(directory, 1024)) {
+            assertEquals(intact, Files.size(segment));
+            log.append(records("after restart"));
+            assertEquals(List.of("complete", "after restart"), replay(log, OrderLog.Position.START));
+        }
+    }
+
+    @Test
+    void replay_ShouldStopAtCorruptedRecord() throws IOException {
+        try (OrderLog log = new OrderLog(directory, 1024)) {
+            log.append(records("first", "second"));
+        }
+        Path segment = segments().get(0);
+        byte[] bytes = Files.readAllBytes(segment);
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(segment, bytes);
+
+        try (OrderLog log = new OrderLog(directory, 1024)) {
+            assertEquals(List.of("first"), replay(log, OrderLog.Position.START));
+        }
+    }
+
+    private static List<byte[]> records(String... values) {
+        return Stream.of(values).map(value -> value.getBytes(StandardCharsets.UTF_8)).toList();
+    }
+
+    @Test
+    void readCheckpoint_ShouldStartOver_WhenCheckpointIsTornOrEmpty() throws IOException {
+        try (OrderLog log = new OrderLog(directory, 1024)) {
+            log.append(records("a", "b"));
+
+            // Renamed into place but its contents never reached the disk
+            Files.writeString(directory.resolve("checkpoint"), "\0\0\0\0", StandardCharsets.US_ASCII);
+            assertEquals(OrderLog.Position.START, log.readCheckpoint());
+
+            Files.writeString(directory.resolve("checkpoint"), "0 ", StandardCharsets.US_ASCII);
+            assertEquals(OrderLog.Position.START, log.readCheckpoint());
+            assertEquals(List.of("a", "b"), replay(log, log.readCheckpoint()));
+        }
+    }
+
+    private static List<String> replay(OrderLog log, OrderLog.Position from) throws IOException {
+        List<String> values = new ArrayList<>();
+        log.replay(from, (payload, end) -> values.add(new String(payload, StandardCharsets.UTF_8)));
+        return values;
+    }
+
+    private long segmentCount() throws IOException {
+        return segments().size();
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".log")).sorted().toList();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.e_commerce.limit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+
+class ConcurrencyLimitFilterTest {
+
+    private SimpleMeterRegistry registry;
+    private ConcurrencyLimiter limiter;
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        // A fixed limit of 5, of which other requests may use 3
+        limiter = new ConcurrencyLimiter("shop", new VegasLimit(5, 5, 5), 0.6);
+        ConcurrencyLimiter users = new ConcurrencyLimiter("users", new VegasLimit(5, 5, 5), 0.6);
+        filter = new ConcurrencyLimitFilter(
+                List.of(new ConcurrencyLimitFilter.Group(limiter, List.of("/api/orders/**", "/api/products/**")),
+                        new ConcurrencyLimitFilter.Group(users, List.of("/api/users/**"))),
+                List.of("GET /api/products/**"), 2, Jackson2ObjectMapperBuilder.json().build());
+        filter.bindTo(registry);
+    }
+
+    @Test
+    void doFilter_ShouldShedWritesFirst_AndKeepServingProductReads() throws Exception {
+        List<ConcurrencyLimiter.Permit> held = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            held.add(limiter.tryAcquire(ConcurrencyLimiter.Priority.LOW).orElseThrow());
+        }
+
+        MockHttpServletResponse checkout = run("POST", "/api/orders");
+        assertEquals(503, checkout.getStatus());
+        assertEquals("2", checkout.getHeader("Retry-After"));
+        assertTrue(checkout.getContentAsString().contains("\"message\":\"Service is busy, please retry\""));
+
+        MockHttpServletResponse productRead = run("GET", "/api/products/1");
+        assertEquals(200, productRead.getStatus());
+
+        // Reads get the rest of the limit, then they are shed too
+        held.add(limiter.tryAcquire(ConcurrencyLimiter.Priority.HIGH).orElseThrow());
+        held.add(limiter.tryAcquire(ConcurrencyLimiter.Priority.HIGH).orElseThrow());
+        assertEquals(503, run("GET", "/api/products/1").getStatus());
+
+        assertEquals(1.0, registry.get("shop.requests.rejected").tags("group", "shop", "priority", "low")
+                .functionCounter().count());
+        assertEquals(1.0, registry.get("shop.requests.rejected").tags("group", "shop", "priority", "high")
+                .functionCounter().count());
+        assertEquals(5.0, registry.get("shop.requests.concurrency.in.flight").tag("group", "shop").gauge().value());
+        assertEquals(5.0, registry.get("shop.requests.concurrency.limit").tag("group", "shop").gauge().value());
+
+        // Other groups have limits of their own
+        assertEquals(200, run("POST", "/api/users").getStatus());
+
+        held.forEach(permit -> permit.complete(false));
+        assertEquals(200, run("POST", "/api/orders").getStatus());
+    }
+
+    @Test
+    void doFilter_ShouldPassOtherPathsThrough_EvenWhenFull() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire(ConcurrencyLimiter.Priority.HIGH).orElseThrow();
+        }
+
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(new MockHttpServletRequest("GET", "/actuator/health"), new MockHttpServletResponse(), chain);
+
+        assertNotNull(chain.getRequest());
+    }
+
+    @Test
+    void doFilter_ShouldReleaseTheSlot_WhenTheHandlerFails() {
+        FilterChain failing = (request, response) -> {
+            throw new ServletException("boom");
+        };
+
+        assertThrows(ServletException.class, () -> filter.doFilter(new MockHttpServletRequest("POST", "/api/orders"),
+                new MockHttpServletResponse(), failing));
+
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void doFilter_ShouldUseTheMostSpecificGroup_SoExportsDoNotTakeCheckoutSlots() throws Exception {
+        ConcurrencyLimiter exports = new ConcurrencyLimiter("exports", new VegasLimit(5, 5, 5), 0.6);
+        filter = new ConcurrencyLimitFilter(
+                List.of(new ConcurrencyLimitFilter.Group(limiter, List.of("/api/orders/**")),
+                        new ConcurrencyLimitFilter.Group(exports, List.of("GET /api/orders/export"))),
+                List.of(), 2, Jackson2ObjectMapperBuilder.json().build());
+        for (int i = 0; i < 3; i++) {
+            exports.tryAcquire(ConcurrencyLimiter.Priority.LOW).orElseThrow();
+        }
+
+        assertEquals(503, run("GET", "/api/orders/export").getStatus());
+        assertEquals(200, run("POST", "/api/orders").getStatus());
+        assertEquals(200, run("GET", "/api/orders/7").getStatus());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    private MockHttpServletResponse run(String method, String path) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(new MockHttpServletRequest(method, path), response, chain);
+        if (response.getStatus() == 503) {
+            assertNull(chain.getRequest());
+        }
+        return response;
+    }
+}
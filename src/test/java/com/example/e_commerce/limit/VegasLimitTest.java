@@ -0,0 +1,82 @@
+package com.example.e_commerce.limit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class VegasLimitTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(40);
+
+    @Test
+    void onSample_ShouldRaiseLimit_WhileLatencyStaysAtBaselineAndTheLimitIsUsed() {
+        VegasLimit limit = new VegasLimit(20, 4, 100);
+
+        for (int i = 0; i < 15; i++) {
+            window(limit, FAST, limit.getLimit(), false);
+        }
+
+        assertEquals(100, limit.getLimit());
+    }
+
+    @Test
+    void onSample_ShouldLowerLimit_UntilTheEstimatedQueueIsShort_WhenLatencyRises() {
+        VegasLimit limit = new VegasLimit(20, 4, 100);
+        window(limit, FAST, 20, false);
+
+        for (int i = 0; i < 15; i++) {
+            window(limit, SLOW, limit.getLimit(), false);
+        }
+
+        // At four times the baseline, three quarters of the limit is queueing; it
+        // settles once that is within six queued requests
+        assertEquals(7, limit.getLimit());
+    }
+
+    @Test
+    void onSample_ShouldIgnoreOutliers_WithinAWindow() {
+        VegasLimit limit = new VegasLimit(20, 4, 100);
+        window(limit, FAST, 20, false);
+
+        for (int i = 0; i < 15; i++) {
+            for (int j = 0; j < VegasLimit.WINDOW_SIZE; j++) {
+                // One request in four stalls
+                limit.onSample(j % 4 == 0 ? SLOW * 10 : FAST, limit.getLimit(), false);
+            }
+        }
+
+        assertEquals(100, limit.getLimit());
+    }
+
+    @Test
+    void onSample_ShouldKeepLimit_WhenMostOfItIsUnused() {
+        VegasLimit limit = new VegasLimit(20, 4, 100);
+        window(limit, FAST, 20, false);
+
+        for (int i = 0; i < 15; i++) {
+            window(limit, SLOW, 2, false);
+        }
+
+        assertEquals(20, limit.getLimit());
+    }
+
+    @Test
+    void onSample_ShouldLowerLimit_WhenRequestsAreDropped() {
+        VegasLimit limit = new VegasLimit(20, 4, 100);
+        window(limit, FAST, 20, false);
+
+        window(limit, FAST, 1, true);
+
+        assertTrue(limit.getLimit() < 20);
+    }
+
+    private static void window(VegasLimit limit, long latencyNanos, int inFlight, boolean dropped) {
+        for (int i = 0; i < VegasLimit.WINDOW_SIZE; i++) {
+            limit.onSample(latencyNanos, inFlight, dropped && i == 0);
+        }
+    }
+}
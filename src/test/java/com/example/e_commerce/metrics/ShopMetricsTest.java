@@ -0,0 +1,79 @@
+package com.example.e_commerce.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.example.e_commerce.event.OrderCreatedEvent;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+class ShopMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private ShopMetrics shopMetrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        shopMetrics = new ShopMetrics(registry);
+    }
+
+    @Test
+    void onOrderCreated_ShouldCountOrderAndRecordItemsAndValue() {
+        shopMetrics.onOrderCreated(new OrderCreatedEvent(1L, 7L, 3, new BigDecimal("149.97"), "PENDING",
+                LocalDateTime.now(), Map.of(1L, 3)));
+        shopMetrics.onOrderCreated(new OrderCreatedEvent(2L, 7L, 1, new BigDecimal("20.00"), "PENDING",
+                LocalDateTime.now(), Map.of(1L, 3)));
+
+        assertEquals(2.0, registry.get("shop.orders.created").counter().count());
+        assertEquals(4.0, registry.get("shop.order.items").summary().totalAmount());
+        assertEquals(169.97, registry.get("shop.order.value").summary().totalAmount(), 0.001);
+    }
+
+    @Test
+    void recordSearch_ShouldCountOutcomes() {
+        shopMetrics.recordSearch(12);
+        shopMetrics.recordSearch(0);
+        shopMetrics.recordSearch(3);
+
+        assertEquals(2.0, registry.get("shop.product.searches").tag("outcome", "hit").counter().count());
+        assertEquals(1.0, registry.get("shop.product.searches").tag("outcome", "empty").counter().count());
+        assertEquals(15.0, registry.get("shop.product.search.hits").summary().totalAmount());
+    }
+
+    @Test
+    void requestStatementMetricsFilter_ShouldRecordStatementsPerUriTemplate() throws Exception {
+        StatementCountingInspector inspector = new StatementCountingInspector();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/orders/user/7");
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                inspector.inspect("select 1");
+                inspector.inspect("select 2");
+                req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/orders/user/{userId}");
+            }
+        });
+        inspector.inspect("select from an earlier request on this thread");
+
+        new RequestStatementMetricsFilter(registry).doFilter(request, new MockHttpServletResponse(), chain);
+
+        DistributionSummary statements = registry.get("http.server.requests.statements")
+                .tag("uri", "/api/orders/user/{userId}").tag("method", "GET").summary();
+        assertEquals(1, statements.count());
+        assertEquals(2.0, statements.totalAmount());
+    }
+}
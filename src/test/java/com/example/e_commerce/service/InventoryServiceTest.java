@@ -0,0 +1,231 @@
+package com.example.e_commerce.service;
+
+import static com.example.e_commerce.TestFixtures.orderRequest;
+import static com.example.e_commerce.TestFixtures.product;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.e_commerce.QuietDataJpaTest;
+import com.example.e_commerce.dto.BatchOrderResponse;
+import com.example.e_commerce.dto.OrderRequest;
+import com.example.e_commerce.exception.BadRequestException;
+import com.example.e_commerce.exception.InsufficientStockException;
+import com.example.e_commerce.exception.ResourceNotFoundException;
+import com.example.e_commerce.model.Product;
+import com.example.e_commerce.model.User;
+import com.example.e_commerce.repository.OrderRepository;
+import com.example.e_commerce.repository.ProductRepository;
+import com.example.e_commerce.repository.UserRepository;
+
+/**
+ * Runs outside a test transaction so concurrent checkouts commit and contend for
+ * the same rows, as they would in production.
+ */
+@QuietDataJpaTest(properties = "spring.datasource.hikari.maximum-pool-size=16")
+@Import({ OrderService.class, OrderBatchService.class, InventoryService.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class InventoryServiceTest {
+
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS_PER_THREAD = 25;
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private OrderBatchService orderBatchService;
+    @Autowired
+    private InventoryService inventoryService;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(new User(null, "Buyer", "buyer@example.com", "pass"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void createOrder_ShouldNeverOversell_UnderConcurrentCheckouts() throws Exception {
+        Product hot = productRepository.save(product("Flash sale", "10.00", 100));
+
+        AtomicInteger sold = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        runConcurrently(attempt -> {
+            try {
+                orderService.createOrder(orderRequest(user.getId(), hot, 1));
+                sold.incrementAndGet();
+            } catch (InsufficientStockException e) {
+                rejected.incrementAndGet();
+            }
+        });
+
+        assertEquals(100, sold.get());
+        assertEquals(THREADS * ATTEMPTS_PER_THREAD - 100, rejected.get());
+        assertEquals(100, orderRepository.count());
+        assertEquals(0, inventoryService.getStock(hot.getId()).getQuantity());
+    }
+
+    @Test
+    void createOrder_ShouldNotDeadlock_WhenOrdersListSharedProductsInOppositeOrder() throws Exception {
+        Product first = productRepository.save(product("First", "10.00", 1_000));
+        Product second = productRepository.save(product("Second", "10.00", 1_000));
+
+        runConcurrently(attempt -> {
+            // Half the orders list the products the other way round; reservation sorts them
+            OrderRequest request = attempt % 2 == 0
+                    ? orderRequest(user.getId(), first, 1, second, 2)
+                    : orderRequest(user.getId(), second, 2, first, 1);
+            orderService.createOrder(request);
+        });
+
+        int orders = THREADS * ATTEMPTS_PER_THREAD;
+        assertEquals(orders, orderRepository.count());
+        assertEquals(1_000 - orders, inventoryService.getStock(first.getId()).getQuantity());
+        assertEquals(1_000 - 2 * orders, inventoryService.getStock(second.getId()).getQuantity());
+    }
+
+    @Test
+    void createOrders_ShouldNotDeadlock_WithCheckoutsListingSharedProductsInOppositeOrder() throws Exception {
+        Product first = productRepository.save(product("First", "10.00", 1_000));
+        Product second = productRepository.save(product("Second", "10.00", 1_000));
+
+        runConcurrently(attempt -> {
+            if (attempt % 2 == 0) {
+                // The batch meets the second product first and holds both rows until it commits
+                BatchOrderResponse response = orderBatchService.createOrders(List.of(
+                        orderRequest(user.getId(), second, 1),
+                        orderRequest(user.getId(), first, 1)));
+                assertEquals(2, response.getCreated());
+            } else {
+                orderService.createOrder(orderRequest(user.getId(), first, 1, second, 1));
+            }
+        });
+
+        int batches = THREADS * ATTEMPTS_PER_THREAD / 2;
+        assertEquals(3 * batches, orderRepository.count());
+        assertEquals(1_000 - 2 * batches, inventoryService.getStock(first.getId()).getQuantity());
+        assertEquals(1_000 - 2 * batches, inventoryService.getStock(second.getId()).getQuantity());
+    }
+
+    @Test
+    void createOrder_ShouldRejectNonPositiveQuantity_AndLeaveStockUnchanged() {
+        Product product = productRepository.save(product("Lamp", "10.00", 5));
+
+        assertThrows(BadRequestException.class,
+                () -> orderService.createOrder(orderRequest(user.getId(), product, -3)));
+        assertThrows(BadRequestException.class,
+                () -> orderService.createOrder(orderRequest(user.getId(), product, 0)));
+        assertThrows(BadRequestException.class,
+                () -> inventoryService.reserve(new TreeMap<>(Map.of(product.getId(), -3))));
+
+        assertEquals(0, orderRepository.count());
+        assertEquals(5, inventoryService.getStock(product.getId()).getQuantity());
+    }
+
+    @Test
+    void reserve_ShouldPutBackReservedLines_WhenAnyProductIsShort() {
+        Product plenty = productRepository.save(product("Plenty", "10.00", 10));
+        Product scarce = productRepository.save(product("Scarce", "10.00", 1));
+
+        InsufficientStockException ex = assertThrows(InsufficientStockException.class,
+                () -> inventoryService.reserve(new TreeMap<>(Map.of(plenty.getId(), 4, scarce.getId(), 2))));
+
+        assertEquals(List.of(scarce.getId()), ex.getProductIds());
+        assertEquals(10, inventoryService.getStock(plenty.getId()).getQuantity());
+        assertEquals(1, inventoryService.getStock(scarce.getId()).getQuantity());
+    }
+
+    @Test
+    void reserve_ShouldAlwaysSucceed_WhenStockIsNotTracked() {
+        Product untracked = productRepository.save(product("Untracked", "10.00", null));
+
+        inventoryService.reserve(new TreeMap<>(Map.of(untracked.getId(), 500)));
+        inventoryService.release(new TreeMap<>(Map.of(untracked.getId(), 5)));
+
+        assertNull(inventoryService.getStock(untracked.getId()).getQuantity());
+        assertEquals(3, inventoryService.setStock(untracked.getId(), 3).getQuantity());
+        assertThrows(InsufficientStockException.class,
+                () -> inventoryService.reserve(new TreeMap<>(Map.of(untracked.getId(), 4))));
+    }
+
+    @Test
+    void quantitiesByProduct_ShouldSumRepeatedProductsInIdOrder() {
+        OrderRequest request = orderRequest(user.getId(), 7L, 1, 3L, 2, 7L, 4);
+
+        assertEquals(List.of(3L, 7L), new ArrayList<>(InventoryService.quantitiesByProduct(request.getItems()).keySet()));
+        assertEquals(5, InventoryService.quantitiesByProduct(request.getItems()).get(7L));
+    }
+
+    @Test
+    void setStock_ShouldOverwriteQuantity_AndRejectUnknownProduct() {
+        Product product = productRepository.save(product("Restocked", "10.00", 2));
+
+        assertEquals(50, inventoryService.setStock(product.getId(), 50).getQuantity());
+        assertEquals(50, inventoryService.getStock(product.getId()).getQuantity());
+        assertThrows(ResourceNotFoundException.class, () -> inventoryService.setStock(Long.MAX_VALUE, 1));
+        assertThrows(ResourceNotFoundException.class, () -> inventoryService.getStock(Long.MAX_VALUE));
+    }
+
+    private void runConcurrently(Attempt attempt) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                Callable<Void> worker = () -> {
+                    start.await();
+                    for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                        attempt.run(thread * ATTEMPTS_PER_THREAD + i);
+                    }
+                    return null;
+                };
+                futures.add(executor.submit(worker));
+            }
+            start.countDown();
+            for (Future<Void> future : futures) {
+                // Surfaces any unexpected failure, such as a deadlock or lock timeout
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Attempt {
+        void run(int attempt);
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.e_commerce.service;
+
+import static com.example.e_commerce.TestFixtures.orderRequest;
+import static com.example.e_commerce.TestFixtures.product;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.e_commerce.QuietDataJpaTest;
+import com.example.e_commerce.dto.BatchOrderResponse;
+import com.example.e_commerce.dto.OrderRequest;
+import com.example.e_commerce.exception.BadRequestException;
+import com.example.e_commerce.model.Product;
+import com.example.e_commerce.model.User;
+import com.example.e_commerce.repository.OrderRepository;
+import com.example.e_commerce.repository.ProductRepository;
+import com.example.e_commerce.repository.UserRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Runs outside a test transaction, since the service commits the batch itself.
+ */
+@QuietDataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "app.orders.batch.max-size=200" })
+@Import({ OrderBatchService.class, InventoryService.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderBatchServiceTest {
+
+    @Autowired
+    private OrderBatchService orderBatchService;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User user;
+    private Product lamp;
+    private Product desk;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(new User(null, "Partner", "partner@example.com", "pass"));
+        lamp = productRepository.save(product("Lamp", "19.99"));
+        desk = productRepository.save(product("Desk", "120.00"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void createOrders_ShouldCreateValidOrders_AndReportInvalidOnesByIndex() {
+        OrderRequest emptyItems = orderRequest(user.getId());
+
+        BatchOrderResponse response = orderBatchService.createOrders(List.of(
+                orderRequest(user.getId(), lamp, 2, desk, 1),
+                orderRequest(user.getId(), lamp, 1, Long.MAX_VALUE, 1),
+                orderRequest(Long.MAX_VALUE, desk, 1),
+                emptyItems,
+                orderRequest(user.getId(), desk, 3)));
+
+        assertEquals(5, response.getSubmitted());
+        assertEquals(2, response.getCreated());
+        assertEquals(3, response.getFailed());
+        assertEquals(List.of("CREATED", "FAILED", "FAILED", "FAILED", "CREATED"),
+                response.getResults().stream().map(BatchOrderResponse.Result::getStatus).toList());
+        assertEquals("Product not found with id: " + Long.MAX_VALUE, response.getResults().get(1).getError());
+        assertEquals("User not found with id: " + Long.MAX_VALUE, response.getResults().get(2).getError());
+        assertEquals("At least one item is required", response.getResults().get(3).getError());
+
+        BatchOrderResponse.Result first = response.getResults().get(0);
+        assertNull(first.getError());
+        assertNotNull(first.getOrder().getId());
+        assertEquals(0, new BigDecimal("159.98").compareTo(first.getOrder().getTotalAmount()));
+        assertEquals("PENDING", first.getOrder().getStatus());
+        assertEquals(0, new BigDecimal("360.00").compareTo(response.getResults().get(4).getOrder().getTotalAmount()));
+        assertEquals(2, orderRepository.count());
+    }
+
+    @Test
+    void createOrders_ShouldLoadReferencesOnce_AndBatchInserts() {
+        List<OrderRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            requests.add(orderRequest(user.getId(), lamp, 1, desk, 2));
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        BatchOrderResponse response = orderBatchService.createOrders(requests);
+
+        assertEquals(100, response.getCreated());
+        assertEquals(100, orderRepository.count());
+        // 300 rows: two reference lookups, a few sequence fetches and one statement per JDBC batch
+        assertTrue(statistics.getPrepareStatementCount() < 20,
+                "Expected batched statements but got " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void createOrders_ShouldIsolateOrderRejectedByDatabase() {
+        // A total beyond the column's precision only fails when the row is written
+        Product huge = productRepository.save(product("Yacht", "9999999999999999999999999999999999.00"));
+
+        BatchOrderResponse response = orderBatchService.createOrders(List.of(
+                orderRequest(user.getId(), lamp, 1),
+                orderRequest(user.getId(), huge, 1000),
+                orderRequest(user.getId(), desk, 1)));
+
+        assertEquals(List.of("CREATED", "FAILED", "CREATED"),
+                response.getResults().stream().map(BatchOrderResponse.Result::getStatus).toList());
+        assertTrue(response.getResults().get(1).getError().startsWith("Order could not be saved"));
+        assertEquals(2, orderRepository.count());
+        // The failed batch's reservations were rolled back and only the saved orders took stock
+        assertEquals(999, stockOf(lamp));
+        assertEquals(999, stockOf(desk));
+        assertEquals(1_000, stockOf(huge));
+    }
+
+    @Test
+    void createOrders_ShouldFailOnlyOrdersThatExceedRemainingStock() {
+        Product scarce = product("Lantern", "35.00");
+        scarce.setStockQuantity(3);
+        Product lantern = productRepository.save(scarce);
+
+        BatchOrderResponse response = orderBatchService.createOrders(List.of(
+                orderRequest(user.getId(), lantern, 2),
+                orderRequest(user.getId(), lamp, 1, lantern, 2),
+                orderRequest(user.getId(), lantern, 1)));
+
+        assertEquals(List.of("CREATED", "FAILED", "CREATED"),
+                response.getResults().stream().map(BatchOrderResponse.Result::getStatus).toList());
+        assertEquals("Insufficient stock for product with id: " + lantern.getId(),
+                response.getResults().get(1).getError());
+        assertEquals(0, stockOf(lantern));
+        // The lamp line of the failed order was put back
+        assertEquals(1_000, stockOf(lamp));
+    }
+
+    @Test
+    void createOrders_ShouldRejectEmptyAndOversizedBatches() {
+        List<OrderRequest> oversized = new ArrayList<>();
+        for (int i = 0; i < 201; i++) {
+            oversized.add(orderRequest(user.getId(), lamp, 1));
+        }
+
+        assertThrows(BadRequestException.class, () -> orderBatchService.createOrders(List.of()));
+        assertThrows(BadRequestException.class, () -> orderBatchService.createOrders(oversized));
+        assertEquals(0, orderRepository.count());
+    }
+
+    private int stockOf(Product product) {
+        return productRepository.findById(product.getId()).orElseThrow().getStockQuantity();
+    }
+}
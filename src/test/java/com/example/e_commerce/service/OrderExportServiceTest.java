@@ -0,0 +1,65 @@
+package com.example.e_commerce.service;
+
+import static com.example.e_commerce.TestFixtures.orderRequest;
+import static com.example.e_commerce.TestFixtures.product;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.context.annotation.Import;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.example.e_commerce.QuietDataJpaTest;
+import com.example.e_commerce.model.Product;
+import com.example.e_commerce.model.User;
+import com.example.e_commerce.repository.ProductRepository;
+import com.example.e_commerce.repository.UserRepository;
+
+@QuietDataJpaTest
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({ OrderService.class, InventoryService.class, OrderExportService.class })
+class OrderExportServiceTest {
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private OrderExportService orderExportService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void exportOrders_ShouldWriteOneJsonLinePerOrderWithItsItems() throws Exception {
+        User user = userRepository.save(new User(null, "Buyer", "buyer@example.com", "pass"));
+        List<Product> products = productRepository.saveAll(List.of(
+                product("Pen", "5.00", 10), product("Ink", "5.00", 10), product("Pad", "5.00", 10)));
+
+        for (int i = 0; i < 4; i++) {
+            orderService.createOrder(orderRequest(user.getId(), products, 1));
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long exported = orderExportService.exportOrders(
+                LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(1), out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(4, exported);
+        assertEquals(4, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals(3, first.get("items").size());
+        assertEquals(0, new BigDecimal("15.00").compareTo(first.get("totalAmount").decimalValue()));
+    }
+}
@@ -0,0 +1,235 @@
+package com.example.e_commerce.service;
+
+import static com.example.e_commerce.TestFixtures.product;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.e_commerce.QuietDataJpaTest;
+import com.example.e_commerce.TestFixtures;
+import com.example.e_commerce.dto.OrderRequest;
+import com.example.e_commerce.exception.IdempotencyKeyReusedException;
+import com.example.e_commerce.exception.InsufficientStockException;
+import com.example.e_commerce.model.IdempotencyRecord;
+import com.example.e_commerce.model.Product;
+import com.example.e_commerce.model.User;
+import com.example.e_commerce.repository.IdempotencyRecordRepository;
+import com.example.e_commerce.repository.OrderRepository;
+import com.example.e_commerce.repository.ProductRepository;
+import com.example.e_commerce.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Runs outside a test transaction, since the service commits the order and its key
+ * together and concurrent requests must see each other's commits.
+ */
+@QuietDataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({ OrderIdempotencyService.class, OrderService.class, InventoryService.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderIdempotencyServiceTest {
+
+    @Autowired
+    private OrderIdempotencyService idempotencyService;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private InventoryService inventoryService;
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User user;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(new User(null, "Buyer", "buyer@example.com", "pass"));
+        product = productRepository.save(product("Lamp", "19.99", 10));
+    }
+
+    @AfterEach
+    void tearDown() {
+        idempotencyRecordRepository.deleteAll();
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void createOrder_ShouldReturnStoredOrder_WhenKeyIsRepeated() {
+        OrderIdempotencyService.Result first = idempotencyService.createOrder("key-1", orderRequest(2));
+        OrderIdempotencyService.Result retry = idempotencyService.createOrder("key-1", orderRequest(2));
+
+        assertFalse(first.replayed());
+        assertTrue(retry.replayed());
+        assertEquals(first.order().getId(), retry.order().getId());
+        assertEquals(1, orderRepository.count());
+        assertEquals(8, stock());
+    }
+
+    @Test
+    void createOrder_ShouldReplayFromTable_WithoutTouchingUsersOrProducts() {
+        OrderIdempotencyService.Result first = idempotencyService.createOrder("key-2", orderRequest(1));
+
+        // A second instance, or this one after a restart, has an empty local cache
+        OrderIdempotencyService otherInstance = new OrderIdempotencyService(orderService,
+                idempotencyRecordRepository, objectMapper, transactionManager, Duration.ofHours(1), 100);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        OrderIdempotencyService.Result retry = otherInstance.createOrder("key-2", orderRequest(1));
+
+        assertTrue(retry.replayed());
+        assertEquals(first.order().getId(), retry.order().getId());
+        assertEquals(0, first.order().getTotalAmount().compareTo(retry.order().getTotalAmount()));
+        assertEquals("Lamp", retry.order().getItems().get(0).getProductName());
+        // Only the idempotency key lookup
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(1, orderRepository.count());
+    }
+
+    @Test
+    void createOrder_ShouldRejectKeyReusedForDifferentRequest() {
+        idempotencyService.createOrder("key-3", orderRequest(1));
+
+        assertThrows(IdempotencyKeyReusedException.class,
+                () -> idempotencyService.createOrder("key-3", orderRequest(3)));
+        assertEquals(1, orderRepository.count());
+    }
+
+    @Test
+    void createOrder_ShouldNotStoreFailures_SoTheKeyCanBeRetried() {
+        assertThrows(InsufficientStockException.class, () -> idempotencyService.createOrder("key-4", orderRequest(11)));
+        assertEquals(0, idempotencyRecordRepository.count());
+
+        inventoryService.setStock(product.getId(), 20);
+
+        OrderIdempotencyService.Result retry = idempotencyService.createOrder("key-4", orderRequest(11));
+        assertFalse(retry.replayed());
+        assertEquals(1, orderRepository.count());
+    }
+
+    @Test
+    void createOrder_ShouldCoalesceConcurrentRequestsWithSameKey() throws Exception {
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<OrderIdempotencyService.Result>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return idempotencyService.createOrder("key-5", orderRequest(1));
+                }));
+            }
+            start.countDown();
+
+            List<OrderIdempotencyService.Result> results = new ArrayList<>();
+            for (Future<OrderIdempotencyService.Result> future : futures) {
+                results.add(future.get());
+            }
+            assertEquals(1, results.stream().filter(result -> !result.replayed()).count());
+            assertEquals(1, results.stream().map(result -> result.order().getId()).distinct().count());
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, orderRepository.count());
+        assertEquals(9, stock());
+    }
+
+    @Test
+    void deleteExpired_ShouldRemoveOnlyExpiredKeys_AndExpiredKeysAreNotReplayed() {
+        LocalDateTime now = LocalDateTime.now();
+        idempotencyRecordRepository.save(new IdempotencyRecord("expired", "hash", 1L, "{}", now.minusDays(2),
+                now.minusDays(1)));
+        idempotencyService.createOrder("live", orderRequest(1));
+
+        assertTrue(idempotencyRecordRepository.findByKeyAndExpiresAtAfter("expired", now).isEmpty());
+        idempotencyService.deleteExpired();
+
+        assertEquals(List.of("live"),
+                idempotencyRecordRepository.findAll().stream().map(IdempotencyRecord::getKey).toList());
+    }
+
+    @Test
+    void createOrder_ShouldCreateNewOrder_WhenKeyExpiredButNotYetCleanedUp() {
+        LocalDateTime now = LocalDateTime.now();
+        idempotencyRecordRepository.save(new IdempotencyRecord("reused", "hash", 1L, "{}", now.minusDays(2),
+                now.minusDays(1)));
+
+        OrderIdempotencyService.Result result = idempotencyService.createOrder("reused", orderRequest(1));
+
+        assertFalse(result.replayed());
+        assertEquals(result.order().getId(),
+                idempotencyRecordRepository.findByKeyAndExpiresAtAfter("reused", now).orElseThrow().getOrderId());
+        assertEquals(9, stock());
+    }
+
+    @Test
+    void createOrder_ShouldStopReplayingFromCache_WhenStoredRecordExpires() throws Exception {
+        OrderIdempotencyService.Result first = idempotencyService.createOrder("near-expiry", orderRequest(1));
+        // Rewrite the record to expire shortly, as if it had been stored almost a TTL ago
+        IdempotencyRecord stored = idempotencyRecordRepository.findAll().get(0);
+        idempotencyRecordRepository.deleteAll();
+        LocalDateTime expiresAt = LocalDateTime.now().plusSeconds(1);
+        idempotencyRecordRepository.save(new IdempotencyRecord(stored.getKey(), stored.getRequestHash(),
+                stored.getOrderId(), stored.getResponseBody(), stored.getCreatedAt(), expiresAt));
+
+        // Looked up in the table and cached locally, with the cache's TTL an hour
+        OrderIdempotencyService otherInstance = new OrderIdempotencyService(orderService,
+                idempotencyRecordRepository, objectMapper, transactionManager, Duration.ofHours(1), 100);
+        assertTrue(otherInstance.createOrder("near-expiry", orderRequest(1)).replayed());
+
+        Thread.sleep(Math.max(0, Duration.between(LocalDateTime.now(), expiresAt).toMillis()) + 200);
+
+        OrderIdempotencyService.Result afterExpiry = otherInstance.createOrder("near-expiry", orderRequest(1));
+        assertFalse(afterExpiry.replayed());
+        assertTrue(afterExpiry.order().getId() > first.order().getId());
+        assertEquals(2, orderRepository.count());
+    }
+
+    private int stock() {
+        return productRepository.findById(product.getId()).orElseThrow().getStockQuantity();
+    }
+
+    private OrderRequest orderRequest(int quantity) {
+        return TestFixtures.orderRequest(user.getId(), product, quantity);
+    }
+}
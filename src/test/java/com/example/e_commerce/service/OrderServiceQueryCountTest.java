@@ -0,0 +1,165 @@
+package com.example.e_commerce.service;
+
+import static com.example.e_commerce.TestFixtures.orderRequest;
+import static com.example.e_commerce.TestFixtures.product;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import com.example.e_commerce.QuietDataJpaTest;
+import com.example.e_commerce.dto.CursorPage;
+import com.example.e_commerce.dto.OrderRequest;
+import com.example.e_commerce.dto.OrderResponse;
+import com.example.e_commerce.exception.ResourceNotFoundException;
+import com.example.e_commerce.model.Order;
+import com.example.e_commerce.model.Product;
+import com.example.e_commerce.model.User;
+import com.example.e_commerce.repository.OrderRepository;
+import com.example.e_commerce.repository.ProductRepository;
+import com.example.e_commerce.repository.UserRepository;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Pins the number of JDBC statements issued by the order paths against an
+ * in-memory database, so per-item or per-row lookups cannot creep back in.
+ */
+@QuietDataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({ OrderService.class, InventoryService.class })
+class OrderServiceQueryCountTest {
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        user = userRepository.save(new User(null, "Buyer", "buyer@example.com", "pass"));
+    }
+
+    @Test
+    void createOrder_ShouldIssueConstantStatementCount_RegardlessOfItemCount() {
+        // The pooled id optimizer fetches two sequence values up front and then one
+        // per 50 ids; warm it up so the measured orders draw from an allocated block
+        statementsForOrderWith(1);
+        statementsForOrderWith(1);
+
+        long fewItems = statementsForOrderWith(3);
+        long manyItems = statementsForOrderWith(30);
+
+        // select user, select products, insert order, batched insert items; the stock
+        // reservation is one JDBC batch outside Hibernate and not counted here
+        assertEquals(4, fewItems);
+        assertEquals(fewItems, manyItems);
+    }
+
+    @Test
+    void createOrder_ShouldThrowException_WhenAnyProductIsMissing() {
+        List<Product> products = createProducts(2);
+        OrderRequest request = orderRequest(user.getId(), products.get(0), 2, products.get(1), 2, Long.MAX_VALUE, 1);
+
+        assertThrows(ResourceNotFoundException.class, () -> orderService.createOrder(request));
+    }
+
+    @Test
+    void getAllOrders_ShouldIssueTwoStatementsPerPage_RegardlessOfPageSize() {
+        for (int i = 0; i < 5; i++) {
+            orderService.createOrder(orderRequest(user.getId(), createProducts(3), 2));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        CursorPage<OrderResponse> page = orderService.getAllOrders(null, 10);
+
+        // one keyset id seek plus one projection query for the page's orders and items
+        assertEquals(5, page.getItems().size());
+        assertEquals(3, page.getItems().get(0).getItems().size());
+        assertEquals(user.getId(), page.getItems().get(0).getUserId());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getOrdersByUserId_ShouldWalkPagesNewestFirst() {
+        for (int i = 0; i < 5; i++) {
+            orderService.createOrder(orderRequest(user.getId(), createProducts(2), 2));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            statistics.clear();
+            CursorPage<OrderResponse> page = orderService.getOrdersByUserId(user.getId(), cursor, 2);
+            assertEquals(2, statistics.getPrepareStatementCount());
+            page.getItems().forEach(order -> seen.add(order.getId()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(5, seen.size());
+        for (int i = 1; i < seen.size(); i++) {
+            assertTrue(seen.get(i - 1) > seen.get(i));
+        }
+    }
+
+    @Test
+    void findByUserId_ShouldFetchItemsAndProductsInSingleStatement() {
+        for (int i = 0; i < 3; i++) {
+            orderService.createOrder(orderRequest(user.getId(), createProducts(2), 2));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        List<Order> orders = orderRepository.findByUserId(user.getId());
+        orders.forEach(order -> order.getOrderItems().forEach(item -> item.getProduct().getName()));
+
+        assertEquals(3, orders.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private long statementsForOrderWith(int itemCount) {
+        OrderRequest request = orderRequest(user.getId(), createProducts(itemCount), 2);
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        orderService.createOrder(request);
+        entityManager.flush();
+
+        return statistics.getPrepareStatementCount();
+    }
+
+    private List<Product> createProducts(int count) {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            products.add(product("Product " + i, "10.00", 100));
+        }
+        return productRepository.saveAll(products);
+    }
+}
@@ -2,22 +2,36 @@ package com.example.e_commerce.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 
 import com.example.e_commerce.dto.OrderRequest;
 import com.example.e_commerce.dto.OrderResponse;
+import com.example.e_commerce.event.OrderCreatedEvent;
+import com.example.e_commerce.event.OrderStatusChangedEvent;
+import com.example.e_commerce.exception.BadRequestException;
+import com.example.e_commerce.exception.InsufficientStockException;
+import com.example.e_commerce.exception.ResourceNotFoundException;
 import com.example.e_commerce.model.Order;
+import com.example.e_commerce.model.OrderItem;
 import com.example.e_commerce.model.Product;
 import com.example.e_commerce.model.User;
 import com.example.e_commerce.repository.OrderRepository;
@@ -32,6 +46,10 @@ class OrderServiceTest {
     private UserRepository userRepository;
     @Mock
     private ProductRepository productRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private InventoryService inventoryService;
 
     @InjectMocks
     private OrderService orderService;
@@ -60,7 +78,7 @@ class OrderServiceTest {
         request.setItems(Collections.singletonList(itemRequest));
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+        when(productRepository.findAllById(any())).thenReturn(List.of(product));
 
         // Mock the save to return the order with the calculated total (simulating DB
         // behavior or capturing argument)
@@ -77,5 +95,103 @@ class OrderServiceTest {
         assertNotNull(response);
         // 1000.00 * 2 = 2000.00
         assertEquals(new BigDecimal("2000.00"), response.getTotalAmount());
+        verify(inventoryService).reserve(new TreeMap<>(Map.of(productId, 2)));
+        verify(eventPublisher).publishEvent(any(OrderCreatedEvent.class));
+    }
+
+    @Test
+    void createOrder_ShouldNotSave_WhenStockIsInsufficient() {
+        Long userId = 1L;
+        User user = new User(userId, "Buyer", "buyer@example.com", "pass");
+        Product product = new Product(100L, "Laptop", "1000.00");
+
+        OrderRequest request = new OrderRequest();
+        request.setUserId(userId);
+        OrderRequest.OrderItemRequest first = new OrderRequest.OrderItemRequest();
+        first.setProductId(100L);
+        first.setQuantity(1);
+        OrderRequest.OrderItemRequest second = new OrderRequest.OrderItemRequest();
+        second.setProductId(100L);
+        second.setQuantity(2);
+        request.setItems(List.of(first, second));
+
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(productRepository.findAllById(any())).thenReturn(List.of(product));
+        // Lines for the same product are reserved together
+        doThrow(new InsufficientStockException(List.of(100L)))
+                .when(inventoryService).reserve(new TreeMap<>(Map.of(100L, 3)));
+
+        assertThrows(InsufficientStockException.class, () -> orderService.createOrder(request));
+        verify(orderRepository, never()).save(any(Order.class));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void createOrder_ShouldThrowException_WhenProductNotFound() {
+        Long userId = 1L;
+        User user = new User(userId, "Buyer", "buyer@example.com", "pass");
+        Product product = new Product(100L, "Laptop", "1000.00");
+
+        OrderRequest request = new OrderRequest();
+        request.setUserId(userId);
+
+        OrderRequest.OrderItemRequest found = new OrderRequest.OrderItemRequest();
+        found.setProductId(100L);
+        found.setQuantity(1);
+        OrderRequest.OrderItemRequest missing = new OrderRequest.OrderItemRequest();
+        missing.setProductId(999L);
+        missing.setQuantity(1);
+        request.setItems(List.of(found, missing));
+
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(productRepository.findAllById(any())).thenReturn(List.of(product));
+
+        ResourceNotFoundException ex = assertThrows(ResourceNotFoundException.class,
+                () -> orderService.createOrder(request));
+        assertEquals("Product not found with id: 999", ex.getMessage());
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
+    @Test
+    void updateStatus_ShouldReleaseStockAndPublishEvent_WhenCancelled() {
+        Order order = pendingOrder(new Product(100L, "Laptop", "1000.00"), 2, new Product(200L, "Mouse", "20.00"), 1);
+        when(orderRepository.findByIdForUpdate(7L)).thenReturn(Optional.of(order));
+
+        OrderResponse response = orderService.updateStatus(7L, "CANCELLED");
+
+        assertEquals("CANCELLED", response.getStatus());
+        verify(inventoryService).release(new TreeMap<>(Map.of(100L, 2, 200L, 1)));
+        verify(eventPublisher).publishEvent(any(OrderStatusChangedEvent.class));
+    }
+
+    @Test
+    void updateStatus_ShouldRejectUnknownStatusAndLeavingFinalStatus() {
+        Order order = pendingOrder(new Product(100L, "Laptop", "1000.00"), 1);
+        order.setStatus("COMPLETED");
+        when(orderRepository.findByIdForUpdate(7L)).thenReturn(Optional.of(order));
+
+        assertThrows(BadRequestException.class, () -> orderService.updateStatus(7L, "SHIPPED"));
+        BadRequestException ex = assertThrows(BadRequestException.class,
+                () -> orderService.updateStatus(7L, "CANCELLED"));
+        assertEquals("Order 7 is COMPLETED and cannot become CANCELLED", ex.getMessage());
+        verify(inventoryService, never()).release(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    private static Order pendingOrder(Object... productsAndQuantities) {
+        Order order = new Order();
+        order.setId(7L);
+        order.setUser(new User(1L, "Buyer", "buyer@example.com", "pass"));
+        order.setStatus("PENDING");
+        for (int i = 0; i < productsAndQuantities.length; i += 2) {
+            Product product = (Product) productsAndQuantities[i];
+            OrderItem item = new OrderItem();
+            item.setProduct(product);
+            item.setQuantity((Integer) productsAndQuantities[i + 1]);
+            item.setPrice(product.getPrice());
+            order.addOrderItem(item);
+        }
+        order.setTotalAmount(OrderService.calculateTotal(order.getOrderItems()));
+        return order;
     }
 }
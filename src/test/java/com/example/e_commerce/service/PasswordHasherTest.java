@@ -0,0 +1,106 @@
+package com.example.e_commerce.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.example.e_commerce.config.SecurityConfig;
+import com.example.e_commerce.exception.ServiceUnavailableException;
+
+class PasswordHasherTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private PasswordHasher hasher;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (hasher != null) {
+            hasher.destroy();
+        }
+    }
+
+    @Test
+    void encode_ShouldRejectWithRetryAfter_WhenQueueIsFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        hasher = new PasswordHasher(blockingEncoder(started), 1, 1, Duration.ofSeconds(10));
+
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<String>> accepted = new ArrayList<>();
+            accepted.add(callers.submit(() -> hasher.encode("running")));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            accepted.add(callers.submit(() -> hasher.encode("queued")));
+            waitUntilQueued();
+
+            ServiceUnavailableException rejected = assertThrows(ServiceUnavailableException.class,
+                    () -> hasher.encode("rejected"));
+            assertEquals(1, rejected.getRetryAfterSeconds());
+
+            release.countDown();
+            assertEquals("hash:running", accepted.get(0).get());
+            assertEquals("hash:queued", accepted.get(1).get());
+        }
+    }
+
+    @Test
+    void encode_ShouldTimeOutWithServiceUnavailable() {
+        hasher = new PasswordHasher(blockingEncoder(new CountDownLatch(1)), 1, 1, Duration.ofMillis(50));
+
+        assertThrows(ServiceUnavailableException.class, () -> hasher.encode("slow"));
+    }
+
+    @Test
+    void configuredEncoder_ShouldMatchLegacyHashesAndFlagThemForUpgrade() {
+        PasswordEncoder encoder = new SecurityConfig().passwordEncoder(10);
+        hasher = new PasswordHasher(encoder, 1, 1, Duration.ofSeconds(10));
+        String legacy = new BCryptPasswordEncoder(4).encode("password123");
+        String current = hasher.encode("password123");
+
+        assertTrue(current.startsWith("{bcrypt}"));
+        assertTrue(hasher.matches("password123", legacy));
+        assertTrue(hasher.matches("password123", current));
+        assertTrue(hasher.needsUpgrade(legacy));
+        assertTrue(hasher.needsUpgrade("{bcrypt}" + legacy));
+        assertEquals(false, hasher.needsUpgrade(current));
+    }
+
+    private void waitUntilQueued() throws InterruptedException {
+        for (int i = 0; i < 500 && hasher.queuedTasks() == 0; i++) {
+            Thread.sleep(10);
+        }
+    }
+
+    private PasswordEncoder blockingEncoder(CountDownLatch started) {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "hash:" + rawPassword;
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return encodedPassword.equals(encode(rawPassword));
+            }
+        };
+    }
+}
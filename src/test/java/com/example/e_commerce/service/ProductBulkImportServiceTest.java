@@ -0,0 +1,144 @@
+package com.example.e_commerce.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.e_commerce.QuietDataJpaTest;
+import com.example.e_commerce.dto.BulkImportResponse;
+import com.example.e_commerce.exception.BadRequestException;
+import com.example.e_commerce.model.Product;
+import com.example.e_commerce.repository.ProductRepository;
+
+/**
+ * Runs outside a test transaction, since the import commits each chunk itself.
+ */
+@QuietDataJpaTest(properties = {
+        "app.products.bulk.chunk-size=3",
+        "app.products.bulk.batch-size=2",
+        "app.products.bulk.max-errors=2" })
+@ImportAutoConfiguration({ JacksonAutoConfiguration.class, ValidationAutoConfiguration.class })
+@Import(ProductBulkImportService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductBulkImportServiceTest {
+
+    @Autowired
+    private ProductBulkImportService importService;
+    @Autowired
+    private ProductRepository productRepository;
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void importJson_ShouldInsertValidRowsAcrossChunks_AndReportInvalidOnes() throws Exception {
+        BulkImportResponse response = importService.importJson(body("""
+                [
+                  {"name": "Lamp", "price": 19.99, "imageUrl": "lamp.jpg", "stockQuantity": 5},
+                  {"name": "Desk", "price": 120.00, "description": "Oak"},
+                  {"name": "", "price": 5},
+                  {"name": "Chair", "price": "cheap"},
+                  {"name": "Shelf", "price": 45.50},
+                  {"name": "Rug", "price": 60},
+                  {"name": "Stool", "price": 25}
+                ]
+                """));
+
+        assertEquals(7, response.getReceived());
+        assertEquals(5, response.getImported());
+        assertEquals(2, response.getFailed());
+        assertEquals(List.of(3L, 4L), response.getErrors().stream().map(BulkImportResponse.RowError::getRow).toList());
+        assertTrue(response.getErrors().get(0).getMessage().startsWith("name:"));
+        assertEquals(5, productRepository.count());
+        Product desk = productRepository.findAll().stream()
+                .filter(product -> product.getName().equals("Desk")).findFirst().orElseThrow();
+        assertEquals(0, new BigDecimal("120.00").compareTo(desk.getPrice()));
+        assertEquals("Oak", desk.getDescription());
+        // Rows without a quantity do not track stock
+        assertNull(desk.getStockQuantity());
+        assertEquals(5, productRepository.findAll().stream()
+                .filter(product -> product.getName().equals("Lamp")).findFirst().orElseThrow().getStockQuantity());
+    }
+
+    @Test
+    void importJson_ShouldKeepCommittedChunks_WhenStreamIsMalformed() throws Exception {
+        BulkImportResponse response = importService.importJson(body("""
+                [{"name": "A", "price": 1}, {"name": "B", "price": 2}, {"name": "C", "price": 3},
+                 {"name": "D", "price": 4}, {"name": "E" "price": 5}
+                """));
+
+        assertEquals(4, response.getImported());
+        assertEquals(1, response.getFailed());
+        assertEquals(5L, response.getErrors().get(0).getRow());
+        assertTrue(response.getErrors().get(0).getMessage().startsWith("Malformed JSON"));
+        assertEquals(4, productRepository.count());
+    }
+
+    @Test
+    void importJson_ShouldRejectBodyThatIsNotAnArray() {
+        assertThrows(BadRequestException.class, () -> importService.importJson(body("{\"name\": \"A\"}")));
+    }
+
+    @Test
+    void importCsv_ShouldMapColumnsByHeader_AndIsolateRowsTheDatabaseRejects() throws Exception {
+        String tooLong = "x".repeat(300);
+        BulkImportResponse response = importService.importCsv(body("""
+                price,name,image_url,ignored
+                9.99,Mug,mug.jpg,a
+                abc,Plate,,b
+                12.50,%s,,c
+                3,Spoon,,"quoted, with comma"
+                ,Fork,,d
+                """.formatted(tooLong)));
+
+        assertEquals(5, response.getReceived());
+        assertEquals(2, response.getImported());
+        assertEquals(3, response.getFailed());
+        // Only the first two errors are listed
+        assertEquals(2, response.getErrors().size());
+        assertTrue(response.isErrorsTruncated());
+        assertEquals("price: must be a number", response.getErrors().get(0).getMessage());
+        assertEquals(3L, response.getErrors().get(1).getRow());
+        assertTrue(response.getErrors().get(1).getMessage().startsWith("Rejected by database"));
+        assertEquals(List.of("Mug", "Spoon"), productRepository.findAll().stream().map(Product::getName).sorted().toList());
+        assertEquals("mug.jpg", productRepository.findAll().stream()
+                .filter(product -> product.getName().equals("Mug")).findFirst().orElseThrow().getImageUrl());
+    }
+
+    @Test
+    void importCsv_ShouldRequireNameAndPriceColumns() {
+        assertThrows(BadRequestException.class, () -> importService.importCsv(body("title,cost\nMug,1\n")));
+    }
+
+    @Test
+    void importCsv_ShouldAcceptEmptyBodyWithHeaderOnly() throws Exception {
+        BulkImportResponse response = importService.importCsv(body("name,price\n"));
+
+        assertEquals(0, response.getReceived());
+        assertFalse(response.isErrorsTruncated());
+    }
+
+    private static InputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
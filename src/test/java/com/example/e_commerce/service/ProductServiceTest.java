@@ -4,35 +4,88 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import com.example.e_commerce.cache.InvalidationBus;
+import com.example.e_commerce.cache.LoopbackInvalidationTransport;
+import com.example.e_commerce.cache.ProductCache;
+import com.example.e_commerce.catalog.CatalogSnapshot;
+import com.example.e_commerce.catalog.CatalogSnapshotStore;
 import com.example.e_commerce.dto.ProductRequest;
 import com.example.e_commerce.dto.ProductResponse;
+import com.example.e_commerce.dto.TrendingProductResponse;
+import com.example.e_commerce.event.OrderCreatedEvent;
+import com.example.e_commerce.event.ProductChangedEvent;
+import com.example.e_commerce.exception.BadRequestException;
 import com.example.e_commerce.exception.ResourceNotFoundException;
+import com.example.e_commerce.index.ProductPriceIndex;
+import com.example.e_commerce.index.ProductSearchIndex;
+import com.example.e_commerce.metrics.ShopMetrics;
 import com.example.e_commerce.model.Product;
 import com.example.e_commerce.repository.ProductRepository;
+import com.example.e_commerce.trending.TrendingProducts;
 
 class ProductServiceTest {
 
     @Mock
     private ProductRepository productRepository;
 
-    @InjectMocks
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path snapshotDir;
+
+    private ProductPriceIndex priceIndex;
+    private TrendingProducts trendingProducts;
     private ProductService productService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        priceIndex = new ProductPriceIndex();
+        trendingProducts = new TrendingProducts(Duration.ofMinutes(1), Duration.ofHours(1), 100, Duration.ofSeconds(1), "");
+        productService = productService("");
+    }
+
+    private ProductService productService(String catalogSnapshotFile) {
+        InvalidationBus invalidationBus = new InvalidationBus(new LoopbackInvalidationTransport());
+        ProductCache productCache = new ProductCache(invalidationBus, 100, Duration.ofMinutes(1), 10,
+                Duration.ofMinutes(1));
+        CatalogSnapshotStore catalogSnapshot = new CatalogSnapshotStore(productRepository, productCache,
+                invalidationBus, transactionManager, catalogSnapshotFile);
+        return new ProductService(productRepository, productCache, new ProductSearchIndex(), priceIndex,
+                trendingProducts, catalogSnapshot, eventPublisher, new ShopMetrics(new SimpleMeterRegistry()),
+                transactionManager);
     }
 
     @Test
@@ -53,6 +106,24 @@ class ProductServiceTest {
         assertEquals(new BigDecimal("1500.00"), response.getPrice());
     }
 
+    @Test
+    void getProductById_ShouldServeCatalogSnapshot_WithoutQueryingRepository() throws IOException {
+        Path file = snapshotDir.resolve("catalog.snapshot");
+        try (CatalogSnapshot.Writer writer = CatalogSnapshot.Writer.create(file)) {
+            writer.add(new ProductResponse(7L, "Lamp", "Desk lamp", new BigDecimal("19.99"), null, 3L, null));
+            writer.commit();
+        }
+        ProductService warmStarted = productService(file.toString());
+        Product desk = new Product();
+        desk.setId(8L);
+        desk.setName("Desk");
+        when(productRepository.findById(8L)).thenReturn(Optional.of(desk));
+
+        assertEquals("Lamp", warmStarted.getProductById(7L).getName());
+        assertEquals("Desk", warmStarted.getProductById(8L).getName());
+        verify(productRepository, never()).findById(7L);
+    }
+
     @Test
     void getProductById_ShouldThrowException_WhenProductNotFound() {
         Long productId = 999L;
@@ -130,4 +201,78 @@ class ProductServiceTest {
             productService.deleteProduct(productId);
         });
     }
+
+    @Test
+    void getProductById_ShouldServeRepeatedReadsFromCache() {
+        Long productId = 1L;
+        Product product = new Product(productId, "Laptop", "1500.00");
+        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+
+        productService.getProductById(productId);
+        productService.getProductById(productId);
+
+        verify(productRepository, times(1)).findById(productId);
+    }
+
+    @Test
+    void updateProduct_ShouldPublishProductChangedEvent() {
+        Long productId = 1L;
+        Product existingProduct = new Product(productId, "Old Name", "100.00");
+        ProductRequest updateRequest = new ProductRequest();
+        updateRequest.setName("New Name");
+        updateRequest.setPrice(new BigDecimal("200.00"));
+
+        when(productRepository.findById(productId)).thenReturn(Optional.of(existingProduct));
+        when(productRepository.save(any(Product.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        productService.updateProduct(productId, updateRequest);
+
+        verify(eventPublisher).publishEvent(any(ProductChangedEvent.class));
+    }
+
+    @Test
+    void filterByPriceRange_ShouldLoadOnlyTheRequestedPageInPriceOrder() {
+        Product cheap = new Product(1L, "Mouse", "20.00");
+        Product mid = new Product(2L, "Keyboard", "45.00");
+        Product dear = new Product(3L, "Monitor", "300.00");
+        priceIndex.rebuild(List.of(ProductService.mapToResponse(cheap), ProductService.mapToResponse(mid),
+                ProductService.mapToResponse(dear)));
+        when(productRepository.findAllById(any())).thenReturn(List.of(mid, dear));
+
+        Page<ProductResponse> page = productService.filterByPriceRange(new BigDecimal("20"), new BigDecimal("500"),
+                Sort.Direction.DESC, PageRequest.of(0, 2));
+
+        assertEquals(List.of(3L, 2L), page.getContent().stream().map(ProductResponse::getId).toList());
+        assertEquals(3, page.getTotalElements());
+        verify(productRepository).findAllById(Set.of(2L, 3L));
+    }
+
+    @Test
+    void filterByPriceRange_ShouldRejectInvertedRange() {
+        assertThrows(BadRequestException.class, () -> productService.filterByPriceRange(new BigDecimal("10"),
+                BigDecimal.ONE, Sort.Direction.ASC, PageRequest.of(0, 10)));
+    }
+
+    @Test
+    void getTrending_ShouldRankBySoldUnits_AndSkipDeletedProducts() {
+        Product mouse = new Product(1L, "Mouse", "20.00");
+        Product keyboard = new Product(2L, "Keyboard", "45.00");
+        trendingProducts.onOrderCreated(orderCreated(Map.of(1L, 2, 2L, 1)));
+        trendingProducts.onOrderCreated(orderCreated(Map.of(2L, 4, 3L, 9)));
+        // Product 3 has been deleted since
+        when(productRepository.findAllById(any())).thenReturn(List.of(mouse, keyboard));
+
+        List<TrendingProductResponse> trending = productService.getTrending(Duration.ofMinutes(15), 10);
+
+        assertEquals(List.of(2L, 1L), trending.stream().map(t -> t.getProduct().getId()).toList());
+        assertEquals(5, trending.get(0).getUnits());
+        assertEquals(5, trending.get(0).getUnitsLowerBound());
+        assertThrows(BadRequestException.class, () -> productService.getTrending(Duration.ofHours(2), 10));
+        assertThrows(BadRequestException.class, () -> productService.getTrending(Duration.ofHours(1), 0));
+    }
+
+    private static OrderCreatedEvent orderCreated(Map<Long, Integer> quantities) {
+        return new OrderCreatedEvent(1L, 1L, quantities.size(), BigDecimal.TEN, "PENDING", LocalDateTime.now(),
+                quantities);
+    }
 }
@@ -0,0 +1,157 @@
+package com.example.e_commerce.service;
+
+import static com.example.e_commerce.TestFixtures.orderRequest;
+import static com.example.e_commerce.TestFixtures.product;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.e_commerce.QuietDataJpaTest;
+import com.example.e_commerce.dto.UserOrderSummaryResponse;
+import com.example.e_commerce.exception.ResourceNotFoundException;
+import com.example.e_commerce.model.Product;
+import com.example.e_commerce.model.User;
+import com.example.e_commerce.repository.OrderRepository;
+import com.example.e_commerce.repository.ProductRepository;
+import com.example.e_commerce.repository.UserOrderSummaryRepository;
+import com.example.e_commerce.repository.UserRepository;
+
+/**
+ * Runs outside a test transaction: summaries are written just before an order commits.
+ * H2 runs in PostgreSQL mode for the summary's {@code INSERT ... ON CONFLICT}.
+ */
+@QuietDataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:summaries;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=" })
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ UserOrderSummaryService.class, OrderService.class, OrderBatchService.class, InventoryService.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserOrderSummaryServiceTest {
+
+    @Autowired
+    private UserOrderSummaryService summaryService;
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private OrderBatchService orderBatchService;
+    @Autowired
+    private UserOrderSummaryRepository summaryRepository;
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ProductRepository productRepository;
+
+    private User buyer;
+    private User other;
+    private Product lamp;
+    private Product desk;
+
+    @BeforeEach
+    void setUp() {
+        buyer = userRepository.save(new User(null, "Buyer", "buyer@example.com", "pass"));
+        other = userRepository.save(new User(null, "Other", "other@example.com", "pass"));
+        lamp = productRepository.save(product("Lamp", "20.00"));
+        desk = productRepository.save(product("Desk", "100.00"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        summaryRepository.deleteAll();
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void getSummary_ShouldFollowOrderCreationAndCancellation() {
+        assertSummary(buyer, 0, "0.00", summaryService.getSummary(buyer.getId()));
+
+        Long first = orderService.createOrder(orderRequest(buyer.getId(), lamp, 2)).getId();
+        Long second = orderService.createOrder(orderRequest(buyer.getId(), desk, 1)).getId();
+        orderService.createOrder(orderRequest(other.getId(), desk, 1));
+        UserOrderSummaryResponse summary = summaryService.getSummary(buyer.getId());
+        assertSummary(buyer, 2, "140.00", summary);
+        assertEquals(orderRepository.findById(second).orElseThrow().getOrderDate(), summary.getLastOrderDate());
+
+        orderService.updateStatus(first, "CANCELLED");
+        orderService.updateStatus(second, "COMPLETED");
+
+        // Cancelled orders still count as placed but no longer as spend; the stock is back
+        assertSummary(buyer, 2, "100.00", summaryService.getSummary(buyer.getId()));
+        assertSummary(other, 1, "100.00", summaryService.getSummary(other.getId()));
+        assertEquals(1_000, productRepository.findById(lamp.getId()).orElseThrow().getStockQuantity());
+    }
+
+    @Test
+    void createOrder_ShouldKeepSummaryExact_UnderConcurrentCheckouts() throws Exception {
+        int checkouts = 40;
+        List<Future<?>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < checkouts; i++) {
+                Product product = i % 2 == 0 ? lamp : desk;
+                results.add(executor.submit(() -> orderService.createOrder(orderRequest(buyer.getId(), product, 1))));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        }
+
+        assertSummary(buyer, checkouts, "2400.00", summaryService.getSummary(buyer.getId()));
+    }
+
+    @Test
+    void createOrders_ShouldApplyOneDeltaPerUserForABatch() {
+        orderBatchService.createOrders(List.of(
+                orderRequest(buyer.getId(), lamp, 1),
+                orderRequest(other.getId(), desk, 2),
+                orderRequest(buyer.getId(), desk, 1)));
+
+        assertSummary(buyer, 2, "120.00", summaryService.getSummary(buyer.getId()));
+        assertSummary(other, 1, "200.00", summaryService.getSummary(other.getId()));
+    }
+
+    @Test
+    void getSummary_ShouldSeedMissingSummaryFromExistingOrders() {
+        orderService.createOrder(orderRequest(buyer.getId(), lamp, 1));
+        orderService.createOrder(orderRequest(buyer.getId(), desk, 1));
+        // As for orders placed before summaries existed
+        summaryRepository.deleteAll();
+
+        assertSummary(buyer, 2, "120.00", summaryService.getSummary(buyer.getId()));
+        orderService.createOrder(orderRequest(buyer.getId(), lamp, 3));
+
+        assertEquals(3, summaryRepository.findById(buyer.getId()).orElseThrow().getOrderCount());
+        assertSummary(buyer, 3, "180.00", summaryService.getSummary(buyer.getId()));
+    }
+
+    @Test
+    void getSummary_ShouldThrow_WhenUserDoesNotExist() {
+        assertThrows(ResourceNotFoundException.class, () -> summaryService.getSummary(Long.MAX_VALUE));
+    }
+
+    private static void assertSummary(User user, long orderCount, String lifetimeSpend,
+            UserOrderSummaryResponse summary) {
+        assertEquals(user.getId(), summary.getUserId());
+        assertEquals(orderCount, summary.getOrderCount());
+        assertEquals(0, new BigDecimal(lifetimeSpend).compareTo(summary.getLifetimeSpend()),
+                "Expected spend " + lifetimeSpend + " but was " + summary.getLifetimeSpend());
+    }
+}
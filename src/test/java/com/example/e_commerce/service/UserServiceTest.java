@@ -4,18 +4,25 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
+import java.util.Optional;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import com.example.e_commerce.dto.UserRequest;
 import com.example.e_commerce.dto.UserResponse;
+import com.example.e_commerce.exception.ResourceNotFoundException;
 import com.example.e_commerce.model.User;
 import com.example.e_commerce.repository.UserRepository;
 
@@ -27,12 +34,16 @@ class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
-    @InjectMocks
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     private UserService userService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        userService = new UserService(userRepository, new PasswordHasher(passwordEncoder, 1, 4, Duration.ofSeconds(5)),
+                transactionManager);
     }
 
     @Test
@@ -54,4 +65,70 @@ class UserServiceTest {
         verify(passwordEncoder).encode("password123"); // Verify encryption happened
         verify(userRepository).save(any(User.class));
     }
+
+    @Test
+    void updateUser_ShouldKeepHash_WhenPasswordUnchanged() {
+        when(userRepository.findPasswordById(1L)).thenReturn(Optional.of("{bcrypt}storedHash"));
+        when(passwordEncoder.upgradeEncoding("{bcrypt}storedHash")).thenReturn(false);
+        when(passwordEncoder.matches("password123", "{bcrypt}storedHash")).thenReturn(true);
+        when(userRepository.updateIfPasswordUnchanged(1L, "John Smith", "john@example.com",
+                "{bcrypt}storedHash", "{bcrypt}storedHash")).thenReturn(1);
+
+        UserResponse response = userService.updateUser(1L,
+                new UserRequest("John Smith", "john@example.com", "password123"));
+
+        assertEquals("John Smith", response.getName());
+        verify(passwordEncoder, never()).encode(any());
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void updateUser_ShouldRehash_WhenPasswordChanged() {
+        when(userRepository.findPasswordById(1L)).thenReturn(Optional.of("{bcrypt}storedHash"));
+        when(passwordEncoder.matches("newPassword", "{bcrypt}storedHash")).thenReturn(false);
+        when(passwordEncoder.encode("newPassword")).thenReturn("{bcrypt}newHash");
+        when(userRepository.updateIfPasswordUnchanged(1L, "John Doe", "john@example.com",
+                "{bcrypt}newHash", "{bcrypt}storedHash")).thenReturn(1);
+
+        userService.updateUser(1L, new UserRequest("John Doe", "john@example.com", "newPassword"));
+
+        verify(userRepository).updateIfPasswordUnchanged(1L, "John Doe", "john@example.com",
+                "{bcrypt}newHash", "{bcrypt}storedHash");
+    }
+
+    @Test
+    void updateUser_ShouldRehash_WhenStoredHashNeedsUpgrade() {
+        when(userRepository.findPasswordById(1L)).thenReturn(Optional.of("$2a$04$legacyHash"));
+        when(passwordEncoder.upgradeEncoding("$2a$04$legacyHash")).thenReturn(true);
+        when(passwordEncoder.encode("password123")).thenReturn("{bcrypt}upgradedHash");
+        when(userRepository.updateIfPasswordUnchanged(1L, "John Doe", "john@example.com",
+                "{bcrypt}upgradedHash", "$2a$04$legacyHash")).thenReturn(1);
+
+        userService.updateUser(1L, new UserRequest("John Doe", "john@example.com", "password123"));
+
+        verify(passwordEncoder, never()).matches(any(), any());
+        verify(userRepository).updateIfPasswordUnchanged(1L, "John Doe", "john@example.com",
+                "{bcrypt}upgradedHash", "$2a$04$legacyHash");
+    }
+
+    @Test
+    void updateUser_ShouldConflict_WhenPasswordChangedConcurrently() {
+        when(userRepository.findPasswordById(1L)).thenReturn(Optional.of("{bcrypt}storedHash"));
+        when(passwordEncoder.matches("password123", "{bcrypt}storedHash")).thenReturn(true);
+        when(userRepository.updateIfPasswordUnchanged(any(), any(), any(), any(), any())).thenReturn(0);
+        when(userRepository.existsById(1L)).thenReturn(true);
+
+        assertThrows(OptimisticLockingFailureException.class, () -> userService.updateUser(1L,
+                new UserRequest("John Doe", "john@example.com", "password123")));
+    }
+
+    @Test
+    void updateUser_ShouldThrow_WhenUserNotFound() {
+        when(userRepository.findPasswordById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> userService.updateUser(1L,
+                new UserRequest("John Doe", "john@example.com", "password123")));
+        verify(passwordEncoder, never()).matches(any(), any());
+        verify(userRepository, never()).updateIfPasswordUnchanged(any(), any(), any(), any(), any());
+    }
 }
@@ -0,0 +1,151 @@
+package com.example.e_commerce.trending;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class SpaceSavingSketchTest {
+
+    private static final int ITEMS = 10_000;
+    private static final int CAPACITY = 300;
+
+    @Test
+    void offer_ShouldEvictSmallestCounter_AndChargeItAsError() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(2);
+        sketch.offer(1, 5);
+        sketch.offer(2, 3);
+        sketch.offer(3, 1);
+
+        assertEquals(List.of(new SpaceSavingSketch.Estimate(1, 5, 0), new SpaceSavingSketch.Estimate(3, 4, 3)),
+                sketch.top(10));
+        assertEquals(new SpaceSavingSketch.Estimate(2, 4, 4), sketch.estimate(2));
+        assertEquals(9, sketch.total());
+    }
+
+    @Test
+    void offer_ShouldStayWithinErrorBounds_OnSkewedStream() {
+        Map<Long, Long> exact = new HashMap<>();
+        SpaceSavingSketch sketch = new SpaceSavingSketch(CAPACITY);
+        for (long[] sale : zipfSales(new Random(42), 100_000)) {
+            sketch.offer(sale[0], sale[1]);
+            exact.merge(sale[0], sale[1], Long::sum);
+        }
+
+        long bound = sketch.total() / CAPACITY;
+        assertTrue(sketch.floor() <= bound);
+        assertWithinBounds(sketch, exact, bound);
+        assertTopItems(sketch, exact, bound);
+    }
+
+    @Test
+    void merge_ShouldStayWithinErrorBounds_OverAllBuckets() {
+        Random random = new Random(7);
+        Map<Long, Long> exact = new HashMap<>();
+        List<SpaceSavingSketch> buckets = new ArrayList<>();
+        long floors = 0;
+        for (int b = 0; b < 12; b++) {
+            SpaceSavingSketch bucket = new SpaceSavingSketch(CAPACITY);
+            for (long[] sale : zipfSales(random, 10_000)) {
+                bucket.offer(sale[0], sale[1]);
+                exact.merge(sale[0], sale[1], Long::sum);
+            }
+            floors += bucket.floor();
+            buckets.add(bucket);
+        }
+
+        SpaceSavingSketch merged = SpaceSavingSketch.merge(CAPACITY, buckets);
+
+        assertEquals(exact.values().stream().mapToLong(Long::longValue).sum(), merged.total());
+        assertTrue(merged.floor() >= floors);
+        assertWithinBounds(merged, exact, merged.floor());
+        assertTopItems(merged, exact, merged.floor());
+    }
+
+    @Test
+    void writeTo_ShouldRoundTrip() throws IOException {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(50);
+        for (long[] sale : zipfSales(new Random(3), 5_000)) {
+            sketch.offer(sale[0], sale[1]);
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        sketch.writeTo(new DataOutputStream(bytes));
+
+        SpaceSavingSketch copy = SpaceSavingSketch.readFrom(
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), 50);
+        SpaceSavingSketch smaller = SpaceSavingSketch.readFrom(
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), 10);
+
+        assertEquals(sketch.top(50), copy.top(50));
+        assertEquals(sketch.floor(), copy.floor());
+        assertEquals(sketch.top(10), smaller.top(10));
+        // Items dropped for the smaller capacity are still bounded by the floor
+        assertTrue(smaller.floor() >= sketch.top(11).get(10).count());
+    }
+
+    /**
+     * Every monitored estimate brackets the exact count with an error of at most
+     * {@code bound}, and every item heavier than the floor is monitored.
+     */
+    private static void assertWithinBounds(SpaceSavingSketch sketch, Map<Long, Long> exact, long bound) {
+        for (SpaceSavingSketch.Estimate estimate : sketch.top(sketch.capacity())) {
+            long actual = exact.getOrDefault(estimate.item(), 0L);
+            assertTrue(estimate.lowerBound() <= actual && actual <= estimate.count(),
+                    "Item " + estimate.item() + ": " + actual + " not in " + estimate);
+            assertTrue(estimate.error() <= bound, "Error " + estimate.error() + " above " + bound);
+        }
+        exact.forEach((item, actual) -> {
+            if (actual > sketch.floor()) {
+                assertTrue(sketch.top(sketch.capacity()).stream().anyMatch(e -> e.item() == item),
+                        "Heavy item " + item + " is not monitored");
+            }
+        });
+    }
+
+    /**
+     * Each reported top-10 item sells within {@code bound} of the true 10th best seller.
+     */
+    private static void assertTopItems(SpaceSavingSketch sketch, Map<Long, Long> exact, long bound) {
+        long tenth = exact.values().stream().sorted(Comparator.reverseOrder()).skip(9).findFirst().orElseThrow();
+        for (SpaceSavingSketch.Estimate estimate : sketch.top(10)) {
+            assertTrue(exact.get(estimate.item()) >= tenth - bound,
+                    "Item " + estimate.item() + " sold " + exact.get(estimate.item()) + ", 10th best " + tenth);
+        }
+        // The best seller leads by far more than the bound
+        long best = exact.entrySet().stream().max(Map.Entry.comparingByValue()).orElseThrow().getKey();
+        assertEquals(best, sketch.top(1).get(0).item());
+    }
+
+    /**
+     * Order lines whose products follow a Zipf distribution (s = 1.1) and whose
+     * quantities are 1 to 3, as {product id, quantity} pairs.
+     */
+    private static List<long[]> zipfSales(Random random, int lines) {
+        double[] cumulative = new double[ITEMS];
+        double sum = 0;
+        for (int i = 0; i < ITEMS; i++) {
+            sum += 1 / Math.pow(i + 1, 1.1);
+            cumulative[i] = sum;
+        }
+        List<long[]> sales = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            double u = random.nextDouble() * sum;
+            int rank = Arrays.binarySearch(cumulative, u);
+            sales.add(new long[] { rank < 0 ? -rank - 1 : rank, 1 + random.nextInt(3) });
+        }
+        return sales;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.e_commerce.trending;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TrendingProductsTest {
+
+    private static final long MINUTE = 60_000;
+    // A bucket boundary, so offsets below are whole buckets
+    private static final long T0 = 1_000 * MINUTE;
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void top_ShouldCountOnlyBucketsInsideTheWindow() {
+        TrendingProducts trending = tracker("");
+        trending.record(Map.of(1L, 5), T0);
+        trending.record(Map.of(2L, 3), T0 + 10 * MINUTE);
+        trending.record(Map.of(2L, 4, 1L, 1), T0 + 10 * MINUTE + 30_000);
+
+        long now = T0 + 10 * MINUTE + 45_000;
+        assertEquals(List.of(item(2, 7), item(1, 1)), trending.top(Duration.ofMinutes(5), 10, now));
+        assertEquals(List.of(item(2, 7), item(1, 6)), trending.top(Duration.ofMinutes(15), 10, now));
+        assertEquals(List.of(item(2, 7)), trending.top(Duration.ofMinutes(15), 1, now));
+
+        // An hour later the first bucket has left the window and its slot is reused
+        trending.record(Map.of(3L, 1), T0 + 60 * MINUTE);
+        assertEquals(List.of(item(2, 7), item(3, 1), item(1, 1)),
+                trending.top(Duration.ofHours(1), 10, T0 + 60 * MINUTE));
+    }
+
+    @Test
+    void top_ShouldServeCachedListUntilRefreshInterval() {
+        TrendingProducts trending = tracker("");
+        trending.record(Map.of(1L, 2), T0);
+        assertEquals(List.of(item(1, 2)), trending.top(Duration.ofMinutes(10), 10, T0 + 100));
+
+        trending.record(Map.of(1L, 3), T0 + 200);
+
+        assertEquals(List.of(item(1, 2)), trending.top(Duration.ofMinutes(10), 10, T0 + 500));
+        assertEquals(List.of(item(1, 5)), trending.top(Duration.ofMinutes(10), 10, T0 + 1_100));
+    }
+
+    @Test
+    void snapshot_ShouldBeRestoredOnStartup() {
+        String file = directory.resolve("trending.snapshot").toString();
+        TrendingProducts trending = tracker(file);
+        long now = System.currentTimeMillis();
+        trending.record(Map.of(1L, 2, 2L, 9), now);
+        trending.record(Map.of(1L, 4), now - 20 * MINUTE);
+        trending.close();
+
+        TrendingProducts restored = tracker(file);
+
+        assertEquals(List.of(item(2, 9), item(1, 6)), restored.top(Duration.ofHours(1), 10, now));
+        assertEquals(List.of(item(2, 9), item(1, 2)), restored.top(Duration.ofMinutes(1), 10, now));
+    }
+
+    private static TrendingProducts tracker(String snapshotFile) {
+        return new TrendingProducts(Duration.ofMinutes(1), Duration.ofHours(1), 100, Duration.ofSeconds(1),
+                snapshotFile);
+    }
+
+    private static SpaceSavingSketch.Estimate item(long id, long units) {
+        return new SpaceSavingSketch.Estimate(id, units, 0);
+    }
+}